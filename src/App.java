@@ -1,54 +1,14 @@
-import com.inventorysystem.gui.userFrame;
-import com.inventorysystem.gui.Startup;
-
-import javax.swing.JFrame;
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
+import com.inventorysystem.gui.StartupSequence;
 
 // Main app
 public class App {
 
     public static void main(String[] args) {
-        
-        // Splash screen
-        Startup splash = new Startup();
-        splash.showSplash();
-
-        SwingUtilities.invokeLater(() -> {
-            try {
-                splash.updateProgress(20, "Loading UI components...");
-                Thread.sleep(250);
-
-                // OS look
-                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-
-                splash.updateProgress(50, "Initializing system...");
-                Thread.sleep(250);
-
-                // Smooth UI
-                System.setProperty("awt.useSystemAAFontSettings", "on");
-                System.setProperty("swing.aatext", "true");
-
-                splash.updateProgress(80, "Starting application...");
-                Thread.sleep(250);
-
-            } catch (Exception e) {
-                com.inventorysystem.util.DebugLogger.error("Failed to set LookAndFeel or rendering properties", e);
-            }
-
-            splash.updateProgress(100, "Ready!");
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                com.inventorysystem.util.DebugLogger.error("Splash screen delay interrupted", e);
-            }
+        // Smooth UI (before anything renders)
+        System.setProperty("awt.useSystemAAFontSettings", "on");
+        System.setProperty("swing.aatext", "true");
 
-            // Show main window
-            splash.closeSplash();
-            userFrame frame = new userFrame();
-            frame.setExtendedState(JFrame.MAXIMIZED_BOTH); // Full screen
-            frame.setVisible(true);
-        });
+        // Splash, then login once config, database and look and feel are ready
+        StartupSequence.launch();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,697 @@
+package com.inventorysystem.data;
+
+import com.inventorysystem.util.DebugLogger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded JDBC connection pool
+class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final int validationTimeoutSec;
+    private final long validationIntervalMs;
+    private final long leakDetectionMs;
+    private final int statementCacheSize;
+
+    // Permits = connections that may be handed out
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // Stats
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(PoolStats.HISTOGRAM_BOUNDS_MS.length + 1);
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    ConnectionPool(String url, String user, String password, PoolConfig config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = config.maxSize();
+        this.minIdle = Math.min(config.minIdle(), config.maxSize());
+        this.borrowTimeoutMs = config.borrowTimeoutMs();
+        this.idleTimeoutMs = config.idleTimeoutMs();
+        this.maxLifetimeMs = config.maxLifetimeMs();
+        this.validationTimeoutSec = config.validationTimeoutSec();
+        this.validationIntervalMs = config.validationIntervalMs();
+        this.leakDetectionMs = config.leakDetectionMs();
+        this.statementCacheSize = Math.max(0, config.statementCacheSize());
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMs, 30_000L));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Borrow connection
+    Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMs + "ms waiting for a database connection " +
+                                       "(active=" + borrowed.size() + ", max=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledEntry entry = takeIdle();
+            if (entry == null) {
+                entry = new PooledEntry(DriverManager.getConnection(url, user, password));
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowSite = leakDetectionMs > 0 ? new Exception("Connection borrowed here") : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+            recordBorrow(System.nanoTime() - start);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Pop a usable idle connection, discarding stale ones
+    private PooledEntry takeIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (isExpired(entry, now)) {
+                closeQuietly(entry);
+                continue;
+            }
+            if (now - entry.lastUsed >= validationIntervalMs && !isAlive(entry)) {
+                closeQuietly(entry);
+                continue;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    // Return connection
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        try {
+            boolean reusable = !shutdown && !isExpired(entry, System.currentTimeMillis()) && !entry.raw.isClosed();
+            if (reusable) {
+                if (!entry.raw.getAutoCommit()) {
+                    entry.raw.rollback();
+                    entry.raw.setAutoCommit(true);
+                }
+                entry.raw.clearWarnings();
+                entry.lastUsed = System.currentTimeMillis();
+                entry.borrowSite = null;
+                idle.offerFirst(entry);
+            } else {
+                closeQuietly(entry);
+            }
+        } catch (SQLException e) {
+            DebugLogger.debug("Discarding broken pooled connection: " + e.getMessage());
+            closeQuietly(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Evict idle/expired, report leaks
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            int idleCount = idle.size();
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledEntry entry = it.next();
+                boolean overIdle = idleTimeoutMs > 0 && now - entry.lastUsed > idleTimeoutMs && idleCount > minIdle;
+                if ((overIdle || isExpired(entry, now)) && idle.remove(entry)) {
+                    closeQuietly(entry);
+                    idleCount--;
+                }
+            }
+
+            if (leakDetectionMs > 0) {
+                for (PooledEntry entry : borrowed) {
+                    if (!entry.leakReported && now - entry.borrowedAt > leakDetectionMs) {
+                        entry.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        Exception site = entry.borrowSite;
+                        if (site != null) {
+                            DebugLogger.error("Possible connection leak: held for " + (now - entry.borrowedAt) + "ms", site);
+                        } else {
+                            DebugLogger.error("Possible connection leak: held for " + (now - entry.borrowedAt) + "ms");
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            DebugLogger.error("Connection pool housekeeping failed", e);
+        }
+    }
+
+    // Pre-open min idle connections
+    void warmUp() throws SQLException {
+        while (idle.size() + borrowed.size() < minIdle && permits.tryAcquire()) {
+            try {
+                PooledEntry entry = new PooledEntry(DriverManager.getConnection(url, user, password));
+                idle.offerLast(entry);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    PoolStats stats() {
+        long borrows = totalBorrows.get();
+        long[] histogram = new long[latencyHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = latencyHistogram.get(i);
+        }
+        double avgWait = borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+        return new PoolStats(
+            borrowed.size(),
+            idle.size(),
+            maxSize,
+            permits.getQueueLength(),
+            borrows,
+            borrowTimeouts.get(),
+            leaksDetected.get(),
+            avgWait,
+            maxWaitNanos.get() / 1_000_000.0,
+            histogram,
+            statementCacheHits.get(),
+            statementCacheMisses.get()
+        );
+    }
+
+    void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closeQuietly(entry);
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        totalBorrows.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = 0;
+        while (bucket < PoolStats.HISTOGRAM_BOUNDS_MS.length && waitMs >= PoolStats.HISTOGRAM_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        latencyHistogram.incrementAndGet(bucket);
+    }
+
+    private boolean isExpired(PooledEntry entry, long now) {
+        return maxLifetimeMs > 0 && now - entry.createdAt > maxLifetimeMs;
+    }
+
+    private boolean isAlive(PooledEntry entry) {
+        try {
+            return entry.raw.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(PooledEntry entry) {
+        entry.closeStatements();
+        try {
+            entry.raw.close();
+        } catch (SQLException e) {
+            // Ignored
+        }
+    }
+
+    // Physical connection + bookkeeping
+    private final class PooledEntry {
+        final Connection raw;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsed = createdAt;
+        volatile long borrowedAt;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+
+        // Prepared statements by SQL text, LRU evicted
+        private final Map<StatementKey, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    eldest.getValue().evicted = true;
+                    if (!eldest.getValue().inUse) {
+                        closeStatement(eldest.getValue().raw);
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        PooledEntry(Connection raw) {
+            this.raw = raw;
+        }
+
+        // Reserve the cached statement for this SQL; null when it must be prepared uncached
+        synchronized CachedStatement checkOut(StatementKey key) throws SQLException {
+            if (statementCacheSize == 0) {
+                return null;
+            }
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse && !cached.raw.isClosed()) {
+                statementCacheHits.incrementAndGet();
+            } else if (cached != null && cached.inUse) {
+                // Same SQL already open on this connection, don't share it
+                statementCacheMisses.incrementAndGet();
+                return null;
+            } else {
+                statementCacheMisses.incrementAndGet();
+                cached = new CachedStatement(key.prepare(raw));
+                statements.put(key, cached);
+            }
+            cached.inUse = true;
+            return cached;
+        }
+
+        synchronized void giveBack(CachedStatement cached) {
+            cached.inUse = false;
+            if (cached.evicted) {
+                closeStatement(cached.raw);
+                return;
+            }
+            if (cached.pinned) {
+                // Borrower changed a setting that cannot be undone; don't hand it to anyone else
+                statements.values().remove(cached);
+                closeStatement(cached.raw);
+                return;
+            }
+            try {
+                cached.raw.clearParameters();
+                cached.raw.clearBatch();
+                cached.raw.clearWarnings();
+                if (cached.settingsChanged) {
+                    // Back to driver defaults so the next borrower doesn't inherit them
+                    cached.raw.setFetchSize(0);
+                    cached.raw.setFetchDirection(java.sql.ResultSet.FETCH_FORWARD);
+                    cached.raw.setMaxRows(0);
+                    cached.raw.setQueryTimeout(0);
+                    cached.raw.setMaxFieldSize(0);
+                    cached.settingsChanged = false;
+                }
+            } catch (SQLException e) {
+                statements.values().remove(cached);
+                closeStatement(cached.raw);
+            }
+        }
+
+        synchronized void closeStatements() {
+            for (CachedStatement cached : statements.values()) {
+                closeStatement(cached.raw);
+            }
+            statements.clear();
+        }
+
+        // Fresh proxy per borrow so a stale handle can't touch the next user's session
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this)
+            );
+        }
+    }
+
+    // Connection proxy, close() returns to pool
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private final List<StatementHandle> openStatements = new ArrayList<>();
+        private boolean closed = false;
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        // Statements left open by this borrower must not reach the next one
+                        for (StatementHandle statement : openStatementsSnapshot()) {
+                            statement.revoke();
+                        }
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.raw + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (method.getName().equals("prepareStatement") && args != null && args[0] instanceof String sql) {
+                StatementKey key = null;
+                if (args.length == 1) {
+                    key = new StatementKey(sql, -1);
+                } else if (args.length == 2 && args[1] instanceof Integer keys) {
+                    key = new StatementKey(sql, keys);
+                }
+                if (key != null) {
+                    CachedStatement cached = entry.checkOut(key);
+                    PreparedStatement statement = cached != null ? cached.raw : key.prepare(entry.raw);
+                    return track(PreparedStatement.class, statement, cached, (Connection) proxy);
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // createStatement, prepareCall and the other prepareStatement overloads: uncached, still tracked
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return track(method.getReturnType(), statement, null, (Connection) proxy);
+            }
+            return result;
+        }
+
+        private Object track(Class<?> type, Statement statement, CachedStatement cached, Connection connection) {
+            StatementHandle handle = new StatementHandle(this, entry, statement, cached, connection);
+            synchronized (openStatements) {
+                openStatements.add(handle);
+            }
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handle);
+        }
+
+        void untrack(StatementHandle statement) {
+            synchronized (openStatements) {
+                openStatements.remove(statement);
+            }
+        }
+
+        private List<StatementHandle> openStatementsSnapshot() {
+            synchronized (openStatements) {
+                return new ArrayList<>(openStatements);
+            }
+        }
+    }
+
+    // Statement proxy: close() hands a cached statement back (or closes an uncached one),
+    // getConnection() returns the borrower's handle instead of the physical connection
+    private static final class StatementHandle implements InvocationHandler {
+        // Statement settings reset on return
+        private static final Set<String> RESETTABLE_SETTERS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setQueryTimeout", "setMaxFieldSize");
+        // Settings with no clean reset; the statement is closed on return instead of cached
+        private static final Set<String> PINNING_SETTERS = Set.of(
+            "setCursorName", "setEscapeProcessing", "setPoolable", "closeOnCompletion");
+
+        private final Handle connectionHandle;
+        private final PooledEntry owner;
+        private final Statement raw;
+        private final CachedStatement cached; // Null when not from the cache
+        private final Connection connection;
+        private boolean closed = false;
+
+        StatementHandle(Handle connectionHandle, PooledEntry owner, Statement raw, CachedStatement cached,
+                        Connection connection) {
+            this.connectionHandle = connectionHandle;
+            this.owner = owner;
+            this.raw = raw;
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (close()) connectionHandle.untrack(this);
+                    return null;
+                case "isClosed":
+                    return isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (isClosed()) {
+                throw new SQLException("Statement is closed");
+            }
+            if (cached != null) {
+                if (RESETTABLE_SETTERS.contains(method.getName())) {
+                    cached.settingsChanged = true;
+                } else if (PINNING_SETTERS.contains(method.getName())) {
+                    cached.pinned = true;
+                }
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Connection returned to the pool with this statement still open
+        void revoke() {
+            close();
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        // True on the first call only
+        private boolean close() {
+            synchronized (this) {
+                if (closed) return false;
+                closed = true;
+            }
+            if (cached != null) {
+                owner.giveBack(cached);
+            } else {
+                closeStatement(raw);
+            }
+            return true;
+        }
+    }
+
+    // Cache key: SQL text + generated keys flag
+    private record StatementKey(String sql, int autoGeneratedKeys) {
+        PreparedStatement prepare(Connection conn) throws SQLException {
+            return autoGeneratedKeys < 0 ? conn.prepareStatement(sql) : conn.prepareStatement(sql, autoGeneratedKeys);
+        }
+    }
+
+    // Pooled statement slot; borrowers reach it only through a StatementHandle
+    private static final class CachedStatement {
+        final PreparedStatement raw;
+        boolean inUse;
+        boolean evicted;
+        boolean settingsChanged; // Set by the borrower between checkOut and giveBack
+        boolean pinned;
+
+        CachedStatement(PreparedStatement raw) {
+            this.raw = raw;
+        }
+    }
+
+    private static void closeStatement(Statement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            // Ignored
+        }
+    }
+
+    // Pool settings
+    record PoolConfig(
+        int maxSize,
+        int minIdle,
+        long borrowTimeoutMs,
+        long idleTimeoutMs,
+        long maxLifetimeMs,
+        int validationTimeoutSec,
+        long validationIntervalMs,
+        long leakDetectionMs,
+        int statementCacheSize
+    ) {}
+
+    // Benchmark: concurrent single-line checkouts with the statement cache off (0) and on (64).
+    // Run against a test database: it tops up stock on the user's first products, sells, then
+    // deletes the sales and logs it wrote and restores the original stock.
+    // Args: userId threads sellsPerThread products
+    public static void main(String[] args) throws Exception {
+        int userId = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int sells = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int productCount = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+        ProductRepository repository = new ProductRepository(userId);
+        Map<Integer, Integer> originalStock = new LinkedHashMap<>();
+        long maxSaleId;
+        long maxLogId;
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (java.sql.ResultSet rs = stmt.executeQuery("SELECT product_id, quantity_in_stock FROM products WHERE user_id = "
+                    + userId + " ORDER BY product_id LIMIT " + productCount)) {
+                while (rs.next()) originalStock.put(rs.getInt(1), rs.getInt(2));
+            }
+            maxSaleId = scalar(stmt, "SELECT COALESCE(MAX(sale_id), 0) FROM sales");
+            maxLogId = scalar(stmt, "SELECT COALESCE(MAX(log_id), 0) FROM stock_log");
+        }
+        if (originalStock.isEmpty()) {
+            System.out.println("FAILED: user " + userId + " has no products to sell");
+            System.exit(1);
+        }
+        Integer[] productIds = originalStock.keySet().toArray(new Integer[0]);
+        String inList = originalStock.keySet().stream().map(String::valueOf).collect(java.util.stream.Collectors.joining(","));
+
+        try {
+            for (int cacheSize : new int[] {0, 64, 0, 64}) { // First pair warms the server and JIT
+                DatabaseConnection.replacePool(cacheSize);
+                try (Connection conn = DatabaseConnection.getConnection();
+                     Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("UPDATE products SET quantity_in_stock = quantity_in_stock + " + (threads * sells)
+                        + " WHERE user_id = " + userId + " AND product_id IN (" + inList + ")");
+                }
+                long preparesBefore = globalStatus("Com_stmt_prepare");
+
+                long[] latencies = new long[threads * sells];
+                java.util.concurrent.atomic.AtomicInteger slot = new java.util.concurrent.atomic.AtomicInteger();
+                java.util.concurrent.ConcurrentLinkedQueue<Exception> errors = new java.util.concurrent.ConcurrentLinkedQueue<>();
+                java.util.concurrent.CountDownLatch go = new java.util.concurrent.CountDownLatch(1);
+                java.util.List<Thread> workers = new java.util.ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int offset = t;
+                    Thread worker = new Thread(() -> {
+                        try {
+                            go.await();
+                            for (int i = 0; i < sells; i++) {
+                                int productId = productIds[(offset + i) % productIds.length];
+                                long start = System.nanoTime();
+                                repository.checkout(java.util.List.of(
+                                    new com.inventorysystem.model.CartItem(productId, null, 1, 0.0)));
+                                latencies[slot.getAndIncrement()] = System.nanoTime() - start;
+                            }
+                        } catch (Exception e) {
+                            errors.add(e);
+                        }
+                    }, "sell-bench-" + t);
+                    worker.start();
+                    workers.add(worker);
+                }
+                long start = System.nanoTime();
+                go.countDown();
+                for (Thread worker : workers) worker.join();
+                long elapsed = System.nanoTime() - start;
+
+                if (!errors.isEmpty()) {
+                    System.out.println("FAILED: " + errors.size() + " threads errored, first: " + errors.peek());
+                    System.exit(1);
+                }
+                long prepares = globalStatus("Com_stmt_prepare") - preparesBefore;
+                PoolStats stats = DatabaseConnection.getPoolStats();
+                long[] sorted = java.util.Arrays.copyOf(latencies, slot.get());
+                java.util.Arrays.sort(sorted);
+                System.out.printf("statementCacheSize=%-2d %d threads x %d sells: %.0f sells/s, p50 %.2f ms, p95 %.2f ms, "
+                        + "Com_stmt_prepare +%d (%.2f per sell), cache hits %d / misses %d%n",
+                    cacheSize, threads, sells, sorted.length / (elapsed / 1e9),
+                    sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.95)] / 1e6,
+                    prepares, (double) prepares / sorted.length, stats.statementCacheHits(), stats.statementCacheMisses());
+            }
+        } finally {
+            // Undo: the benchmark's sales and logs, then the original stock
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM sale_items WHERE sale_id IN (SELECT sale_id FROM sales WHERE user_id = "
+                    + userId + " AND sale_id > " + maxSaleId + ")");
+                stmt.executeUpdate("DELETE FROM sales WHERE user_id = " + userId + " AND sale_id > " + maxSaleId);
+                stmt.executeUpdate("DELETE FROM stock_log WHERE user_id = " + userId + " AND log_id > " + maxLogId);
+                for (Map.Entry<Integer, Integer> stock : originalStock.entrySet()) {
+                    stmt.executeUpdate("UPDATE products SET quantity_in_stock = " + stock.getValue()
+                        + " WHERE product_id = " + stock.getKey() + " AND user_id = " + userId);
+                }
+            }
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    // Server-wide counter; other clients on the same server add to it
+    private static long globalStatus(String name) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             java.sql.ResultSet rs = stmt.executeQuery("SHOW GLOBAL STATUS LIKE '" + name + "'")) {
+            return rs.next() ? rs.getLong(2) : 0;
+        }
+    }
+
+    private static long scalar(Statement stmt, String sql) throws SQLException {
+        try (java.sql.ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
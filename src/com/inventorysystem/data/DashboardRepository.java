@@ -1,5 +1,8 @@
 package com.inventorysystem.data;
 
+import com.inventorysystem.model.DashboardSnapshot;
+import com.inventorysystem.model.DateRange;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -8,6 +11,62 @@ import java.sql.SQLException;
 // Dashboard repo
 public class DashboardRepository {
 
+    // All KPI counters in one statement: product aggregates + sales/profit subqueries
+    private static final String SNAPSHOT_KPI_SQL =
+        "SELECT COUNT(*) AS total_products, " +
+        "COALESCE(SUM(p.quantity_in_stock), 0) AS total_stock, " +
+        "COALESCE(SUM(CASE WHEN p.quantity_in_stock <= 0 THEN 1 ELSE 0 END), 0) AS out_of_stock, " +
+        "COALESCE(SUM(p.cost_price * p.quantity_in_stock), 0) AS inventory_cost, " +
+        "(SELECT COALESCE(SUM(s.total_amount), 0) FROM sales s " +
+        " WHERE s.user_id = ? AND s.sale_date >= ? AND s.sale_date < ?) AS total_income, " +
+        "(SELECT COALESCE(SUM(si.quantity_sold * (si.unit_price - si.cost_price)), 0) FROM sales s " +
+        " JOIN sale_items si ON s.sale_id = si.sale_id " +
+        " WHERE s.user_id = ? AND s.sale_date >= ? AND s.sale_date < ?) AS total_profit " +
+        "FROM products p WHERE p.user_id = ?";
+
+    // Full dashboard on one connection
+    public DashboardSnapshot getDashboardSnapshot(int userId, DateRange range, int bestSellerLimit) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int totalProducts = 0;
+            int totalStock = 0;
+            int outOfStock = 0;
+            double inventoryCost = 0.0;
+            double totalIncome = 0.0;
+            double totalProfit = 0.0;
+
+            try (PreparedStatement pstmt = conn.prepareStatement(SNAPSHOT_KPI_SQL)) {
+                pstmt.setInt(1, userId);
+                pstmt.setTimestamp(2, range.start());
+                pstmt.setTimestamp(3, range.endExclusive());
+                pstmt.setInt(4, userId);
+                pstmt.setTimestamp(5, range.start());
+                pstmt.setTimestamp(6, range.endExclusive());
+                pstmt.setInt(7, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        totalProducts = rs.getInt("total_products");
+                        totalStock = rs.getInt("total_stock");
+                        outOfStock = rs.getInt("out_of_stock");
+                        inventoryCost = rs.getDouble("inventory_cost");
+                        totalIncome = rs.getDouble("total_income");
+                        totalProfit = rs.getDouble("total_profit");
+                    }
+                }
+            }
+
+            return new DashboardSnapshot(
+                totalProducts,
+                totalStock,
+                outOfStock,
+                inventoryCost,
+                totalIncome,
+                totalProfit,
+                getBestSellers(conn, userId, range, bestSellerLimit),
+                getStockAlerts(conn, userId)
+            );
+        }
+    }
+
     // Get products
     public int getTotalProducts(int userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM products WHERE user_id = ?";
@@ -84,14 +143,14 @@ public class DashboardRepository {
     }
 
     // Get income range
-    public double getTotalIncome(int userId, java.sql.Date startDate, java.sql.Date endDate) throws SQLException {
+    public double getTotalIncome(int userId, DateRange range) throws SQLException {
         String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM sales " +
-                     "WHERE user_id = ? AND DATE(sale_date) BETWEEN DATE(?) AND DATE(?)";
+                     "WHERE user_id = ? AND sale_date >= ? AND sale_date < ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            pstmt.setDate(2, startDate);
-            pstmt.setDate(3, endDate);
+            pstmt.setTimestamp(2, range.start());
+            pstmt.setTimestamp(3, range.endExclusive());
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getDouble(1);
@@ -121,17 +180,17 @@ public class DashboardRepository {
     }
 
     // Get profit range
-    public double getTotalProfit(int userId, java.sql.Date startDate, java.sql.Date endDate) throws SQLException {
+    public double getTotalProfit(int userId, DateRange range) throws SQLException {
         String sql = "SELECT COALESCE(SUM(si.quantity_sold * (si.unit_price - si.cost_price)), 0) AS total_profit " +
                      "FROM sales s " +
                      "JOIN sale_items si ON s.sale_id = si.sale_id " +
-                     "WHERE s.user_id = ? AND DATE(s.sale_date) BETWEEN DATE(?) AND DATE(?)";
+                     "WHERE s.user_id = ? AND s.sale_date >= ? AND s.sale_date < ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            pstmt.setTimestamp(2, new java.sql.Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(3, new java.sql.Timestamp(endDate.getTime()));
+            pstmt.setTimestamp(2, range.start());
+            pstmt.setTimestamp(3, range.endExclusive());
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return rs.getDouble("total_profit");
@@ -142,7 +201,13 @@ public class DashboardRepository {
     }
     
     // Get best
-public java.util.List<Object[]> getBestSellers(int userId, java.sql.Date startDate, java.sql.Date endDate, int limit) throws SQLException {
+    public java.util.List<Object[]> getBestSellers(int userId, DateRange range, int limit) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return getBestSellers(conn, userId, range, limit);
+        }
+    }
+
+    private java.util.List<Object[]> getBestSellers(Connection conn, int userId, DateRange range, int limit) throws SQLException {
         String sql = "SELECT p.name, " +
                      "COALESCE(SUM(si.quantity_sold * si.unit_price), 0) AS sales_amount, " +
                      "COALESCE(SUM(si.quantity_sold * si.cost_price), 0) AS cogs, " +
@@ -152,26 +217,26 @@ public java.util.List<Object[]> getBestSellers(int userId, java.sql.Date startDa
                      "JOIN sale_items si ON s.sale_id = si.sale_id " +
                      "JOIN products p ON si.product_id = p.product_id AND s.user_id = p.user_id " +
                      "WHERE s.user_id = ? " +
-                     "AND DATE(s.sale_date) BETWEEN DATE(?) AND DATE(?) " +
+                     "AND s.sale_date >= ? AND s.sale_date < ? " +
                      "GROUP BY p.product_id, p.name " +
                      "ORDER BY sales_amount DESC " +
                      "LIMIT ?";
         
         java.util.List<Object[]> results = new java.util.ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            pstmt.setTimestamp(2, new java.sql.Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(3, new java.sql.Timestamp(endDate.getTime()));
+            pstmt.setTimestamp(2, range.start());
+            pstmt.setTimestamp(3, range.endExclusive());
             pstmt.setInt(4, limit);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
+                    // Raw values; the table formats them when painting
                     Object[] row = {
                         rs.getString("name"),
-                        "₱" + String.format("%,.2f", rs.getDouble("sales_amount")),
-                        "₱" + String.format("%,.2f", rs.getDouble("cogs")),
-                        "₱" + String.format("%,.2f", rs.getDouble("margin")),
-                        String.valueOf(rs.getInt("qty_sold"))
+                        rs.getDouble("sales_amount"),
+                        rs.getDouble("cogs"),
+                        rs.getDouble("margin"),
+                        rs.getInt("qty_sold")
                     };
                     results.add(row);
                 }
@@ -182,6 +247,12 @@ public java.util.List<Object[]> getBestSellers(int userId, java.sql.Date startDa
     
     // Get alerts
     public java.util.List<Object[]> getStockAlerts(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return getStockAlerts(conn, userId);
+        }
+    }
+
+    private java.util.List<Object[]> getStockAlerts(Connection conn, int userId) throws SQLException {
         String sql = "SELECT name, quantity_in_stock, " +
                      "CASE " +
                      "  WHEN quantity_in_stock = 0 THEN 'Out of Stock' " +
@@ -195,8 +266,7 @@ public java.util.List<Object[]> getBestSellers(int userId, java.sql.Date startDa
                      "ORDER BY quantity_in_stock ASC";
         
         java.util.List<Object[]> results = new java.util.ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -214,4 +284,99 @@ public java.util.List<Object[]> getBestSellers(int userId, java.sql.Date startDa
         }
         return results;
     }
-}
\ No newline at end of file
+
+    // Benchmark: income for one user over a week, a month and a year on a scratch multi-million-row sales table,
+    // old DATE(col) BETWEEN vs half-open col >= ? AND col < ?. Prints median ms and EXPLAIN, exits 1 if sums differ.
+    // Args: rows (default 2,000,000; rounded up to a power of two). The scratch table is dropped afterwards.
+    public static void main(String[] args) throws Exception {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000L;
+        String legacySql = "SELECT COALESCE(SUM(total_amount), 0) FROM bench_sales " +
+            "WHERE user_id = ? AND DATE(sale_date) BETWEEN DATE(?) AND DATE(?)";
+        String halfOpenSql = "SELECT COALESCE(SUM(total_amount), 0) FROM bench_sales " +
+            "WHERE user_id = ? AND sale_date >= ? AND sale_date < ?";
+        java.time.LocalDate first = java.time.LocalDate.of(2024, 3, 1);
+        java.time.LocalDate[][] ranges = {
+            {first, first.plusDays(6)}, {first, first.plusMonths(1).minusDays(1)}, {first, first.plusYears(1).minusDays(1)}
+        };
+        String[] labels = {"week", "month", "year"};
+
+        boolean ok = true;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try {
+                seedBenchSales(conn, rows);
+                for (int r = 0; r < ranges.length; r++) {
+                    DateRange range = DateRange.ofDays(ranges[r][0], ranges[r][1]);
+                    // Old code bound the picker's dates; the BETWEEN end was the last day itself
+                    Object[] legacyArgs = {7, java.sql.Date.valueOf(ranges[r][0]), java.sql.Date.valueOf(ranges[r][1])};
+                    Object[] halfOpenArgs = {7, range.start(), range.endExclusive()};
+
+                    double[] legacy = time(conn, legacySql, legacyArgs);
+                    double[] halfOpen = time(conn, halfOpenSql, halfOpenArgs);
+                    boolean same = Math.abs(legacy[1] - halfOpen[1]) < 0.005;
+                    ok &= same;
+                    System.out.printf("%-5s DATE() BETWEEN: %8.1f ms  %s%n", labels[r], legacy[0], explain(conn, legacySql, legacyArgs));
+                    System.out.printf("%-5s half-open:      %8.1f ms  %s  (%s, sum %.2f)%n", "", halfOpen[0],
+                        explain(conn, halfOpenSql, halfOpenArgs), same ? "same result" : "RESULT DIFFERS", halfOpen[1]);
+                }
+            } finally {
+                try (java.sql.Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DROP TABLE IF EXISTS bench_sales");
+                }
+            }
+        }
+        if (!ok) {
+            System.out.println("FAILED: the two predicates returned different totals");
+            System.exit(1);
+        }
+    }
+
+    // Sales shape with the V2 (user_id, sale_date, total_amount) index; 20 users over three years, doubled up to size
+    private static void seedBenchSales(Connection conn, long rows) throws SQLException {
+        try (java.sql.Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS bench_sales");
+            stmt.executeUpdate("CREATE TABLE bench_sales (" +
+                "sale_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY, sale_date DATETIME NOT NULL, " +
+                "total_amount DECIMAL(12,2) NOT NULL, user_id INT NOT NULL, " +
+                "KEY idx_sales_user_date (user_id, sale_date, total_amount)) ENGINE=InnoDB");
+            stmt.executeUpdate("INSERT INTO bench_sales (sale_date, total_amount, user_id) VALUES ('2023-01-01 08:00:00', 10, 1)");
+            long count = 1;
+            long start = System.nanoTime();
+            while (count < rows) {
+                count += stmt.executeUpdate("INSERT INTO bench_sales (sale_date, total_amount, user_id) " +
+                    "SELECT '2023-01-01' + INTERVAL FLOOR(RAND() * 1095 * 86400) SECOND, ROUND(RAND() * 500, 2), " +
+                    "FLOOR(RAND() * 20) + 1 FROM bench_sales");
+            }
+            stmt.executeQuery("ANALYZE TABLE bench_sales").close();
+            System.out.printf("Seeded %,d rows in %.1f s%n", count, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    // Median of 5 runs after one warm-up; returns {ms, sum}
+    private static double[] time(Connection conn, String sql, Object[] args) throws SQLException {
+        double[] runs = new double[5];
+        double sum = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) pstmt.setObject(i + 1, args[i]);
+            for (int run = -1; run < runs.length; run++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    sum = rs.next() ? rs.getDouble(1) : 0;
+                }
+                if (run >= 0) runs[run] = (System.nanoTime() - start) / 1e6;
+            }
+        }
+        java.util.Arrays.sort(runs);
+        return new double[] {runs[runs.length / 2], sum};
+    }
+
+    private static String explain(Connection conn, String sql, Object[] args) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < args.length; i++) pstmt.setObject(i + 1, args[i]);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next()
+                    ? "type=" + rs.getString("type") + " key=" + rs.getString("key") + " rows=" + rs.getString("rows")
+                    : "no plan";
+            }
+        }
+    }
+}
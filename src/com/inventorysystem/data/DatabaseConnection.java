@@ -3,7 +3,6 @@ package com.inventorysystem.data;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -13,6 +12,8 @@ public class DatabaseConnection {
     private static final String DB_URL;
     private static final String DB_USER;
     private static final String DB_PASSWORD;
+    private static final ConnectionPool.PoolConfig POOL_CONFIG;
+    private static volatile ConnectionPool pool;
 
     // Load DB config
     static {
@@ -32,12 +33,79 @@ public class DatabaseConnection {
         } catch (IOException ex) {
             throw new RuntimeException("Failed to load database configuration", ex);
         }
+
+        // Pool config (defaults if missing)
+        ConnectionPool.PoolConfig poolConfig = new ConnectionPool.PoolConfig(
+            intProperty(properties, "db.pool.maxSize", 10),
+            intProperty(properties, "db.pool.minIdle", 2),
+            longProperty(properties, "db.pool.borrowTimeoutMs", 10_000L),
+            longProperty(properties, "db.pool.idleTimeoutMs", 300_000L),
+            longProperty(properties, "db.pool.maxLifetimeMs", 1_800_000L),
+            intProperty(properties, "db.pool.validationTimeoutSec", 2),
+            longProperty(properties, "db.pool.validationIntervalMs", 5_000L),
+            longProperty(properties, "db.pool.leakDetectionMs", 60_000L),
+            intProperty(properties, "db.pool.statementCacheSize", 64)
+        );
+        if (poolConfig.maxSize() <= 0) {
+            throw new RuntimeException("db.pool.maxSize must be positive");
+        }
+        POOL_CONFIG = poolConfig;
+        pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, poolConfig);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            com.inventorysystem.util.DebugLogger.info("DB pool stats at exit: " + pool.stats());
+            pool.shutdown();
+        }, "db-pool-shutdown"));
     }
 
     private DatabaseConnection() {}
 
-    // Get DB connection
+    // Get DB connection (pooled, close() returns it)
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return pool.borrow();
+    }
+
+    // Open min idle connections ahead of first use
+    public static void warmUp() throws SQLException {
+        pool.warmUp();
+    }
+
+    // Pool stats
+    public static PoolStats getPoolStats() {
+        return pool.stats();
+    }
+
+    // Close idle connections
+    public static void shutdown() {
+        pool.shutdown();
+    }
+
+    // Swap in a fresh pool with another statement cache size (benchmarks only; borrowed connections drain from the old one)
+    static void replacePool(int statementCacheSize) {
+        ConnectionPool.PoolConfig c = POOL_CONFIG;
+        ConnectionPool old = pool;
+        pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, new ConnectionPool.PoolConfig(
+            c.maxSize(), c.minIdle(), c.borrowTimeoutMs(), c.idleTimeoutMs(), c.maxLifetimeMs(),
+            c.validationTimeoutSec(), c.validationIntervalMs(), c.leakDetectionMs(), statementCacheSize));
+        old.shutdown();
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid number for " + key + ": " + value, e);
+        }
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid number for " + key + ": " + value, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.inventorysystem.data;
+
+// Pool stats snapshot
+public record PoolStats(
+    int activeConnections,
+    int idleConnections,
+    int maxSize,
+    int threadsAwaiting,
+    long totalBorrows,
+    long borrowTimeouts,
+    long leaksDetected,
+    double averageWaitMillis,
+    double maxWaitMillis,
+    long[] borrowLatencyHistogram,
+    long statementCacheHits,
+    long statementCacheMisses
+) {
+
+    // Histogram bucket upper bounds (ms), last bucket is open ended
+    public static final long[] HISTOGRAM_BOUNDS_MS = {1, 5, 10, 50, 100, 500};
+
+    public PoolStats {
+        borrowLatencyHistogram = borrowLatencyHistogram.clone();
+    }
+
+    @Override
+    public long[] borrowLatencyHistogram() {
+        return borrowLatencyHistogram.clone();
+    }
+
+    // Share of prepareStatement calls served from cache
+    public double statementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0.0 : (double) statementCacheHits / total;
+    }
+
+    // Bucket label, e.g. "<5ms" or ">=500ms"
+    public static String bucketLabel(int bucket) {
+        if (bucket < HISTOGRAM_BOUNDS_MS.length) {
+            return "<" + HISTOGRAM_BOUNDS_MS[bucket] + "ms";
+        }
+        return ">=" + HISTOGRAM_BOUNDS_MS[HISTOGRAM_BOUNDS_MS.length - 1] + "ms";
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Pool{active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, timeouts=%d, leaks=%d, avgWait=%.2fms, maxWait=%.2fms, latency=[",
+            activeConnections, idleConnections, maxSize, threadsAwaiting, totalBorrows, borrowTimeouts, leaksDetected,
+            averageWaitMillis, maxWaitMillis));
+        for (int i = 0; i < borrowLatencyHistogram.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(bucketLabel(i)).append(':').append(borrowLatencyHistogram[i]);
+        }
+        sb.append(String.format("], stmtCache=%d/%d hits (%.1f%%)}",
+            statementCacheHits, statementCacheHits + statementCacheMisses, statementCacheHitRatio() * 100.0));
+        return sb.toString();
+    }
+}
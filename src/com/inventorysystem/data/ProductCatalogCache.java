@@ -0,0 +1,182 @@
+package com.inventorysystem.data;
+
+import com.inventorysystem.model.Category;
+import com.inventorysystem.model.Product;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+// Per-user catalog held in memory: products, categories, units and default markup.
+// Reads are a volatile load of an immutable snapshot; writers invalidate after commit.
+public final class ProductCatalogCache {
+
+    private static final Map<Integer, ProductCatalogCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Section<Map<Integer, Product>> products = new Section<>();
+    private final Section<List<Category>> categories = new Section<>();
+    private final Section<List<String>> units = new Section<>();
+    private final Section<Double> defaultMarkup = new Section<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ProductCatalogCache() {}
+
+    public static ProductCatalogCache forUser(int userId) {
+        return CACHES.computeIfAbsent(userId, id -> new ProductCatalogCache());
+    }
+
+    // Drop every user's catalog (logout, store switch)
+    public static void clearAll() {
+        CACHES.values().forEach(ProductCatalogCache::invalidateAll);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // --- Reads (package-private, repositories supply the loader) ---
+
+    // Product by ID, or null when it is not in the snapshot (caller falls back to a point query)
+    Product product(int productId, Loader<List<Product>> loader) throws SQLException {
+        Map<Integer, Product> snapshot = products.peek();
+        if (snapshot == null) {
+            misses.increment();
+            return products.load(() -> index(loader.load())).get(productId);
+        }
+        Product product = snapshot.get(productId);
+        if (product != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return product;
+    }
+
+    List<Category> categories(Loader<List<Category>> loader) throws SQLException {
+        return read(categories, () -> List.copyOf(loader.load()));
+    }
+
+    List<String> units(Loader<List<String>> loader) throws SQLException {
+        return read(units, () -> List.copyOf(loader.load()));
+    }
+
+    double defaultMarkup(Loader<Double> loader) throws SQLException {
+        return read(defaultMarkup, loader);
+    }
+
+    // --- Writes ---
+
+    // Full product list just read from the database replaces the snapshot
+    void putProducts(List<Product> loaded) {
+        products.put(index(loaded));
+    }
+
+    // Write-through change to one cached product; no-op if it is not cached
+    void updateProduct(int productId, UnaryOperator<Product> change) {
+        products.update(snapshot -> {
+            Product current = snapshot.get(productId);
+            if (current == null) return snapshot;
+            Map<Integer, Product> copy = new LinkedHashMap<>(snapshot);
+            copy.put(productId, change.apply(current));
+            return Collections.unmodifiableMap(copy);
+        });
+    }
+
+    void putDefaultMarkup(double markupPercent) {
+        defaultMarkup.put(markupPercent);
+        products.invalidate(); // Effective markup and display price derive from it
+    }
+
+    public void invalidateProducts() {
+        products.invalidate();
+    }
+
+    public void invalidateCategories() {
+        categories.invalidate();
+        products.invalidate(); // Products carry the category name
+    }
+
+    public void invalidateUnits() {
+        units.invalidate();
+    }
+
+    public void invalidateAll() {
+        products.invalidate();
+        categories.invalidate();
+        units.invalidate();
+        defaultMarkup.invalidate();
+    }
+
+    private <T> T read(Section<T> section, Loader<T> loader) throws SQLException {
+        T value = section.peek();
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        return section.load(loader);
+    }
+
+    private static Map<Integer, Product> index(List<Product> loaded) {
+        Map<Integer, Product> byId = new LinkedHashMap<>(loaded.size() * 2);
+        for (Product product : loaded) {
+            byId.put(product.id(), product);
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    // One cached value plus a version; a load only publishes if nothing invalidated it meanwhile
+    private static final class Section<T> {
+        private final AtomicReference<Versioned<T>> ref = new AtomicReference<>(new Versioned<>(0, null));
+
+        T peek() {
+            return ref.get().value;
+        }
+
+        T load(Loader<T> loader) throws SQLException {
+            Versioned<T> seen = ref.get();
+            T loaded = loader.load();
+            ref.compareAndSet(seen, new Versioned<>(seen.version, loaded));
+            return loaded;
+        }
+
+        void put(T value) {
+            ref.updateAndGet(current -> new Versioned<>(current.version + 1, value));
+        }
+
+        void update(UnaryOperator<T> change) {
+            ref.updateAndGet(current -> current.value == null
+                ? current
+                : new Versioned<>(current.version + 1, change.apply(current.value)));
+        }
+
+        void invalidate() {
+            ref.updateAndGet(current -> new Versioned<>(current.version + 1, null));
+        }
+    }
+
+    private record Versioned<T>(long version, T value) {}
+}
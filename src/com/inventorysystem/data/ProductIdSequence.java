@@ -0,0 +1,146 @@
+package com.inventorysystem.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+// Per-user product ID allocator backed by the product_id_sequence counter row
+final class ProductIdSequence {
+
+    // Atomic read-and-bump: the row lock is held only for this autocommit statement
+    private static final String BUMP =
+        "UPDATE product_id_sequence SET next_id = LAST_INSERT_ID(next_id) + 1 WHERE user_id = ?";
+    // Same, taking a run of IDs in one statement
+    private static final String BUMP_BY =
+        "UPDATE product_id_sequence SET next_id = LAST_INSERT_ID(next_id) + ? WHERE user_id = ?";
+    private static final String LAST_ID = "SELECT LAST_INSERT_ID()";
+    // First use for a user: seed from existing products (INSERT IGNORE so racing terminals agree)
+    private static final String SEED =
+        "INSERT IGNORE INTO product_id_sequence (user_id, next_id) " +
+        "SELECT ?, COALESCE(MAX(product_id), 0) + 1 FROM products WHERE user_id = ?";
+    private static final String RAISE =
+        "UPDATE product_id_sequence SET next_id = GREATEST(next_id, ?) WHERE user_id = ?";
+
+    private ProductIdSequence() {}
+
+    // Next unused product ID; on its own connection so callers' transactions never hold the counter
+    static int next(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement bump = conn.prepareStatement(BUMP)) {
+                    bump.setInt(1, userId);
+                    if (bump.executeUpdate() == 1) {
+                        try (PreparedStatement last = conn.prepareStatement(LAST_ID);
+                             ResultSet rs = last.executeQuery()) {
+                            if (rs.next()) return rs.getInt(1);
+                        }
+                        throw new SQLException("Product ID allocation returned no value.");
+                    }
+                }
+                seed(conn, userId);
+            }
+        }
+        throw new SQLException("Could not allocate product ID for user " + userId);
+    }
+
+    // First of count consecutive unused IDs; same own-connection rule as next()
+    static int nextBlock(int userId, int count) throws SQLException {
+        if (count < 1) throw new IllegalArgumentException("count must be positive: " + count);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement bump = conn.prepareStatement(BUMP_BY)) {
+                    bump.setInt(1, count);
+                    bump.setInt(2, userId);
+                    if (bump.executeUpdate() == 1) {
+                        try (PreparedStatement last = conn.prepareStatement(LAST_ID);
+                             ResultSet rs = last.executeQuery()) {
+                            if (rs.next()) return rs.getInt(1);
+                        }
+                        throw new SQLException("Product ID allocation returned no value.");
+                    }
+                }
+                seed(conn, userId);
+            }
+        }
+        throw new SQLException("Could not allocate product IDs for user " + userId);
+    }
+
+    // Keep the sequence past IDs inserted explicitly (old QR codes carry their own ID).
+    // Own autocommit connection like next(): call it outside the caller's transaction.
+    static void reserveThrough(int userId, int productId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement raise = conn.prepareStatement(RAISE)) {
+                    raise.setInt(1, productId + 1);
+                    raise.setInt(2, userId);
+                    if (raise.executeUpdate() == 1) return;
+                }
+                seed(conn, userId);
+            }
+        }
+    }
+
+    private static void seed(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement seed = conn.prepareStatement(SEED)) {
+            seed.setInt(1, userId);
+            seed.setInt(2, userId);
+            seed.executeUpdate();
+        }
+    }
+
+    // Concurrency check against a live DB: N threads x M next() calls must give unique, gap-free IDs.
+    // Usage: ProductIdSequence [userId] [threads] [callsPerThread]. Consumes IDs for that user.
+    public static void main(String[] args) throws Exception {
+        int userId = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int calls = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        ConcurrentLinkedQueue<Integer> ids = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Exception> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    go.await();
+                    for (int i = 0; i < calls; i++) ids.add(next(userId));
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+            }, "id-sequence-test-" + t);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) worker.join();
+        long elapsed = System.nanoTime() - start;
+
+        if (!errors.isEmpty()) {
+            System.out.println("FAILED: " + errors.size() + " threads errored, first: " + errors.peek());
+            System.exit(1);
+        }
+        int[] sorted = ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int duplicates = 0;
+        int gaps = 0;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) duplicates++;
+            else if (sorted[i] != sorted[i - 1] + 1) gaps++;
+        }
+        System.out.printf("%d threads x %d calls: %d IDs (%d..%d) in %.0f ms, %.2f ms per call%n",
+            threads, calls, sorted.length, sorted[0], sorted[sorted.length - 1],
+            elapsed / 1e6, elapsed / 1e6 / sorted.length * threads);
+        boolean ok = sorted.length == threads * calls && duplicates == 0 && gaps == 0;
+        System.out.println(ok ? "OK: unique and gap-free"
+            : "FAILED: " + duplicates + " duplicates, " + gaps + " gaps" + (gaps > 0 ? " (another terminal allocating?)" : "")
+                + ", sample " + Arrays.toString(Arrays.copyOf(sorted, Math.min(10, sorted.length))));
+        if (!ok) System.exit(1);
+    }
+}
@@ -1,62 +1,64 @@
 package com.inventorysystem.data;
 
+import com.inventorysystem.model.BulkResult;
+import com.inventorysystem.model.CartItem;
 import com.inventorysystem.model.Category;
 import com.inventorysystem.model.Product;
+import com.inventorysystem.model.QRStockIn;
+import com.inventorysystem.model.SaleReceipt;
+import com.inventorysystem.model.StockAdjustment;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
 // Product repo
 public class ProductRepository {
 
     private final int userId;
+    private final ProductCatalogCache catalog;
 
     public ProductRepository(int userId) {
         if (userId <= 0) {
             throw new IllegalArgumentException("User ID must be positive.");
         }
         this.userId = userId;
+        this.catalog = ProductCatalogCache.forUser(userId);
+    }
 
-        try {
-            ensureQuantityDamagedColumn();
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error ensuring quantity_damaged column exists", e);
-        }
+    // Get all products for user; always read fresh and republished to the catalog cache
+    public List<Product> getAllProducts() throws SQLException {
+        List<Product> products = loadProducts();
+        catalog.putProducts(products);
+        return products;
     }
 
-    // Add quantity_damaged column if missing
-    private void ensureQuantityDamagedColumn() throws SQLException {
-        String checkColumnSql = "SHOW COLUMNS FROM products LIKE 'quantity_damaged'";
-        String addColumnSql = "ALTER TABLE products ADD COLUMN quantity_damaged INT(11) NOT NULL DEFAULT 0 AFTER quantity_in_stock";
-        
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            boolean columnExists = false;
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkColumnSql);
-                 ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next()) {
-                    columnExists = true;
-                }
-            }
-            
-            if (!columnExists) {
-                try (PreparedStatement addColStmt = conn.prepareStatement(addColumnSql)) {
-                    addColStmt.executeUpdate();
-                }
-            }
-        }
+    public ProductCatalogCache getCatalogCache() {
+        return catalog;
     }
 
-    // Get all products for user
-    public List<Product> getAllProducts() throws SQLException {
+    // Markup + display price resolved in the same query
+    private List<Product> loadProducts() throws SQLException {
         List<Product> products = new ArrayList<>();
         
         String sql = "SELECT p.product_id, p.name, c.category_name, p.unit_of_measurement, p.cost_price, p.retail_price, p.quantity_in_stock, " +
-                     "COALESCE(p.quantity_damaged, 0) as quantity_damaged " +
+                     "COALESCE(p.quantity_damaged, 0) as quantity_damaged, p.markup_percent, " +
+                     "COALESCE(u.default_markup_percent, 0) AS default_markup_percent " +
                      "FROM products p " +
                      "JOIN categories c ON p.category_id = c.category_id " +
+                     "LEFT JOIN users u ON u.user_id = p.user_id " +
                      "WHERE p.user_id = ? " +
                      "ORDER BY p.product_id";
 
@@ -72,6 +74,16 @@ public class ProductRepository {
                     double retailPrice = rs.getObject("retail_price") == null ? 0.0 : rs.getDouble("retail_price");
                     double totalCost = costPrice * stock;
 
+                    double markupValue = rs.getDouble("markup_percent");
+                    Double markupPercent = rs.wasNull() ? null : markupValue;
+                    double effectiveMarkup = markupPercent != null ? markupPercent : rs.getDouble("default_markup_percent");
+
+                    // Stored retail price wins, otherwise cost + markup
+                    double displayRetailPrice = retailPrice;
+                    if (displayRetailPrice <= 0.0) {
+                        displayRetailPrice = Math.round(costPrice * (1 + effectiveMarkup / 100.0) * 100.0) / 100.0;
+                    }
+
                     products.add(new Product(
                         rs.getInt("product_id"),
                         rs.getString("name"),
@@ -80,7 +92,10 @@ public class ProductRepository {
                         costPrice,
                         retailPrice,
                         stock,
-                        totalCost
+                        totalCost,
+                        markupPercent,
+                        effectiveMarkup,
+                        displayRetailPrice
                     ));
                 }
             }
@@ -91,10 +106,13 @@ public class ProductRepository {
     // Get retail price
     public double getProductRetailPrice(String productId) throws SQLException, NumberFormatException {
         int prodId = Integer.parseInt(productId);
+        Product cached = catalog.product(prodId, this::loadProducts);
+        if (cached != null) {
+            return cached.retailPrice();
+        }
 
-        String sql = "SELECT retail_price FROM products WHERE product_id = ? AND user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SqlQueries.SELECT_RETAIL_PRICE)) {
 
             pstmt.setInt(1, prodId);
             pstmt.setInt(2, this.userId);
@@ -110,22 +128,9 @@ public class ProductRepository {
         }
     }
 
-    // Get next product ID
+    // Get next product ID (allocated from the per-user sequence, never reused)
     public int getNextProductId() throws SQLException {
-        String sql = "SELECT MAX(product_id) FROM products WHERE user_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, this.userId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int maxId = rs.getInt(1);
-                    return maxId + 1;
-                } else {
-                    return 1;
-                }
-            }
-        }
+        return ProductIdSequence.next(this.userId);
     }
 
     // Find product by name and category
@@ -164,6 +169,7 @@ public class ProductRepository {
             
             pstmt.executeUpdate();
         }
+        catalog.invalidateProducts();
     }
 
     // Clear retail price
@@ -178,13 +184,21 @@ public class ProductRepository {
             
             pstmt.executeUpdate();
         }
+        // Write-through: display price falls back to cost + effective markup
+        catalog.updateProduct(productId, p -> new Product(
+            p.id(), p.name(), p.categoryName(), p.unit(), p.costPrice(), 0.0, p.stock(), p.totalCost(),
+            p.markupPercent(), p.effectiveMarkupPercent(),
+            Math.round(p.costPrice() * (1 + p.effectiveMarkupPercent() / 100.0) * 100.0) / 100.0));
     }
 
     // Get product markup
     public Double getProductMarkup(int productId) throws SQLException {
-        String sql = "SELECT markup_percent FROM products WHERE product_id = ? AND user_id = ?";
+        Product cached = catalog.product(productId, this::loadProducts);
+        if (cached != null) {
+            return cached.markupPercent();
+        }
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SqlQueries.SELECT_PRODUCT_MARKUP)) {
             
             pstmt.setInt(1, productId);
             pstmt.setInt(2, this.userId);
@@ -213,7 +227,8 @@ public class ProductRepository {
         
         // Determine product ID: check for existing product with same name + category
         int productId;
-        if (data.has("id")) {
+        boolean explicitId = data.has("id");
+        if (explicitId) {
             productId = data.getInt("id"); // Old QR codes with explicit ID
         } else {
             // New QR codes without ID - check if product already exists
@@ -225,24 +240,22 @@ public class ProductRepository {
             // If productId > 0, it means product exists - will add to existing
         }
         
-        String upsertSql = "INSERT INTO products (product_id, name, unit_of_measurement, cost_price, quantity_in_stock, category_id, user_id) " +
-                           "VALUES (?, ?, ?, ?, ?, ?, ?) " +
-                           "ON DUPLICATE KEY UPDATE " +
-                           "name = VALUES(name), unit_of_measurement = VALUES(unit_of_measurement), cost_price = VALUES(cost_price), " +
-                           "quantity_in_stock = quantity_in_stock + VALUES(quantity_in_stock), category_id = VALUES(category_id)";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'STOCK-IN', 'From QR Scan', ?)";
-
         if (costPrice < 0 || stockToAdd < 0) {
              throw new IllegalArgumentException("Cost price and stock quantity from QR cannot be negative.");
         }
 
+        // Before the transaction so the sequence row is never locked for its duration
+        if (explicitId) {
+            ProductIdSequence.reserveThrough(this.userId, productId);
+        }
+
         Connection conn = null;
         int affectedRows = 0;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            try (PreparedStatement upsertPstmt = conn.prepareStatement(upsertSql)) {
+            try (PreparedStatement upsertPstmt = conn.prepareStatement(SqlQueries.UPSERT_PRODUCT_FROM_QR)) {
                 upsertPstmt.setInt(1, productId);
                 upsertPstmt.setString(2, name);
                 upsertPstmt.setString(3, unit);
@@ -254,10 +267,12 @@ public class ProductRepository {
             }
 
             if (affectedRows > 0) {
-                try (PreparedStatement logPstmt = conn.prepareStatement(logSql)) {
+                try (PreparedStatement logPstmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                     logPstmt.setInt(1, productId);
                     logPstmt.setInt(2, +stockToAdd);
-                    logPstmt.setInt(3, this.userId);
+                    logPstmt.setString(3, "STOCK-IN");
+                    logPstmt.setString(4, "From QR Scan");
+                    logPstmt.setInt(5, this.userId);
                     logPstmt.executeUpdate();
                 }
             } else {
@@ -265,6 +280,7 @@ public class ProductRepository {
             }
 
             conn.commit();
+            catalog.invalidateProducts();
             return productId; // Return the actual product ID used (auto-generated or from QR) 
 
         } catch (SQLException e) {
@@ -295,12 +311,13 @@ public class ProductRepository {
         boolean isNewProduct = (id == 0);
         
         String selectSql = "SELECT quantity_in_stock, retail_price FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
-        String getNextIdSql = "SELECT COALESCE(MAX(product_id), 0) + 1 as next_id FROM products WHERE user_id = ?";
         String insertSql = "INSERT INTO products (product_id, name, unit_of_measurement, cost_price, retail_price, markup_percent, quantity_in_stock, category_id, user_id) " +
                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         String updateSql = "UPDATE products SET name = ?, unit_of_measurement = ?, cost_price = ?, retail_price = ?, markup_percent = ?, " +
                            "quantity_in_stock = ?, category_id = ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, ?, ?, ?)";
+
+        // Allocate before the transaction so the counter row is never held while we insert
+        int nextProductId = isNewProduct ? ProductIdSequence.next(this.userId) : 0;
 
         Connection conn = null;
         int resultProductId = 0;
@@ -337,17 +354,6 @@ public class ProductRepository {
             int rowsAffected = 0;
             
             if (isNewProduct) {
-                // Get next available product_id for this user
-                int nextProductId = 1;
-                try (PreparedStatement getIdPstmt = conn.prepareStatement(getNextIdSql)) {
-                    getIdPstmt.setInt(1, this.userId);
-                    try (ResultSet rs = getIdPstmt.executeQuery()) {
-                        if (rs.next()) {
-                            nextProductId = rs.getInt("next_id");
-                        }
-                    }
-                }
-                
                 resultProductId = nextProductId;
                 
                 // Insert new product with manual ID
@@ -410,7 +416,7 @@ public class ProductRepository {
                 }
 
                 if (logType != null) {
-                    try (PreparedStatement logPstmt = conn.prepareStatement(logSql)) {
+                    try (PreparedStatement logPstmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                         logPstmt.setInt(1, resultProductId);
                         logPstmt.setInt(2, quantityChange);
                         logPstmt.setString(3, logType);
@@ -422,6 +428,7 @@ public class ProductRepository {
             }
 
             conn.commit();
+            catalog.invalidateProducts();
 
         } catch (SQLException e) {
             if (conn != null) {
@@ -447,82 +454,77 @@ public class ProductRepository {
         if (quantityToSell <= 0) {
             throw new IllegalArgumentException("Positive quantity required.");
         }
+        checkout(List.of(new CartItem(Integer.parseInt(productId), null, quantityToSell, 0.0)));
+    }
 
-        int prodId = Integer.parseInt(productId);
-
-        // 1. Fetch product details to calculate price and profit
-        String productSql = "SELECT cost_price, retail_price, markup_percent, quantity_in_stock " +
-                            "FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
-        
-        // 2. Fetch User's Default Markup (fallback if product has no specific price)
-        String userMarkupSql = "SELECT default_markup_percent FROM users WHERE user_id = ?";
+    // Sell a whole basket: one transaction, one sales row, batched items and logs
+    public SaleReceipt checkout(List<CartItem> items) throws SQLException {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty.");
+        }
 
-        // SQLs for inserting records
-        String insertSaleSql = "INSERT INTO sales (user_id, sale_date, total_amount) VALUES (?, NOW(), ?)";
-        String insertItemSql = "INSERT INTO sale_items (sale_id, product_id, quantity_sold, unit_price, cost_price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
-        String updateProductSql = "UPDATE products SET quantity_in_stock = ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'SALE', ?, ?)";
+        // Merge repeated products; sorted ids give every checkout the same lock order (no deadlocks)
+        TreeMap<Integer, Integer> quantities = new TreeMap<>();
+        for (CartItem item : items) {
+            if (item.quantity() <= 0) {
+                throw new IllegalArgumentException("Positive quantity required.");
+            }
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
+        }
 
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Start Transaction
 
-            // --- Step A: Get Product Data ---
-            double costPrice = 0.0;
-            double retailPrice = 0.0;
-            Double markupPercent = null;
-            int currentStock = 0;
-            
-            try (PreparedStatement stmt = conn.prepareStatement(productSql)) {
-                stmt.setInt(1, prodId);
-                stmt.setInt(2, this.userId);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (!rs.next()) throw new SQLException("Product not found.");
-                    costPrice = rs.getDouble("cost_price");
-                    retailPrice = rs.getDouble("retail_price");
-                    Object markupObj = rs.getObject("markup_percent");
-                    if (markupObj instanceof Number) {
-                        markupPercent = ((Number) markupObj).doubleValue();
-                    } else {
-                        markupPercent = null;
+            // --- Step A: Lock and price every line ---
+            List<SaleLine> lines = new ArrayList<>(quantities.size());
+            Double defaultMarkup = null;
+            double totalSaleAmount = 0.0;
+            int totalQuantity = 0;
+
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_PRODUCT_FOR_SALE)) {
+                for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                    int prodId = line.getKey();
+                    int quantityToSell = line.getValue();
+
+                    stmt.setInt(1, prodId);
+                    stmt.setInt(2, this.userId);
+                    double costPrice;
+                    double finalUnitPrice;
+                    Double markupPercent;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) throw new SQLException("Product not found. ID: " + prodId);
+                        costPrice = rs.getDouble("cost_price");
+                        finalUnitPrice = rs.getDouble("retail_price");
+                        Object markupObj = rs.getObject("markup_percent");
+                        markupPercent = markupObj instanceof Number ? ((Number) markupObj).doubleValue() : null;
+                        int currentStock = rs.getInt("quantity_in_stock");
+                        if (currentStock < quantityToSell) {
+                            throw new SQLException("Insufficient stock for product ID " + prodId + ". Available: " + currentStock);
+                        }
                     }
-                    currentStock = rs.getInt("quantity_in_stock");
-                }
-            }
-
-            if (currentStock < quantityToSell) {
-                throw new SQLException("Insufficient stock. Available: " + currentStock);
-            }
 
-            // --- Step B: Calculate Final Selling Price ---
-            double finalUnitPrice = retailPrice;
-            
-            // If no fixed retail price, calculate using markup
-            if (finalUnitPrice <= 0.0) {
-                double effectiveMarkup = 0.0;
-                
-                if (markupPercent != null) {
-                    effectiveMarkup = markupPercent;
-                } else {
-                    // Fetch default markup
-                    try (PreparedStatement stmt = conn.prepareStatement(userMarkupSql)) {
-                        stmt.setInt(1, this.userId);
-                        try (ResultSet rs = stmt.executeQuery()) {
-                            if (rs.next()) effectiveMarkup = rs.getDouble("default_markup_percent");
+                    // If no fixed retail price, calculate using markup
+                    if (finalUnitPrice <= 0.0) {
+                        if (markupPercent == null && defaultMarkup == null) {
+                            defaultMarkup = fetchDefaultMarkup(conn);
                         }
+                        double effectiveMarkup = markupPercent != null ? markupPercent : defaultMarkup;
+                        finalUnitPrice = costPrice * (1 + effectiveMarkup / 100.0);
                     }
+
+                    // Round to 2 decimals
+                    finalUnitPrice = Math.round(finalUnitPrice * 100.0) / 100.0;
+                    totalSaleAmount += finalUnitPrice * quantityToSell;
+                    totalQuantity += quantityToSell;
+                    lines.add(new SaleLine(prodId, quantityToSell, finalUnitPrice, costPrice));
                 }
-                finalUnitPrice = costPrice * (1 + effectiveMarkup / 100.0);
             }
-            
-            // Round to 2 decimals
-            finalUnitPrice = Math.round(finalUnitPrice * 100.0) / 100.0;
-            double totalSaleAmount = finalUnitPrice * quantityToSell;
 
-            // --- Step C: Insert into SALES table ---
-            int saleId = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(insertSaleSql, Statement.RETURN_GENERATED_KEYS)) {
+            // --- Step B: Insert one SALES header ---
+            int saleId;
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.INSERT_SALE, Statement.RETURN_GENERATED_KEYS)) {
                 stmt.setInt(1, this.userId);
                 stmt.setDouble(2, totalSaleAmount);
                 stmt.executeUpdate();
@@ -535,35 +537,46 @@ public class ProductRepository {
                 }
             }
 
-            // --- Step D: Insert into SALE_ITEMS table ---
-            try (PreparedStatement stmt = conn.prepareStatement(insertItemSql)) {
-                stmt.setInt(1, saleId);
-                stmt.setInt(2, prodId);
-                stmt.setInt(3, quantityToSell);
-                stmt.setDouble(4, finalUnitPrice);
-                stmt.setDouble(5, costPrice);
-                stmt.setDouble(6, totalSaleAmount);
-                stmt.executeUpdate();
-            }
-
-            // --- Step E: Update Stock ---
-            try (PreparedStatement stmt = conn.prepareStatement(updateProductSql)) {
-                stmt.setInt(1, currentStock - quantityToSell);
-                stmt.setInt(2, prodId);
-                stmt.setInt(3, this.userId);
-                stmt.executeUpdate();
-            }
+            // --- Step C: Batch sale items, stock updates and SALE logs ---
+            try (PreparedStatement itemStmt = conn.prepareStatement(SqlQueries.INSERT_SALE_ITEM);
+                 PreparedStatement stockStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK);
+                 PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
+
+                for (SaleLine line : lines) {
+                    int prodId = line.productId();
+                    int quantityToSell = line.quantity();
+                    double finalUnitPrice = line.unitPrice();
+                    double costPrice = line.costPrice();
+
+                    itemStmt.setInt(1, saleId);
+                    itemStmt.setInt(2, prodId);
+                    itemStmt.setInt(3, quantityToSell);
+                    itemStmt.setDouble(4, finalUnitPrice);
+                    itemStmt.setDouble(5, costPrice);
+                    itemStmt.setDouble(6, finalUnitPrice * quantityToSell);
+                    itemStmt.addBatch();
+
+                    stockStmt.setInt(1, -quantityToSell);
+                    stockStmt.setInt(2, prodId);
+                    stockStmt.setInt(3, this.userId);
+                    stockStmt.addBatch();
+
+                    logStmt.setInt(1, prodId);
+                    logStmt.setInt(2, -quantityToSell); // Negative for removal
+                    logStmt.setString(3, "SALE");
+                    logStmt.setString(4, "Sold " + quantityToSell + " @ " + String.format("₱%,.2f", finalUnitPrice));
+                    logStmt.setInt(5, this.userId);
+                    logStmt.addBatch();
+                }
 
-            // --- Step F: Log as SALE (for Stock Panel) ---
-            try (PreparedStatement stmt = conn.prepareStatement(logSql)) {
-                stmt.setInt(1, prodId);
-                stmt.setInt(2, -quantityToSell); // Negative for removal
-                stmt.setString(3, "Sold " + quantityToSell + " @ " + String.format("₱%,.2f", finalUnitPrice));
-                stmt.setInt(4, this.userId);
-                stmt.executeUpdate();
+                itemStmt.executeBatch();
+                stockStmt.executeBatch();
+                logStmt.executeBatch();
             }
 
             conn.commit();
+            catalog.invalidateProducts();
+            return new SaleReceipt(saleId, lines.size(), totalQuantity, totalSaleAmount);
         } catch (SQLException e) {
             if (conn != null) try { conn.rollback(); } catch (SQLException ex) { com.inventorysystem.util.DebugLogger.error("Rollback failed", ex); }
             throw e;
@@ -574,16 +587,21 @@ public class ProductRepository {
         }
     }
 
+    private double fetchDefaultMarkup(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_DEFAULT_MARKUP)) {
+            stmt.setInt(1, this.userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble("default_markup_percent") : 0.0;
+            }
+        }
+    }
+
     // Remove stock
     public void removeStock(int productId, int quantityToRemove, String reason) throws SQLException {
         if (quantityToRemove <= 0) {
              throw new IllegalArgumentException("Quantity to remove must be positive.");
         }
         
-        String checkStockSql = "SELECT quantity_in_stock FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
-        String updateSql = "UPDATE products SET quantity_in_stock = quantity_in_stock - ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'STOCK-REMOVAL', ?, ?)";
-
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
@@ -591,7 +609,7 @@ public class ProductRepository {
 
             // 1. Check current stock
             int currentStock;
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkStockSql)) {
+            try (PreparedStatement checkStmt = conn.prepareStatement(SqlQueries.SELECT_STOCK_FOR_UPDATE)) {
                 checkStmt.setInt(1, productId);
                 checkStmt.setInt(2, this.userId);
                 try (ResultSet rs = checkStmt.executeQuery()) {
@@ -608,23 +626,25 @@ public class ProductRepository {
             }
 
             // 3. Update product stock
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                updateStmt.setInt(1, quantityToRemove);
+            try (PreparedStatement updateStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK)) {
+                updateStmt.setInt(1, -quantityToRemove);
                 updateStmt.setInt(2, productId);
                 updateStmt.setInt(3, this.userId);
                 updateStmt.executeUpdate();
             }
 
             // 4. Log the stock removal
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
+            try (PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 logStmt.setInt(1, productId);
                 logStmt.setInt(2, -quantityToRemove);
-                logStmt.setString(3, reason != null && !reason.isEmpty() ? reason : "Manual stock removal");
-                logStmt.setInt(4, this.userId); // Set user ID
+                logStmt.setString(3, "STOCK-REMOVAL");
+                logStmt.setString(4, reason != null && !reason.isEmpty() ? reason : "Manual stock removal");
+                logStmt.setInt(5, this.userId); // Set user ID
                 logStmt.executeUpdate();
             }
 
             conn.commit();
+            catalog.invalidateProducts();
 
         } catch (SQLException e) {
             if (conn != null) {
@@ -645,9 +665,7 @@ public class ProductRepository {
             throw new IllegalArgumentException("Quantity to reject must be positive.");
         }
         
-        String findProductSql = "SELECT quantity_in_stock FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
         String updateSql = "UPDATE products SET quantity_in_stock = quantity_in_stock - ?, quantity_damaged = quantity_damaged + ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'REJECT', ?, ?)";
 
         Connection conn = null;
         try {
@@ -656,7 +674,7 @@ public class ProductRepository {
 
             // Check current stock
             int currentStock;
-            try (PreparedStatement findPstmt = conn.prepareStatement(findProductSql)) {
+            try (PreparedStatement findPstmt = conn.prepareStatement(SqlQueries.SELECT_STOCK_FOR_UPDATE)) {
                 findPstmt.setInt(1, productId);
                 findPstmt.setInt(2, this.userId);
                 try (ResultSet rs = findPstmt.executeQuery()) {
@@ -682,15 +700,17 @@ public class ProductRepository {
             }
 
             // Log rejection
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
+            try (PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 logStmt.setInt(1, productId);
                 logStmt.setInt(2, -quantityToReject);
-                logStmt.setString(3, reason + " [Moved to damaged inventory - NOT FOR SALE]");
-                logStmt.setInt(4, this.userId);
+                logStmt.setString(3, "REJECT");
+                logStmt.setString(4, reason + " [Moved to damaged inventory - NOT FOR SALE]");
+                logStmt.setInt(5, this.userId);
                 logStmt.executeUpdate();
             }
 
             conn.commit();
+            catalog.invalidateProducts();
 
         } catch (SQLException e) {
             if (conn != null) {
@@ -709,17 +729,6 @@ public class ProductRepository {
     public void customerReturn(int productId, int quantityToReturn, String reason) throws SQLException {
         if (quantityToReturn <= 0) throw new IllegalArgumentException("Quantity to return must be positive.");
         
-        // 1. Fetch price details to calculate refund amount
-        String productSql = "SELECT cost_price, retail_price, markup_percent FROM products WHERE product_id = ? AND user_id = ?";
-        String userMarkupSql = "SELECT default_markup_percent FROM users WHERE user_id = ?";
-        
-        // 2. SQLs for updates
-        String updateSql = "UPDATE products SET quantity_in_stock = quantity_in_stock + ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'CUSTOMER-RETURN', ?, ?)";
-        // Insert negative records to reverse the sale in Dashboard
-        String insertSaleSql = "INSERT INTO sales (user_id, sale_date, total_amount) VALUES (?, NOW(), ?)";
-        String insertItemSql = "INSERT INTO sale_items (sale_id, product_id, quantity_sold, unit_price, cost_price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
-
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
@@ -730,7 +739,7 @@ public class ProductRepository {
             double retailPrice = 0.0;
             Double markupPercent = null;
             
-            try (PreparedStatement stmt = conn.prepareStatement(productSql)) {
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_PRODUCT_PRICING)) {
                 stmt.setInt(1, productId);
                 stmt.setInt(2, this.userId);
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -747,7 +756,7 @@ public class ProductRepository {
                 if (markupPercent != null) {
                     effectiveMarkup = markupPercent;
                 } else {
-                    try (PreparedStatement stmt = conn.prepareStatement(userMarkupSql)) {
+                    try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_DEFAULT_MARKUP)) {
                         stmt.setInt(1, this.userId);
                         try (ResultSet rs = stmt.executeQuery()) {
                             if (rs.next()) effectiveMarkup = rs.getDouble("default_markup_percent");
@@ -760,7 +769,7 @@ public class ProductRepository {
             double totalRefundAmount = finalRefundPrice * quantityToReturn;
 
             // --- Step B: Update Stock ---
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+            try (PreparedStatement updateStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK)) {
                 updateStmt.setInt(1, quantityToReturn);
                 updateStmt.setInt(2, productId);
                 updateStmt.setInt(3, this.userId);
@@ -768,17 +777,18 @@ public class ProductRepository {
             }
 
             // --- Step C: Log Transaction ---
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
+            try (PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 logStmt.setInt(1, productId);
                 logStmt.setInt(2, +quantityToReturn);
-                logStmt.setString(3, reason + " [Added back to stock]");
-                logStmt.setInt(4, this.userId);
+                logStmt.setString(3, "CUSTOMER-RETURN");
+                logStmt.setString(4, reason + " [Added back to stock]");
+                logStmt.setInt(5, this.userId);
                 logStmt.executeUpdate();
             }
 
             // --- Step D: Record Financial Reversal (Negative Sale) ---
             int saleId = 0;
-            try (PreparedStatement stmt = conn.prepareStatement(insertSaleSql, Statement.RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.INSERT_SALE, Statement.RETURN_GENERATED_KEYS)) {
                 stmt.setInt(1, this.userId);
                 stmt.setDouble(2, -totalRefundAmount); // Negative Amount
                 stmt.executeUpdate();
@@ -787,7 +797,7 @@ public class ProductRepository {
                 }
             }
             
-            try (PreparedStatement stmt = conn.prepareStatement(insertItemSql)) {
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.INSERT_SALE_ITEM)) {
                 stmt.setInt(1, saleId);
                 stmt.setInt(2, productId);
                 stmt.setInt(3, -quantityToReturn); // Negative Quantity
@@ -798,6 +808,7 @@ public class ProductRepository {
             }
 
             conn.commit();
+            catalog.invalidateProducts();
 
         } catch (SQLException e) {
             if (conn != null) try { conn.rollback(); } catch (SQLException ex) { }
@@ -816,8 +827,6 @@ public class ProductRepository {
         }
         
         String findProductSql = "SELECT quantity_in_stock, cost_price FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
-        String updateSql = "UPDATE products SET quantity_in_stock = quantity_in_stock - ? WHERE product_id = ? AND user_id = ?";
-        String logSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'REFUND', ?, ?)";
 
         Connection conn = null;
         try {
@@ -845,8 +854,8 @@ public class ProductRepository {
             }
 
             // Update stock
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                updateStmt.setInt(1, quantityToRefund);
+            try (PreparedStatement updateStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK)) {
+                updateStmt.setInt(1, -quantityToRefund);
                 updateStmt.setInt(2, productId);
                 updateStmt.setInt(3, this.userId);
                 updateStmt.executeUpdate();
@@ -854,15 +863,17 @@ public class ProductRepository {
 
             // Log refund
             String refundNote = reason + " [Refund Amount: ₱" + String.format("%,.2f", costPrice * quantityToRefund) + "]";
-            try (PreparedStatement logStmt = conn.prepareStatement(logSql)) {
+            try (PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 logStmt.setInt(1, productId);
                 logStmt.setInt(2, -quantityToRefund);
-                logStmt.setString(3, refundNote);
-                logStmt.setInt(4, this.userId);
+                logStmt.setString(3, "REFUND");
+                logStmt.setString(4, refundNote);
+                logStmt.setInt(5, this.userId);
                 logStmt.executeUpdate();
             }
 
             conn.commit();
+            catalog.invalidateProducts();
 
         } catch (SQLException e) {
             if (conn != null) {
@@ -885,9 +896,6 @@ public class ProductRepository {
         // Get product details for logging
         String getProductSql = "SELECT name, quantity_in_stock FROM products WHERE product_id = ? AND user_id = ?";
         
-        // Log the deletion
-        String logDeletionSql = "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, 'DELETE', ?, ?)";
-        
         // Delete associated stock logs (except the deletion log we just created)
         String deleteStockLogSql = "DELETE FROM stock_log WHERE product_id = ? AND user_id = ? AND log_type != 'DELETE'";
         
@@ -919,11 +927,12 @@ public class ProductRepository {
             }
             
             // Log the deletion with product name in notes
-            try (PreparedStatement pstmt = conn.prepareStatement(logDeletionSql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 pstmt.setInt(1, productId);
                 pstmt.setInt(2, -currentStock); // Negative to show stock removed
-                pstmt.setString(3, "Product deleted: " + productName);
-                pstmt.setInt(4, this.userId);
+                pstmt.setString(3, "DELETE");
+                pstmt.setString(4, "Product deleted: " + productName);
+                pstmt.setInt(5, this.userId);
                 pstmt.executeUpdate();
             }
 
@@ -942,6 +951,7 @@ public class ProductRepository {
             }
 
             conn.commit();
+            catalog.invalidateProducts();
             return productRowsAffected > 0;
 
         } catch (SQLException e) {
@@ -970,8 +980,12 @@ public class ProductRepository {
     }
 
 
-    // Get all categories
+    // Get all categories (cached until a category is added)
     public List<Category> getCategories() throws SQLException {
+        return catalog.categories(this::loadCategories);
+    }
+
+    private List<Category> loadCategories() throws SQLException {
         List<Category> categories = new ArrayList<>();
         String sql = "SELECT category_id, category_name FROM categories WHERE user_id = ? ORDER BY category_name";
         try (Connection conn = DatabaseConnection.getConnection();
@@ -1002,6 +1016,7 @@ public class ProductRepository {
             pstmt.setString(1, categoryName.trim());
             pstmt.setInt(2, this.userId);
             pstmt.executeUpdate();
+            catalog.invalidateCategories();
         } catch (SQLException e) {
             // Check for duplicate entry
             if (e.getMessage() != null && e.getMessage().contains("Duplicate entry")) {
@@ -1085,8 +1100,7 @@ public class ProductRepository {
             
             // Check stock for reduce
             if (stockChange < 0 || updateDamaged) {
-                String checkStockSql = "SELECT quantity_in_stock FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
-                try (PreparedStatement checkStmt = conn.prepareStatement(checkStockSql)) {
+                try (PreparedStatement checkStmt = conn.prepareStatement(SqlQueries.SELECT_STOCK_FOR_UPDATE)) {
                     checkStmt.setInt(1, productId);
                     checkStmt.setInt(2, this.userId);
                     try (ResultSet rs = checkStmt.executeQuery()) {
@@ -1099,8 +1113,7 @@ public class ProductRepository {
 
             // Update stock
             if (stockChange != 0) {
-                String updateStockSql = "UPDATE products SET quantity_in_stock = quantity_in_stock + ? WHERE product_id = ? AND user_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateStockSql)) {
+                try (PreparedStatement pstmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK)) {
                     pstmt.setInt(1, stockChange);
                     pstmt.setInt(2, productId);
                     pstmt.setInt(3, this.userId);
@@ -1124,17 +1137,17 @@ public class ProductRepository {
             if (logType.equals("REJECT")) finalNotes = (notes != null ? notes + " - " : "") + "[Moved to damaged]";
             else if (logType.equals("REFUND")) finalNotes = (notes != null ? notes + " - " : "") + "[Returned to supplier]";
             
-            String logSql = "INSERT INTO stock_log (product_id, user_id, quantity_changed, log_type, notes, log_date) VALUES (?, ?, ?, ?, ?, NOW())";
-            try (PreparedStatement pstmt = conn.prepareStatement(logSql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
                 pstmt.setInt(1, productId);
-                pstmt.setInt(2, this.userId);
-                pstmt.setInt(3, stockChange);
-                pstmt.setString(4, logType);
-                pstmt.setString(5, finalNotes);
+                pstmt.setInt(2, stockChange);
+                pstmt.setString(3, logType);
+                pstmt.setString(4, finalNotes);
+                pstmt.setInt(5, this.userId);
                 pstmt.executeUpdate();
             }
 
             conn.commit();
+            catalog.invalidateProducts();
         } catch (SQLException e) {
             if (conn != null) try { conn.rollback(); } catch (SQLException ex) { }
             throw e;
@@ -1145,6 +1158,483 @@ public class ProductRepository {
         }
     }
 
+    // --- Bulk operations: one connection, one transaction, batched writes ---
+
+    private static final int BULK_BATCH_SIZE = 100;
+
+    // Set markup (and clear fixed retail price) for many products
+    public BulkResult bulkUpdateMarkup(Map<Integer, Double> markups, IntConsumer progress) throws SQLException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        int[] success = {0};
+
+        runBulk(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SET_MARKUP_CLEAR_RETAIL)) {
+                List<Integer> queued = new ArrayList<>(BULK_BATCH_SIZE);
+                int done = 0;
+                for (Map.Entry<Integer, Double> entry : markups.entrySet()) {
+                    Double markup = entry.getValue();
+                    done++;
+                    if (markup != null && markup < 0) {
+                        failures.put(entry.getKey(), "Negative markup");
+                        continue;
+                    }
+                    if (markup != null) {
+                        stmt.setDouble(1, markup);
+                    } else {
+                        stmt.setNull(1, java.sql.Types.DECIMAL);
+                    }
+                    stmt.setInt(2, entry.getKey());
+                    stmt.setInt(3, this.userId);
+                    stmt.addBatch();
+                    queued.add(entry.getKey());
+
+                    if (queued.size() == BULK_BATCH_SIZE) {
+                        success[0] += executeCounted(stmt, queued, failures);
+                        progress.accept(done);
+                    }
+                }
+                success[0] += executeCounted(stmt, queued, failures);
+                progress.accept(done);
+            }
+        });
+        return new BulkResult(success[0], failures);
+    }
+
+    // Remove stock from many products
+    public BulkResult bulkRemoveStock(List<StockAdjustment> removals, IntConsumer progress) throws SQLException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        int[] success = {0};
+
+        runBulk(conn -> {
+            Map<Integer, LockedProduct> locked = lockProducts(conn, removals.stream().map(StockAdjustment::productId).toList());
+
+            try (PreparedStatement stockStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK);
+                 PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
+                int queued = 0;
+                int done = 0;
+                for (StockAdjustment removal : removals) {
+                    done++;
+                    LockedProduct product = locked.get(removal.productId());
+                    String problem = checkOutgoing(product, removal.quantity());
+                    if (problem != null) {
+                        addFailure(failures, removal.productId(), problem);
+                        continue;
+                    }
+                    product.stock -= removal.quantity();
+
+                    stockStmt.setInt(1, -removal.quantity());
+                    stockStmt.setInt(2, removal.productId());
+                    stockStmt.setInt(3, this.userId);
+                    stockStmt.addBatch();
+
+                    String reason = removal.notes();
+                    addLogBatch(logStmt, removal.productId(), -removal.quantity(), "STOCK-REMOVAL",
+                        reason != null && !reason.isEmpty() ? reason : "Manual stock removal");
+                    success[0]++;
+
+                    if (++queued == BULK_BATCH_SIZE) {
+                        stockStmt.executeBatch();
+                        logStmt.executeBatch();
+                        queued = 0;
+                        progress.accept(done);
+                    }
+                }
+                stockStmt.executeBatch();
+                logStmt.executeBatch();
+                progress.accept(done);
+            }
+        });
+        return new BulkResult(success[0], failures);
+    }
+
+    // Delete many products, keeping one DELETE log row for each
+    public BulkResult bulkDelete(List<Integer> productIds, IntConsumer progress) throws SQLException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        int[] success = {0};
+
+        runBulk(conn -> {
+            Map<Integer, LockedProduct> locked = lockProducts(conn, productIds);
+
+            try (PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG);
+                 PreparedStatement deleteLogsStmt = conn.prepareStatement(SqlQueries.DELETE_PRODUCT_LOGS);
+                 PreparedStatement deleteStmt = conn.prepareStatement(SqlQueries.DELETE_PRODUCT)) {
+                int queued = 0;
+                int done = 0;
+                for (int productId : productIds) {
+                    done++;
+                    LockedProduct product = locked.remove(productId); // Repeats count as not found
+                    if (product == null) {
+                        failures.put(productId, "Not found");
+                        continue;
+                    }
+
+                    // Log the deletion with product name in notes
+                    addLogBatch(logStmt, productId, -product.stock, "DELETE", "Product deleted: " + product.name);
+
+                    deleteLogsStmt.setInt(1, productId);
+                    deleteLogsStmt.setInt(2, this.userId);
+                    deleteLogsStmt.addBatch();
+
+                    deleteStmt.setInt(1, productId);
+                    deleteStmt.setInt(2, this.userId);
+                    deleteStmt.addBatch();
+                    success[0]++;
+
+                    if (++queued == BULK_BATCH_SIZE) {
+                        logStmt.executeBatch();
+                        deleteLogsStmt.executeBatch();
+                        deleteStmt.executeBatch();
+                        queued = 0;
+                        progress.accept(done);
+                    }
+                }
+                logStmt.executeBatch();
+                deleteLogsStmt.executeBatch();
+                deleteStmt.executeBatch();
+                progress.accept(done);
+            }
+        });
+        return new BulkResult(success[0], failures);
+    }
+
+    // Customer returns, rejects and supplier refunds for many products
+    public BulkResult bulkProcessReturn(List<StockAdjustment> returns, IntConsumer progress) throws SQLException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        int[] success = {0};
+
+        runBulk(conn -> {
+            Map<Integer, LockedProduct> locked = lockProducts(conn, returns.stream().map(StockAdjustment::productId).toList());
+            Map<Integer, RefundLine> refunds = new LinkedHashMap<>(); // Summed per product: one sale_items row each
+            Double defaultMarkup = null;
+
+            try (PreparedStatement stockStmt = conn.prepareStatement(SqlQueries.ADJUST_STOCK_AND_DAMAGED);
+                 PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
+                int queued = 0;
+                int done = 0;
+                for (StockAdjustment ret : returns) {
+                    done++;
+                    LockedProduct product = locked.get(ret.productId());
+                    String type = ret.type() != null ? ret.type().toUpperCase() : "";
+                    String notes = ret.notes();
+                    int quantity = ret.quantity();
+
+                    int stockChange;
+                    int damagedChange = 0;
+                    String logNotes;
+                    String problem;
+                    switch (type) {
+                        case "CUSTOMER-RETURN":
+                            problem = product == null ? "Product not found" : quantity <= 0 ? "Invalid quantity" : null;
+                            stockChange = quantity;
+                            logNotes = notes + " [Added back to stock]";
+                            break;
+                        case "REJECT":
+                            problem = checkOutgoing(product, quantity);
+                            stockChange = -quantity;
+                            damagedChange = quantity;
+                            logNotes = (notes != null ? notes + " - " : "") + "[Moved to damaged]";
+                            break;
+                        case "REFUND":
+                            problem = checkOutgoing(product, quantity);
+                            stockChange = -quantity;
+                            logNotes = (notes != null ? notes + " - " : "") + "[Returned to supplier]";
+                            break;
+                        default:
+                            problem = "Invalid return type: " + ret.type();
+                            stockChange = 0;
+                            logNotes = null;
+                    }
+                    if (problem != null) {
+                        addFailure(failures, ret.productId(), problem);
+                        continue;
+                    }
+                    product.stock += stockChange;
+
+                    stockStmt.setInt(1, stockChange);
+                    stockStmt.setInt(2, damagedChange);
+                    stockStmt.setInt(3, ret.productId());
+                    stockStmt.setInt(4, this.userId);
+                    stockStmt.addBatch();
+                    addLogBatch(logStmt, ret.productId(), stockChange, type, logNotes);
+
+                    // Customer returns reverse the sale at the current selling price
+                    if (type.equals("CUSTOMER-RETURN")) {
+                        double refundPrice = product.retailPrice;
+                        if (refundPrice <= 0.0) {
+                            if (product.markupPercent == null && defaultMarkup == null) {
+                                defaultMarkup = fetchDefaultMarkup(conn);
+                            }
+                            double effectiveMarkup = product.markupPercent != null ? product.markupPercent : defaultMarkup;
+                            refundPrice = product.costPrice * (1 + effectiveMarkup / 100.0);
+                        }
+                        refundPrice = Math.round(refundPrice * 100.0) / 100.0;
+                        refunds.merge(ret.productId(), new RefundLine(ret.productId(), quantity, refundPrice, product.costPrice),
+                            (a, b) -> new RefundLine(a.productId(), a.quantity() + b.quantity(), a.unitPrice(), a.costPrice()));
+                    }
+                    success[0]++;
+
+                    if (++queued == BULK_BATCH_SIZE) {
+                        stockStmt.executeBatch();
+                        logStmt.executeBatch();
+                        queued = 0;
+                        progress.accept(done);
+                    }
+                }
+                stockStmt.executeBatch();
+                logStmt.executeBatch();
+            }
+
+            if (!refunds.isEmpty()) {
+                insertRefundSale(conn, refunds.values());
+            }
+            progress.accept(returns.size());
+        });
+        return new BulkResult(success[0], failures);
+    }
+
+    // One negative sale covering every customer return in the batch
+    private void insertRefundSale(Connection conn, Collection<RefundLine> refunds) throws SQLException {
+        double totalRefundAmount = 0.0;
+        for (RefundLine refund : refunds) {
+            totalRefundAmount += refund.quantity() * refund.unitPrice();
+        }
+
+        int saleId;
+        try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.INSERT_SALE, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, this.userId);
+            stmt.setDouble(2, -totalRefundAmount); // Negative Amount
+            stmt.executeUpdate();
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) throw new SQLException("Creating refund sale failed, no ID obtained.");
+                saleId = generatedKeys.getInt(1);
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.INSERT_SALE_ITEM)) {
+            for (RefundLine refund : refunds) {
+                stmt.setInt(1, saleId);
+                stmt.setInt(2, refund.productId());
+                stmt.setInt(3, -refund.quantity()); // Negative Quantity
+                stmt.setDouble(4, refund.unitPrice());
+                stmt.setDouble(5, refund.costPrice());
+                stmt.setDouble(6, -refund.quantity() * refund.unitPrice()); // Negative Subtotal
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Stock-in many QR labels: explicit IDs as given, the rest matched by name + category
+    // (one lookup for all of them) or allocated, then upserted and logged in batches
+    public BulkResult bulkStockInFromQR(List<QRStockIn> items, IntConsumer progress) throws SQLException {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        int[] success = {0};
+
+        // Sequence work runs on its own connections, so do all of it before the batch transaction takes locks
+        int maxExplicitId = items.stream().mapToInt(QRStockIn::productId).max().orElse(0);
+        if (maxExplicitId > 0) {
+            ProductIdSequence.reserveThrough(this.userId, maxExplicitId);
+        }
+
+        // Match unlabelled items by name + category; unknown names share one block of new IDs
+        Map<String, Integer> existing = loadProductKeys();
+        Set<String> unknown = new LinkedHashSet<>();
+        for (QRStockIn item : items) {
+            if (item.productId() <= 0) {
+                String key = productKey(item.name(), item.categoryId());
+                if (!existing.containsKey(key)) unknown.add(key);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            int nextId = ProductIdSequence.nextBlock(this.userId, unknown.size());
+            for (String key : unknown) {
+                existing.put(key, nextId++);
+            }
+        }
+
+        // Labels for the same product end up as one upsert
+        Map<Integer, QRStockIn> merged = new LinkedHashMap<>();
+        for (QRStockIn item : items) {
+            int productId = item.productId() > 0
+                ? item.productId()
+                : existing.get(productKey(item.name(), item.categoryId()));
+            QRStockIn previous = merged.get(productId);
+            int quantity = item.quantity() + (previous != null ? previous.quantity() : 0);
+            merged.put(productId, new QRStockIn(productId, item.name(), item.categoryId(), item.unit(), item.costPrice(), quantity));
+        }
+
+        runBulk(conn -> {
+            try (PreparedStatement upsertStmt = conn.prepareStatement(SqlQueries.UPSERT_PRODUCT_FROM_QR);
+                 PreparedStatement logStmt = conn.prepareStatement(SqlQueries.INSERT_STOCK_LOG)) {
+                List<Integer> queued = new ArrayList<>(BULK_BATCH_SIZE);
+                int done = 0;
+                for (QRStockIn item : merged.values()) {
+                    done++;
+                    if (item.costPrice() < 0 || item.quantity() < 0) {
+                        failures.put(item.productId(), "Cost price and stock quantity cannot be negative");
+                        continue;
+                    }
+                    upsertStmt.setInt(1, item.productId());
+                    upsertStmt.setString(2, item.name());
+                    upsertStmt.setString(3, item.unit());
+                    upsertStmt.setDouble(4, item.costPrice());
+                    upsertStmt.setInt(5, item.quantity());
+                    upsertStmt.setInt(6, item.categoryId());
+                    upsertStmt.setInt(7, this.userId);
+                    upsertStmt.addBatch();
+                    addLogBatch(logStmt, item.productId(), item.quantity(), "STOCK-IN", "From QR Scan");
+                    queued.add(item.productId());
+
+                    if (queued.size() == BULK_BATCH_SIZE) {
+                        success[0] += executeCounted(upsertStmt, queued, failures);
+                        logStmt.executeBatch();
+                        progress.accept(done);
+                    }
+                }
+                success[0] += executeCounted(upsertStmt, queued, failures);
+                logStmt.executeBatch();
+                progress.accept(done);
+            }
+        });
+        return new BulkResult(success[0], failures);
+    }
+
+    // Product ID per name + category key, first one wins for duplicate names
+    private Map<String, Integer> loadProductKeys() throws SQLException {
+        Map<String, Integer> keys = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_PRODUCT_KEYS)) {
+            stmt.setInt(1, this.userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.putIfAbsent(productKey(rs.getString("name"), rs.getInt("category_id")), rs.getInt("product_id"));
+                }
+            }
+        }
+        return keys;
+    }
+
+    // Name match the way the products.name collation compares it (case-insensitive, trailing spaces ignored)
+    private static String productKey(String name, int categoryId) {
+        return categoryId + "|" + name.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    // Lock rows in ascending product_id order, a chunk per round trip
+    private Map<Integer, LockedProduct> lockProducts(Connection conn, Collection<Integer> productIds) throws SQLException {
+        List<Integer> sorted = new ArrayList<>(new TreeSet<>(productIds));
+        Map<Integer, LockedProduct> locked = new HashMap<>();
+        if (sorted.isEmpty()) return locked;
+
+        try (PreparedStatement stmt = conn.prepareStatement(SqlQueries.SELECT_PRODUCTS_FOR_UPDATE)) {
+            for (int from = 0; from < sorted.size(); from += SqlQueries.LOCK_CHUNK_SIZE) {
+                List<Integer> chunk = sorted.subList(from, Math.min(from + SqlQueries.LOCK_CHUNK_SIZE, sorted.size()));
+                stmt.setInt(1, this.userId);
+                for (int i = 0; i < SqlQueries.LOCK_CHUNK_SIZE; i++) {
+                    // Pad short chunks with the last id
+                    stmt.setInt(i + 2, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        double markup = rs.getDouble("markup_percent");
+                        Double markupPercent = rs.wasNull() ? null : markup;
+                        locked.put(rs.getInt("product_id"), new LockedProduct(
+                            rs.getString("name"),
+                            rs.getInt("quantity_in_stock"),
+                            rs.getDouble("cost_price"),
+                            rs.getDouble("retail_price"),
+                            markupPercent));
+                    }
+                }
+            }
+        }
+        return locked;
+    }
+
+    // Validation for rows that take stock out; null when fine
+    private static String checkOutgoing(LockedProduct product, int quantity) {
+        if (product == null) return "Product not found";
+        if (quantity <= 0) return "Quantity must be positive";
+        if (product.stock < quantity) return "Not enough stock. Available: " + product.stock + ", Requested: " + quantity;
+        return null;
+    }
+
+    private void addLogBatch(PreparedStatement logStmt, int productId, int quantityChanged, String logType, String notes) throws SQLException {
+        logStmt.setInt(1, productId);
+        logStmt.setInt(2, quantityChanged);
+        logStmt.setString(3, logType);
+        logStmt.setString(4, notes);
+        logStmt.setInt(5, this.userId);
+        logStmt.addBatch();
+    }
+
+    // Execute queued batch; rows that matched nothing are reported as not found
+    private static int executeCounted(PreparedStatement stmt, List<Integer> queuedIds, Map<Integer, String> failures) throws SQLException {
+        if (queuedIds.isEmpty()) return 0;
+        int[] counts = stmt.executeBatch();
+        int applied = 0;
+        for (int i = 0; i < counts.length && i < queuedIds.size(); i++) {
+            if (counts[i] == 0) {
+                failures.put(queuedIds.get(i), "Not found");
+            } else {
+                applied++;
+            }
+        }
+        queuedIds.clear();
+        return applied;
+    }
+
+    // Run bulk work in one transaction; any SQL error rolls the whole batch back
+    private void runBulk(BulkWork work) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            work.run(conn);
+            conn.commit();
+            catalog.invalidateProducts();
+        } catch (SQLException e) {
+            if (conn != null) try { conn.rollback(); } catch (SQLException ex) { com.inventorysystem.util.DebugLogger.error("Rollback failed", ex); }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) { /* Ignored */ }
+            }
+        }
+    }
+
+    // Several rows for one product keep every reason instead of the last one
+    private static void addFailure(Map<Integer, String> failures, int productId, String reason) {
+        failures.merge(productId, reason, (first, next) -> first + "; " + next);
+    }
+
+    // One priced basket line, locked and validated in step A of checkout
+    private record SaleLine(int productId, int quantity, double unitPrice, double costPrice) {}
+
+    // One product's customer-return refund line (quantity summed across the batch)
+    private record RefundLine(int productId, int quantity, double unitPrice, double costPrice) {}
+
+    @FunctionalInterface
+    private interface BulkWork {
+        void run(Connection conn) throws SQLException;
+    }
+
+    // Row state read under lock; stock tracks changes queued in this batch
+    private static final class LockedProduct {
+        final String name;
+        int stock;
+        final double costPrice;
+        final double retailPrice;
+        final Double markupPercent;
+
+        LockedProduct(String name, int stock, double costPrice, double retailPrice, Double markupPercent) {
+            this.name = name;
+            this.stock = stock;
+            this.costPrice = costPrice;
+            this.retailPrice = retailPrice;
+            this.markupPercent = markupPercent;
+        }
+    }
+
     // Get category name by ID
     public String getCategoryNameById(int categoryId) throws SQLException {
         String sql = "SELECT category_name FROM categories WHERE category_id = ? AND user_id = ?";
@@ -1166,6 +1656,10 @@ public class ProductRepository {
 
     // Get product category name
     public String getProductCategoryName(int productId) throws SQLException {
+        Product cached = catalog.product(productId, this::loadProducts);
+        if (cached != null) {
+            return cached.categoryName();
+        }
         String sql = "SELECT c.category_name FROM products p " +
                      "JOIN categories c ON p.category_id = c.category_id " +
                      "WHERE p.product_id = ? AND p.user_id = ?";
@@ -1,7 +1,9 @@
 package com.inventorysystem.data;
 
+import com.inventorysystem.model.DateRange;
 import com.inventorysystem.model.TransactionRecord;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,119 +14,237 @@ import java.util.List;
 // Records repo
 public class RecordsRepository {
 
-    // Get history
-    public List<TransactionRecord> getTransactionHistory(int userId) throws SQLException {
-        List<TransactionRecord> history = new ArrayList<>();
-
-        // Get default markup
-        UserRepository userRepo = new UserRepository();
-        double markupPercent = userRepo.getDefaultMarkup(userId);
-
-        String sql =
-            "SELECT sl.log_date AS transaction_date, " +
-            "COALESCE(p.name, SUBSTRING_INDEX(sl.notes, 'Product deleted: ', -1), 'Unknown Product') AS product_name, " +
-            "COALESCE(p.unit_of_measurement, '-') AS unit, " +
-            "sl.log_type AS transaction_type, " +
-            "sl.quantity_changed AS quantity, " +
-            "COALESCE(p.cost_price, 0) AS unitPrice, " +
-            "COALESCE(p.retail_price, 0) AS retailPrice, " +
-            "COALESCE(p.cost_price, 0) AS costPrice, " +
-            "(COALESCE(p.cost_price, 0) * ABS(sl.quantity_changed)) AS total, " +
-            "sl.notes AS notes " +
-            "FROM stock_log sl " +
-            "LEFT JOIN products p ON sl.product_id = p.product_id AND sl.user_id = p.user_id " +
-            "WHERE sl.user_id = ? " +
-            "AND sl.log_type IN ('SALE', 'STOCK-IN', 'STOCK-OUT', 'STOCK-REMOVAL', 'REJECT', 'REFUND', 'CUSTOMER-RETURN', 'DELETE') " +
-            "ORDER BY transaction_date DESC";
+    // Rows per round trip when streaming (server cursor via useCursorFetch)
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String TRANSACTION_TYPES =
+        "('SALE', 'STOCK-IN', 'STOCK-OUT', 'STOCK-REMOVAL', 'REJECT', 'REFUND', 'CUSTOMER-RETURN', 'DELETE')";
+
+    // Retail falls back to cost plus the default markup, same as mapRecord, so it can be sorted on
+    private static final String EFFECTIVE_RETAIL =
+        "(CASE WHEN COALESCE(p.retail_price, 0) <= 0 AND COALESCE(p.cost_price, 0) > 0 " +
+        "THEN ROUND(p.cost_price * (1 + COALESCE(u.default_markup_percent, 0) / 100), 2) " +
+        "ELSE COALESCE(p.retail_price, 0) END)";
+
+    private static final String PRODUCT_JOIN =
+        "LEFT JOIN products p ON sl.product_id = p.product_id AND sl.user_id = p.user_id ";
+    // Deleted products keep their name in the delete note
+    private static final String PRODUCT_NAME =
+        "COALESCE(p.name, SUBSTRING_INDEX(sl.notes, 'Product deleted: ', -1), 'Unknown Product')";
+    // Default markup comes from the join, no extra round trip per call
+    private static final String HISTORY_FROM =
+        "FROM stock_log sl " +
+        PRODUCT_JOIN +
+        "LEFT JOIN users u ON u.user_id = sl.user_id ";
+    private static final String HISTORY_SELECT =
+        "SELECT sl.log_id, sl.log_date AS transaction_date, " +
+        PRODUCT_NAME + " AS product_name, " +
+        "COALESCE(p.unit_of_measurement, '-') AS unit, " +
+        "sl.log_type AS transaction_type, " +
+        "sl.quantity_changed AS quantity, " +
+        "COALESCE(p.cost_price, 0) AS unitPrice, " +
+        "COALESCE(p.retail_price, 0) AS retailPrice, " +
+        "COALESCE(p.cost_price, 0) AS costPrice, " +
+        "(COALESCE(p.cost_price, 0) * ABS(sl.quantity_changed)) AS total, " +
+        "sl.notes AS notes, " +
+        "COALESCE(u.default_markup_percent, 0) AS default_markup " +
+        HISTORY_FROM;
+
+    private static final String RANGE_FILTER =
+        "WHERE sl.user_id = ? AND sl.log_date >= ? AND sl.log_date < ? AND sl.log_type IN " + TRANSACTION_TYPES + " ";
+    // Product name and transaction type only; each row in the range is still tested, so keep the list short
+    private static final String[] SEARCH_COLUMNS = {
+        PRODUCT_NAME,
+        "sl.log_type",
+    };
+    private static final String SEARCH_FILTER =
+        "AND (" + String.join(" LIKE ? OR ", SEARCH_COLUMNS) + " LIKE ?) ";
+    // Keyset on (log_date, log_id), newest first
+    private static final String AFTER_CURSOR =
+        "AND (sl.log_date < ? OR (sl.log_date = ? AND sl.log_id < ?)) ";
+    private static final String NEWEST_FIRST =
+        "ORDER BY sl.log_date DESC, sl.log_id DESC ";
+
+    // Sortable table columns; the SQL comes from here only, never from the caller
+    public enum SortKey {
+        DATE("sl.log_date"),
+        PRODUCT("product_name"),
+        UNIT("unit"),
+        TYPE("sl.log_type"),
+        QUANTITY("sl.quantity_changed"),
+        COST("unitPrice"),
+        TOTAL_COST("total"),
+        RETAIL(EFFECTIVE_RETAIL),
+        TOTAL_RETAIL(EFFECTIVE_RETAIL + " * ABS(sl.quantity_changed)");
+
+        private final String expression;
+
+        SortKey(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    // Newest-first order is the keyset one; any other order pages by offset
+    public static boolean isNewestFirst(SortKey key, boolean ascending) {
+        return key == SortKey.DATE && !ascending;
+    }
+
+    private static String orderBy(SortKey key, boolean ascending) {
+        if (isNewestFirst(key, ascending)) return NEWEST_FIRST;
+        // Ties keep newest first so pages stay stable
+        return "ORDER BY " + key.expression + (ascending ? " ASC" : " DESC") +
+            ", sl.log_date DESC, sl.log_id DESC ";
+    }
+
+    // Count rows in range, for sizing the paged table
+    public int countTransactions(int userId, DateRange range, String search) throws SQLException {
+        boolean searching = hasSearch(search);
+        // Join products only when the search needs the name
+        String sql = "SELECT COUNT(*) FROM stock_log sl " +
+            (searching ? PRODUCT_JOIN : "") +
+            RANGE_FILTER +
+            (searching ? SEARCH_FILTER : "");
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, userId);
+            int index = bindRange(pstmt, userId, range);
+            if (searching) bindSearch(pstmt, index, search);
 
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    double retailPrice = rs.getDouble("retailPrice");
-                    double costPrice = rs.getDouble("costPrice");
-                    
-                    if (retailPrice <= 0.0 && costPrice > 0.0) {
-                        retailPrice = costPrice * (1 + markupPercent / 100.0);
-                        retailPrice = Math.round(retailPrice * 100.0) / 100.0;
-                    }
-                    
-                    history.add(new TransactionRecord(
-                        rs.getTimestamp("transaction_date"),
-                        rs.getString("product_name"),
-                        rs.getString("unit"),
-                        rs.getString("transaction_type"),
-                        rs.getInt("quantity"), 
-                        rs.getDouble("unitPrice"),
-                        retailPrice,
-                        rs.getDouble("total"),
-                        rs.getString("notes")
-                    ));
-                }
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Next page after the given row (null = first page), newest first
+    public List<TransactionRecord> getTransactionPage(int userId, DateRange range, String search,
+                                                      TransactionRecord after, int pageSize) throws SQLException {
+        boolean searching = hasSearch(search);
+        String sql = HISTORY_SELECT + RANGE_FILTER +
+            (searching ? SEARCH_FILTER : "") +
+            (after != null ? AFTER_CURSOR : "") +
+            NEWEST_FIRST + "LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = bindRange(pstmt, userId, range);
+            if (searching) index = bindSearch(pstmt, index, search);
+            if (after != null) {
+                pstmt.setTimestamp(index++, after.transactionDate());
+                pstmt.setTimestamp(index++, after.transactionDate());
+                pstmt.setLong(index++, after.logId());
             }
+            pstmt.setInt(index, pageSize);
+
+            return readPage(pstmt, pageSize);
         }
-        return history;
     }
 
-    // Get history by date
-    public List<TransactionRecord> getTransactionHistoryWithDateRange(int userId, java.sql.Date startDate, java.sql.Date endDate) throws SQLException {
-        List<TransactionRecord> history = new ArrayList<>();
-
-        UserRepository userRepo = new UserRepository();
-        double markupPercent = userRepo.getDefaultMarkup(userId);
-
-        String sql =
-            "SELECT sl.log_date AS transaction_date, " +
-            "COALESCE(p.name, SUBSTRING_INDEX(sl.notes, 'Product deleted: ', -1), 'Unknown Product') AS product_name, " +
-            "COALESCE(p.unit_of_measurement, '-') AS unit, " +
-            "sl.log_type AS transaction_type, " +
-            "sl.quantity_changed AS quantity, " +
-            "COALESCE(p.cost_price, 0) AS unitPrice, " +
-            "COALESCE(p.retail_price, 0) AS retailPrice, " +
-            "COALESCE(p.cost_price, 0) AS costPrice, " +
-            "(COALESCE(p.cost_price, 0) * ABS(sl.quantity_changed)) AS total, " +
-            "sl.notes AS notes " +
-            "FROM stock_log sl " +
-            "LEFT JOIN products p ON sl.product_id = p.product_id AND sl.user_id = p.user_id " +
-            "WHERE sl.user_id = ? AND sl.log_date BETWEEN ? AND ? " +
-            "AND sl.log_type IN ('SALE', 'STOCK-IN', 'STOCK-OUT', 'STOCK-REMOVAL', 'REJECT', 'REFUND', 'CUSTOMER-RETURN', 'DELETE') " +
-            "ORDER BY transaction_date DESC";
+    // Page at a row offset; for sorted views and for jumps where no keyset cursor is known yet.
+    // MySQL still reads and discards the skipped rows, so this costs O(offset): fine for a
+    // scrollbar drag now and then, but newest-first scrolling should stay on getTransactionPage.
+    public List<TransactionRecord> getTransactionPageAt(int userId, DateRange range, String search,
+                                                        SortKey sortKey, boolean ascending,
+                                                        int offset, int pageSize) throws SQLException {
+        boolean searching = hasSearch(search);
+        String sql = HISTORY_SELECT + RANGE_FILTER +
+            (searching ? SEARCH_FILTER : "") +
+            orderBy(sortKey, ascending) + "LIMIT ? OFFSET ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, userId);
-            pstmt.setTimestamp(2, new java.sql.Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(3, new java.sql.Timestamp(endDate.getTime()));
+            int index = bindRange(pstmt, userId, range);
+            if (searching) index = bindSearch(pstmt, index, search);
+            pstmt.setInt(index++, pageSize);
+            pstmt.setInt(index, offset);
+
+            return readPage(pstmt, pageSize);
+        }
+    }
+
+    // Stream every row in range to the handler, in table order, without holding them in memory
+    public void streamTransactions(int userId, DateRange range, String search,
+                                   SortKey sortKey, boolean ascending,
+                                   RowHandler<TransactionRecord> handler) throws SQLException, IOException {
+        boolean searching = hasSearch(search);
+        String sql = HISTORY_SELECT + RANGE_FILTER +
+            (searching ? SEARCH_FILTER : "") +
+            orderBy(sortKey, ascending);
+
+        // Forward-only, read-only, not taken from the statement cache
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+            int index = bindRange(pstmt, userId, range);
+            if (searching) bindSearch(pstmt, index, search);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    double retailPrice = rs.getDouble("retailPrice");
-                    double costPrice = rs.getDouble("costPrice");
-                    
-                    // Calc retail if missing
-                    if (retailPrice <= 0.0 && costPrice > 0.0) {
-                        retailPrice = costPrice * (1 + markupPercent / 100.0);
-                        retailPrice = Math.round(retailPrice * 100.0) / 100.0;
-                    }
-                    
-                    history.add(new TransactionRecord(
-                        rs.getTimestamp("transaction_date"),
-                        rs.getString("product_name"),
-                        rs.getString("unit"),
-                        rs.getString("transaction_type"),
-                        rs.getInt("quantity"), 
-                        rs.getDouble("unitPrice"),
-                        retailPrice,
-                        rs.getDouble("total"),
-                        rs.getString("notes")
-                    ));
+                    if (!handler.handle(mapRecord(rs))) break;
                 }
             }
         }
-        return history;
     }
-}
\ No newline at end of file
+
+    private List<TransactionRecord> readPage(PreparedStatement pstmt, int pageSize) throws SQLException {
+        List<TransactionRecord> page = new ArrayList<>(pageSize);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                page.add(mapRecord(rs));
+            }
+        }
+        return page;
+    }
+
+    private static boolean hasSearch(String search) {
+        return search != null && !search.trim().isEmpty();
+    }
+
+    private static int bindRange(PreparedStatement pstmt, int userId, DateRange range) throws SQLException {
+        pstmt.setInt(1, userId);
+        pstmt.setTimestamp(2, range.start());
+        pstmt.setTimestamp(3, range.endExclusive());
+        return 4;
+    }
+
+    private static int bindSearch(PreparedStatement pstmt, int index, String search) throws SQLException {
+        // Escape LIKE wildcards so the text matches literally
+        String pattern = "%" + search.trim()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_") + "%";
+        for (int i = 0; i < SEARCH_COLUMNS.length; i++) {
+            pstmt.setString(index++, pattern);
+        }
+        return index;
+    }
+
+    private static TransactionRecord mapRecord(ResultSet rs) throws SQLException {
+        double retailPrice = rs.getDouble("retailPrice");
+        double costPrice = rs.getDouble("costPrice");
+
+        // Calc retail if missing
+        if (retailPrice <= 0.0 && costPrice > 0.0) {
+            double markupPercent = rs.getDouble("default_markup");
+            retailPrice = costPrice * (1 + markupPercent / 100.0);
+            retailPrice = Math.round(retailPrice * 100.0) / 100.0;
+        }
+
+        return new TransactionRecord(
+            rs.getLong("log_id"),
+            rs.getTimestamp("transaction_date"),
+            rs.getString("product_name"),
+            rs.getString("unit"),
+            rs.getString("transaction_type"),
+            rs.getInt("quantity"),
+            rs.getDouble("unitPrice"),
+            retailPrice,
+            rs.getDouble("total"),
+            rs.getString("notes")
+        );
+    }
+}
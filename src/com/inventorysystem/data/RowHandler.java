@@ -0,0 +1,9 @@
+package com.inventorysystem.data;
+
+import java.io.IOException;
+
+// Per-row callback for streamed queries; return false to stop early
+@FunctionalInterface
+public interface RowHandler<T> {
+    boolean handle(T row) throws IOException;
+}
@@ -0,0 +1,329 @@
+package com.inventorysystem.data;
+
+import com.inventorysystem.util.DebugLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Versioned schema migrations, run once at startup
+public final class SchemaMigrator {
+
+    private static final String LOCK_NAME = "smartstock_schema_migration";
+    private static final int LOCK_TIMEOUT_SEC = 30;
+
+    // V2 indexes; also rebuilt on scratch tables by the verification main
+    private static final List<IndexSpec> V2_INDEXES = List.of(
+        new IndexSpec("sales", "idx_sales_user_date", "user_id, sale_date, total_amount"),
+        new IndexSpec("sale_items", "idx_sale_items_product", "product_id"),
+        // History keyset; log_type included so count and page seeks filter inside the index
+        new IndexSpec("stock_log", "idx_stock_log_user_date", "user_id, log_date, log_id, log_type"),
+        new IndexSpec("stock_log", "idx_stock_log_user_product", "user_id, product_id, log_type, log_date, quantity_changed")
+    );
+
+    // Applied in order; never edit a released migration, add a new one
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Add products.quantity_damaged", conn ->
+            addColumnIfMissing(conn, "products", "quantity_damaged",
+                "ALTER TABLE products ADD COLUMN quantity_damaged INT(11) NOT NULL DEFAULT 0 AFTER quantity_in_stock")),
+
+        new Migration(2, "Covering indexes for date-range and per-product history", conn -> {
+            for (IndexSpec index : V2_INDEXES) {
+                createIndexIfMissing(conn, index.table(), index.name(),
+                    "CREATE INDEX " + index.name() + " ON " + index.table() + " (" + index.columns() + ")");
+            }
+        }),
+
+        new Migration(3, "Per-user product ID sequence", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS product_id_sequence (" +
+                    "  user_id INT(11) NOT NULL PRIMARY KEY, " +
+                    "  next_id INT(11) NOT NULL" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci");
+                // Seed from current data; later users are seeded on first allocation
+                stmt.executeUpdate(
+                    "INSERT IGNORE INTO product_id_sequence (user_id, next_id) " +
+                    "SELECT user_id, MAX(product_id) + 1 FROM products GROUP BY user_id");
+            }
+        })
+    );
+
+    private static volatile boolean migrated = false;
+
+    private SchemaMigrator() {}
+
+    // Bring schema up to the latest version
+    public static synchronized void migrate() throws SQLException {
+        if (migrated) return;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Serialize migrations across terminals sharing the DB
+            if (!acquireLock(conn)) {
+                throw new SQLException("Timed out waiting for schema migration lock");
+            }
+            try {
+                ensureVersionTable(conn);
+                int current = getCurrentVersion(conn);
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version() <= current) continue;
+                    DebugLogger.info("Applying schema migration V" + migration.version() + ": " + migration.description());
+                    migration.step().apply(conn);
+                    recordVersion(conn, migration);
+                }
+            } finally {
+                releaseLock(conn);
+            }
+        }
+        migrated = true;
+    }
+
+    // Latest version this build knows about
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(
+                "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "  version INT NOT NULL PRIMARY KEY, " +
+                "  description VARCHAR(200) NOT NULL, " +
+                "  applied_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci");
+        }
+    }
+
+    private static int getCurrentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, migration.version());
+            pstmt.setString(2, migration.description());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SEC);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            DebugLogger.error("Failed to release schema migration lock", e);
+        }
+    }
+
+    // --- Migration helpers ---
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String ddl) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        if (!exists(conn, sql, table, column)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(ddl);
+            }
+        }
+    }
+
+    private static void createIndexIfMissing(Connection conn, String table, String index, String ddl) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+        if (!exists(conn, sql, table, index)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(ddl);
+            }
+        }
+    }
+
+    private static boolean exists(Connection conn, String sql, String first, String second) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, first);
+            pstmt.setString(2, second);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private record Migration(int version, String description, MigrationStep step) {}
+
+    private record IndexSpec(String table, String name, String columns) {}
+
+    // Range queries the V2 indexes exist for; expected = index EXPLAIN must pick for the checked table
+    private record Probe(String label, String checkedTable, String expected, String sql) {}
+
+    private static final String SCRATCH = "verify_";
+    private static final int SCRATCH_USERS = 20;
+    private static final int SCRATCH_LOGS_PER_USER = 2_500;
+    private static final int SCRATCH_SALES_PER_USER = 1_000;
+
+    private static final List<Probe> PROBES = List.of(
+        new Probe("sales by user/date", SCRATCH + "sales", "idx_sales_user_date",
+            "SELECT COALESCE(SUM(total_amount), 0) FROM verify_sales " +
+            "WHERE user_id = 7 AND sale_date >= '2025-03-01' AND sale_date < '2025-04-01'"),
+        new Probe("best sellers join", "s", "idx_sales_user_date",
+            "SELECT si.product_id, SUM(si.quantity_sold) FROM verify_sales s JOIN verify_sale_items si ON s.sale_id = si.sale_id " +
+            "WHERE s.user_id = 7 AND s.sale_date >= '2025-03-01' AND s.sale_date < '2025-04-01' GROUP BY si.product_id"),
+        new Probe("stock log history page", SCRATCH + "stock_log", "idx_stock_log_user_date",
+            "SELECT log_id FROM verify_stock_log WHERE user_id = 7 AND log_date >= '2025-03-01' AND log_date < '2025-04-01' " +
+            "ORDER BY log_date DESC, log_id DESC LIMIT 200"),
+        new Probe("stock log page count", SCRATCH + "stock_log", "idx_stock_log_user_date",
+            "SELECT COUNT(*) FROM verify_stock_log WHERE user_id = 7 AND log_date >= '2025-03-01' AND log_date < '2025-04-01' " +
+            "AND log_type IN ('SALE', 'STOCK-IN')"),
+        new Probe("stock log per product", SCRATCH + "stock_log", "idx_stock_log_user_product",
+            "SELECT SUM(quantity_changed) FROM verify_stock_log WHERE user_id = 7 AND product_id = 42 AND log_type = 'SALE'")
+    );
+
+    // Verification: seeds scratch copies of sales, sale_items and stock_log (base schema, no V2 indexes),
+    // EXPLAINs each probe before and after adding the V2 indexes, and exits 1 unless every probe
+    // then uses its expected index. The scratch tables are dropped afterwards; real tables are not touched.
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try {
+                createScratchTables(conn);
+                seedScratchTables(conn);
+                Map<String, String> before = new LinkedHashMap<>();
+                for (Probe probe : PROBES) before.put(probe.label(), explain(conn, probe));
+
+                for (IndexSpec index : V2_INDEXES) {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.executeUpdate("CREATE INDEX " + index.name() + " ON " + SCRATCH + index.table()
+                            + " (" + index.columns() + ")");
+                    }
+                }
+                analyzeScratchTables(conn);
+
+                for (Probe probe : PROBES) {
+                    String after = explain(conn, probe);
+                    boolean used = after.contains("key=" + probe.expected() + " ");
+                    ok &= used;
+                    System.out.printf("%s %-24s before: %s%n%29s after:  %s%n",
+                        used ? "OK  " : "FAIL", probe.label(), before.get(probe.label()), "", after);
+                }
+            } finally {
+                dropScratchTables(conn);
+            }
+        }
+        System.out.println(ok ? "OK: every probe uses its V2 index" : "FAILED: see probes marked FAIL");
+        if (!ok) System.exit(1);
+    }
+
+    // Same columns and keys as Database/smartstock_clean.sql, without foreign keys
+    private static void createScratchTables(Connection conn) throws SQLException {
+        dropScratchTables(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE verify_sales (" +
+                "sale_id INT(11) NOT NULL AUTO_INCREMENT, sale_date DATETIME NOT NULL, " +
+                "total_amount DECIMAL(12,2) NOT NULL DEFAULT 0.00, user_id INT(11) NOT NULL, " +
+                "PRIMARY KEY (sale_id), KEY fk_sales_user (user_id)) ENGINE=InnoDB");
+            stmt.executeUpdate("CREATE TABLE verify_sale_items (" +
+                "sale_id INT(11) NOT NULL, product_id INT(11) NOT NULL, quantity_sold INT(11) NOT NULL, " +
+                "subtotal DECIMAL(12,2) NOT NULL, PRIMARY KEY (sale_id, product_id)) ENGINE=InnoDB");
+            stmt.executeUpdate("CREATE TABLE verify_stock_log (" +
+                "log_id INT(11) NOT NULL AUTO_INCREMENT, product_id INT(11) NOT NULL, quantity_changed INT(11) NOT NULL, " +
+                "log_type VARCHAR(30) NOT NULL, notes VARCHAR(200) DEFAULT NULL, user_id INT(11) NOT NULL, " +
+                "log_date DATETIME NOT NULL, PRIMARY KEY (log_id), KEY fk_stock_log_user (user_id)) ENGINE=InnoDB");
+        }
+    }
+
+    // A year of history per user, spread evenly so a one-month range is about 1/12 of a user's rows
+    private static void seedScratchTables(Connection conn) throws SQLException {
+        String[] types = {"SALE", "STOCK-IN", "STOCK-OUT", "REJECT"};
+        long yearStart = java.sql.Timestamp.valueOf("2025-01-01 00:00:00").getTime();
+        long step = 365L * 24 * 3600 * 1000;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement sale = conn.prepareStatement(
+                 "INSERT INTO verify_sales (sale_id, sale_date, total_amount, user_id) VALUES (?, ?, ?, ?)");
+             PreparedStatement item = conn.prepareStatement(
+                 "INSERT INTO verify_sale_items (sale_id, product_id, quantity_sold, subtotal) VALUES (?, ?, ?, ?)");
+             PreparedStatement log = conn.prepareStatement(
+                 "INSERT INTO verify_stock_log (product_id, quantity_changed, log_type, user_id, log_date) VALUES (?, ?, ?, ?, ?)")) {
+            int saleId = 0;
+            for (int user = 1; user <= SCRATCH_USERS; user++) {
+                for (int i = 0; i < SCRATCH_SALES_PER_USER; i++) {
+                    saleId++;
+                    sale.setInt(1, saleId);
+                    sale.setTimestamp(2, new java.sql.Timestamp(yearStart + step * i / SCRATCH_SALES_PER_USER));
+                    sale.setDouble(3, 10 + i % 90);
+                    sale.setInt(4, user);
+                    sale.addBatch();
+                    for (int line = 0; line < 2; line++) {
+                        item.setInt(1, saleId);
+                        item.setInt(2, (i * 2 + line) % 200 + 1);
+                        item.setInt(3, 1 + line);
+                        item.setDouble(4, 5 + line);
+                        item.addBatch();
+                    }
+                }
+                for (int i = 0; i < SCRATCH_LOGS_PER_USER; i++) {
+                    log.setInt(1, i % 200 + 1);
+                    log.setInt(2, i % 2 == 0 ? -1 : 5);
+                    log.setString(3, types[i % types.length]);
+                    log.setInt(4, user);
+                    log.setTimestamp(5, new java.sql.Timestamp(yearStart + step * i / SCRATCH_LOGS_PER_USER));
+                    log.addBatch();
+                }
+                sale.executeBatch();
+                item.executeBatch();
+                log.executeBatch();
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        analyzeScratchTables(conn);
+    }
+
+    private static void analyzeScratchTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("ANALYZE TABLE verify_sales, verify_sale_items, verify_stock_log").close();
+        }
+    }
+
+    private static void dropScratchTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS verify_sales, verify_sale_items, verify_stock_log");
+        }
+    }
+
+    // Chosen key, access type and row estimate for the probe's checked table
+    private static String explain(Connection conn, Probe probe) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + probe.sql())) {
+            while (rs.next()) {
+                if (probe.checkedTable().equals(rs.getString("table"))) {
+                    return "key=" + rs.getString("key") + " type=" + rs.getString("type")
+                        + " rows=" + rs.getString("rows") + " extra=" + rs.getString("Extra");
+                }
+            }
+        }
+        return "no plan row for " + probe.checkedTable();
+    }
+}
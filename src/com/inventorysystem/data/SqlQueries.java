@@ -0,0 +1,64 @@
+package com.inventorysystem.data;
+
+// Shared SQL text. Identical strings hit the per-connection statement cache.
+final class SqlQueries {
+
+    private SqlQueries() {}
+
+    // Products
+    static final String SELECT_PRODUCT_FOR_SALE =
+        "SELECT cost_price, retail_price, markup_percent, quantity_in_stock " +
+        "FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
+    static final String SELECT_PRODUCT_PRICING =
+        "SELECT cost_price, retail_price, markup_percent FROM products WHERE product_id = ? AND user_id = ?";
+    static final String SELECT_STOCK_FOR_UPDATE =
+        "SELECT quantity_in_stock FROM products WHERE product_id = ? AND user_id = ? FOR UPDATE";
+    static final String SELECT_RETAIL_PRICE =
+        "SELECT retail_price FROM products WHERE product_id = ? AND user_id = ?";
+    static final String SELECT_PRODUCT_MARKUP =
+        "SELECT markup_percent FROM products WHERE product_id = ? AND user_id = ?";
+    static final String SET_STOCK =
+        "UPDATE products SET quantity_in_stock = ? WHERE product_id = ? AND user_id = ?";
+    static final String ADJUST_STOCK =
+        "UPDATE products SET quantity_in_stock = quantity_in_stock + ? WHERE product_id = ? AND user_id = ?";
+    static final String ADJUST_STOCK_AND_DAMAGED =
+        "UPDATE products SET quantity_in_stock = quantity_in_stock + ?, quantity_damaged = quantity_damaged + ? " +
+        "WHERE product_id = ? AND user_id = ?";
+    static final String SET_MARKUP_CLEAR_RETAIL =
+        "UPDATE products SET markup_percent = ?, retail_price = 0 WHERE product_id = ? AND user_id = ?";
+    static final String DELETE_PRODUCT =
+        "DELETE FROM products WHERE product_id = ? AND user_id = ?";
+    static final String DELETE_PRODUCT_LOGS =
+        "DELETE FROM stock_log WHERE product_id = ? AND user_id = ? AND log_type != 'DELETE'";
+
+    // QR stock-in: insert the product or add to its stock (product_id, name, unit, cost, quantity, category_id, user_id)
+    static final String UPSERT_PRODUCT_FROM_QR =
+        "INSERT INTO products (product_id, name, unit_of_measurement, cost_price, quantity_in_stock, category_id, user_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "name = VALUES(name), unit_of_measurement = VALUES(unit_of_measurement), cost_price = VALUES(cost_price), " +
+        "quantity_in_stock = quantity_in_stock + VALUES(quantity_in_stock), category_id = VALUES(category_id)";
+    static final String SELECT_PRODUCT_KEYS =
+        "SELECT product_id, name, category_id FROM products WHERE user_id = ?";
+
+    // Row locks for bulk operations: fixed-width IN list (pad with repeats) so the text stays cacheable
+    static final int LOCK_CHUNK_SIZE = 100;
+    static final String SELECT_PRODUCTS_FOR_UPDATE =
+        "SELECT product_id, name, quantity_in_stock, cost_price, retail_price, markup_percent FROM products " +
+        "WHERE user_id = ? AND product_id IN (" + "?,".repeat(LOCK_CHUNK_SIZE - 1) + "?) " +
+        "ORDER BY product_id FOR UPDATE";
+
+    // Users
+    static final String SELECT_DEFAULT_MARKUP =
+        "SELECT default_markup_percent FROM users WHERE user_id = ?";
+
+    // Sales
+    static final String INSERT_SALE =
+        "INSERT INTO sales (user_id, sale_date, total_amount) VALUES (?, NOW(), ?)";
+    static final String INSERT_SALE_ITEM =
+        "INSERT INTO sale_items (sale_id, product_id, quantity_sold, unit_price, cost_price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Stock log (product_id, quantity_changed, log_type, notes, user_id)
+    static final String INSERT_STOCK_LOG =
+        "INSERT INTO stock_log (product_id, quantity_changed, log_type, notes, user_id) VALUES (?, ?, ?, ?, ?)";
+}
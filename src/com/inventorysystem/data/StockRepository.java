@@ -1,5 +1,6 @@
 package com.inventorysystem.data;
 
+import com.inventorysystem.model.DateRange;
 import com.inventorysystem.model.StockRecord;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,10 +13,10 @@ import java.util.List;
 public class StockRepository {
 
     // Stock summary
-    public List<StockRecord> getStockSummaryWithDateRange(int userId, java.sql.Date startDate, java.sql.Date endDate) throws SQLException {
+    public List<StockRecord> getStockSummaryWithDateRange(int userId, DateRange range) throws SQLException {
         List<StockRecord> records = new ArrayList<>();
 
-        // Stock out = sales
+        // Stock out = sales. Range filter sits in the join so stock_log is range-scanned per product.
         String sql =
             "SELECT " +
             "    p.product_id, " +
@@ -23,13 +24,15 @@ public class StockRepository {
             "    c.category_name, " +
             "    p.unit_of_measurement, " +
             "    COALESCE(SUM(CASE WHEN sl.log_type IN ('STOCK-IN', 'CUSTOMER-RETURN') " +
-            "                      AND sl.log_date BETWEEN ? AND ? THEN ABS(sl.quantity_changed) ELSE 0 END), 0) AS stock_in, " +
+            "                      THEN ABS(sl.quantity_changed) ELSE 0 END), 0) AS stock_in, " +
             "    COALESCE(SUM(CASE WHEN sl.log_type IN ('SALE', 'STOCK-OUT') " +
-            "                      AND sl.log_date BETWEEN ? AND ? THEN ABS(sl.quantity_changed) ELSE 0 END), 0) AS stock_out, " +
+            "                      THEN ABS(sl.quantity_changed) ELSE 0 END), 0) AS stock_out, " +
             "    p.quantity_in_stock AS current_stock " +
             "FROM products p " +
             "JOIN categories c ON p.category_id = c.category_id " +
             "LEFT JOIN stock_log sl ON p.product_id = sl.product_id AND p.user_id = sl.user_id " +
+            "    AND sl.log_type IN ('STOCK-IN', 'CUSTOMER-RETURN', 'SALE', 'STOCK-OUT') " +
+            "    AND sl.log_date >= ? AND sl.log_date < ? " +
             "WHERE p.user_id = ? " +
             "GROUP BY p.product_id, p.name, c.category_name, p.unit_of_measurement, p.quantity_in_stock " +
             "ORDER BY p.product_id";
@@ -37,11 +40,9 @@ public class StockRepository {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setTimestamp(1, new java.sql.Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(2, new java.sql.Timestamp(endDate.getTime()));
-            pstmt.setTimestamp(3, new java.sql.Timestamp(startDate.getTime()));
-            pstmt.setTimestamp(4, new java.sql.Timestamp(endDate.getTime()));
-            pstmt.setInt(5, userId);
+            pstmt.setTimestamp(1, range.start());
+            pstmt.setTimestamp(2, range.endExclusive());
+            pstmt.setInt(3, userId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
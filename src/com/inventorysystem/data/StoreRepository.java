@@ -94,6 +94,7 @@ public class StoreRepository {
             }
 
             conn.commit();
+            ProductCatalogCache.forUser(userId).invalidateAll();
             return storeDeleted;
 
         } catch (SQLException e) {
@@ -15,8 +15,12 @@ public class UnitsRepository {
         this.userId = userId;
     }
     
-    // Get units
+    // Get units (cached per user until a unit is added or deleted)
     public List<String> getAllUnits() throws SQLException {
+        return ProductCatalogCache.forUser(userId).units(this::loadUnits);
+    }
+
+    private List<String> loadUnits() throws SQLException {
         List<String> units = new ArrayList<>();
         String sql = "SELECT unit_name FROM units WHERE user_id = ? ORDER BY unit_name ASC";
         
@@ -50,6 +54,7 @@ public class UnitsRepository {
             pstmt.setInt(2, userId);
             
             int rowsAffected = pstmt.executeUpdate();
+            ProductCatalogCache.forUser(userId).invalidateUnits();
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -86,6 +91,7 @@ public class UnitsRepository {
                 deleteStmt.setInt(2, userId);
                 
                 int rowsAffected = deleteStmt.executeUpdate();
+                ProductCatalogCache.forUser(userId).invalidateUnits();
                 return rowsAffected > 0;
             }
         }
@@ -14,7 +14,8 @@ public class UserRepository {
             return null;
         }
 
-        String sql = "SELECT user_id, username, user_role FROM users WHERE BINARY username = ? AND BINARY password = ?";
+        // Owner resolved in the same round trip as authentication
+        String sql = "SELECT user_id, username, user_role, admin_id FROM users WHERE BINARY username = ? AND BINARY password = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -24,11 +25,14 @@ public class UserRepository {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("username"),
-                        rs.getString("user_role")
-                    );
+                    int userId = rs.getInt("user_id");
+                    String role = rs.getString("user_role");
+                    int ownerId = userId;
+                    if ("Employee".equalsIgnoreCase(role)) {
+                        int adminId = rs.getInt("admin_id");
+                        ownerId = rs.wasNull() ? -1 : adminId;
+                    }
+                    return new User(userId, rs.getString("username"), role, ownerId);
                 }
             }
         }
@@ -101,9 +105,12 @@ public class UserRepository {
 
     // Get markup
     public double getDefaultMarkup(int userId) throws SQLException {
-        String sql = "SELECT default_markup_percent FROM users WHERE user_id = ?";
+        return ProductCatalogCache.forUser(userId).defaultMarkup(() -> loadDefaultMarkup(userId));
+    }
+
+    private double loadDefaultMarkup(int userId) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SqlQueries.SELECT_DEFAULT_MARKUP)) {
             
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -124,6 +131,7 @@ public class UserRepository {
             pstmt.setInt(2, userId);
             pstmt.executeUpdate();
         }
+        ProductCatalogCache.forUser(userId).putDefaultMarkup(newMarkupPercent);
     }
 
     // Get admin ID
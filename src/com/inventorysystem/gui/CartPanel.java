@@ -0,0 +1,190 @@
+package com.inventorysystem.gui;
+
+import com.inventorysystem.model.CartItem;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Sell-mode basket; checkout hands every line to the repository in one call
+public class CartPanel extends JPanel {
+
+    private final Map<Integer, CartItem> lines = new LinkedHashMap<>();
+    private final DefaultTableModel cartModel;
+    private final JTable cartTable;
+    private final JLabel totalLabel;
+    private final JButton checkoutButton;
+    private boolean checkingOut; // Sale running in the background
+
+    public CartPanel(Consumer<List<CartItem>> onCheckout) {
+        setLayout(new BorderLayout(10, 0));
+        setBackground(UIConstants.FORM_COLOR);
+        setBorder(BorderFactory.createCompoundBorder(
+            new LineBorder(UIConstants.BORDER_COLOR, 1),
+            new EmptyBorder(8, 10, 8, 10)));
+
+        JLabel titleLabel = new JLabel("CART");
+        titleLabel.setFont(UIConstants.LABEL_BOLD_FONT);
+        titleLabel.setForeground(UIConstants.PRIMARY_COLOR);
+
+        totalLabel = new JLabel();
+        totalLabel.setFont(UIConstants.LABEL_BOLD_FONT);
+
+        JPanel header = new JPanel(new BorderLayout());
+        header.setOpaque(false);
+        header.add(titleLabel, BorderLayout.WEST);
+        header.add(totalLabel, BorderLayout.EAST);
+        add(header, BorderLayout.NORTH);
+
+        cartModel = new DefaultTableModel(new String[]{"ID", "Product", "Qty", "Unit Price", "Subtotal"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        cartTable = new JTable(cartModel);
+        cartTable.setFont(UIConstants.TABLE_FONT);
+        cartTable.setRowHeight(24);
+        cartTable.setDefaultRenderer(Object.class, new CustomTableRenderer());
+        cartTable.getTableHeader().setReorderingAllowed(false);
+        cartTable.getColumnModel().getColumn(0).setMaxWidth(60);
+        JScrollPane scrollPane = new JScrollPane(cartTable);
+        scrollPane.setPreferredSize(new Dimension(0, 130));
+        add(scrollPane, BorderLayout.CENTER);
+
+        JButton removeButton = new JButton("Remove Item");
+        JButton clearButton = new JButton("Clear");
+        checkoutButton = new JButton("Checkout");
+        for (JButton button : new JButton[]{removeButton, clearButton, checkoutButton}) {
+            button.setFont(UIConstants.BUTTON_FONT);
+            button.setFocusPainted(false);
+            button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            button.setMaximumSize(new Dimension(Integer.MAX_VALUE, 35));
+            button.setAlignmentX(Component.CENTER_ALIGNMENT);
+        }
+        checkoutButton.setBackground(UIConstants.SUCCESS_COLOR);
+        checkoutButton.setForeground(Color.WHITE);
+        checkoutButton.setOpaque(true);
+        checkoutButton.setBorderPainted(false);
+
+        removeButton.addActionListener(e -> removeSelected());
+        clearButton.addActionListener(e -> clear());
+        checkoutButton.addActionListener(e -> {
+            if (!lines.isEmpty()) onCheckout.accept(getItems());
+        });
+
+        JPanel buttons = new JPanel();
+        buttons.setLayout(new BoxLayout(buttons, BoxLayout.Y_AXIS));
+        buttons.setOpaque(false);
+        buttons.setPreferredSize(new Dimension(140, 0));
+        buttons.add(removeButton);
+        buttons.add(Box.createRigidArea(new Dimension(0, 6)));
+        buttons.add(clearButton);
+        buttons.add(Box.createRigidArea(new Dimension(0, 6)));
+        buttons.add(checkoutButton);
+        add(buttons, BorderLayout.EAST);
+
+        refresh();
+    }
+
+    // Add quantity to a line; false if it would exceed the stock shown in the table
+    public boolean addItem(int productId, String productName, int quantity, double unitPrice, int availableStock) {
+        CartItem existing = lines.get(productId);
+        int newQuantity = quantity + (existing != null ? existing.quantity() : 0);
+        if (newQuantity > availableStock) {
+            return false;
+        }
+        lines.put(productId, new CartItem(productId, productName, newQuantity, unitPrice));
+        refresh();
+
+        // Highlight the line just touched
+        int row = indexOf(productId);
+        if (row >= 0) {
+            cartTable.setRowSelectionInterval(row, row);
+            cartTable.scrollRectToVisible(cartTable.getCellRect(row, 0, true));
+        }
+        return true;
+    }
+
+    public int getQuantity(int productId) {
+        CartItem item = lines.get(productId);
+        return item != null ? item.quantity() : 0;
+    }
+
+    public List<CartItem> getItems() {
+        return new ArrayList<>(lines.values());
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public void clear() {
+        lines.clear();
+        refresh();
+    }
+
+    // Block a second checkout while one is saving
+    public void setCheckingOut(boolean checkingOut) {
+        this.checkingOut = checkingOut;
+        refresh();
+    }
+
+    // Drop what was sold; lines scanned while the sale was saving stay in the cart
+    public void removeSold(List<CartItem> sold) {
+        for (CartItem item : sold) {
+            CartItem current = lines.get(item.productId());
+            if (current == null) continue;
+            int remaining = current.quantity() - item.quantity();
+            if (remaining > 0) {
+                lines.put(item.productId(), new CartItem(item.productId(), current.productName(), remaining, current.unitPrice()));
+            } else {
+                lines.remove(item.productId());
+            }
+        }
+        refresh();
+    }
+
+    private void removeSelected() {
+        int row = cartTable.getSelectedRow();
+        if (row < 0) return;
+        lines.remove((Integer) cartModel.getValueAt(row, 0));
+        refresh();
+    }
+
+    private int indexOf(int productId) {
+        int row = 0;
+        for (Integer id : lines.keySet()) {
+            if (id == productId) return row;
+            row++;
+        }
+        return -1;
+    }
+
+    private void refresh() {
+        cartModel.setRowCount(0);
+        double total = 0.0;
+        int units = 0;
+        for (CartItem item : lines.values()) {
+            double subtotal = item.unitPrice() * item.quantity();
+            total += subtotal;
+            units += item.quantity();
+            cartModel.addRow(new Object[]{
+                item.productId(),
+                item.productName(),
+                item.quantity(),
+                String.format("₱%,.2f", item.unitPrice()),
+                String.format("₱%,.2f", subtotal)
+            });
+        }
+        totalLabel.setText(units + " item(s)   Total: " + String.format("₱%,.2f", total));
+        checkoutButton.setEnabled(!lines.isEmpty() && !checkingOut);
+    }
+}
@@ -4,9 +4,11 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import com.inventorysystem.model.DateRange;
 import com.toedter.calendar.JDateChooser;
 
 // Date range panel
@@ -142,34 +144,16 @@ public class DateRangePanel extends JPanel {
         return endDateChooser.getDate();
     }
     
-    // Get date for SQL queries (start of day: 00:00:00)
-    public java.sql.Date getSqlStartDate() {
-        Date date = startDateChooser.getDate();
-        if (date == null) return null;
-        
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        cal.set(java.util.Calendar.MINUTE, 0);
-        cal.set(java.util.Calendar.SECOND, 0);
-        cal.set(java.util.Calendar.MILLISECOND, 0);
-        
-        return new java.sql.Date(cal.getTimeInMillis());
+    // Selected days as a half-open range for SQL (empty pickers fall back to all time / today)
+    public DateRange getDateRange() {
+        LocalDate first = toLocalDate(startDateChooser.getDate(), LocalDate.of(2000, 1, 1));
+        LocalDate last = toLocalDate(endDateChooser.getDate(), LocalDate.now());
+        return DateRange.ofDays(first, last);
     }
-    
-    // Get date for SQL queries (end of day: 23:59:59)
-    public java.sql.Date getSqlEndDate() {
-        Date date = endDateChooser.getDate();
-        if (date == null) return null;
-        
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 23);
-        cal.set(java.util.Calendar.MINUTE, 59);
-        cal.set(java.util.Calendar.SECOND, 59);
-        cal.set(java.util.Calendar.MILLISECOND, 999);
-        
-        return new java.sql.Date(cal.getTimeInMillis());
+
+    private static LocalDate toLocalDate(Date date, LocalDate fallback) {
+        if (date == null) return fallback;
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
     
     // Main method for testing
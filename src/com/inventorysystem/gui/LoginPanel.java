@@ -3,6 +3,7 @@ package com.inventorysystem.gui;
 import com.inventorysystem.data.UserRepository;
 import com.inventorysystem.model.User;
 import com.inventorysystem.util.SoundUtil;
+import com.inventorysystem.util.TimingTrace;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -234,6 +235,7 @@ public class LoginPanel extends JPanel {
         }
 
         try {
+            TimingTrace.start("login"); // Finished by MainApplicationPanel's first paint
             Startup splash = new Startup();
             splash.updateProgress(30, "Authenticating...");
             splash.showSplash();
@@ -243,11 +245,12 @@ public class LoginPanel extends JPanel {
             });
 
             User user = userRepository.login(username, password);
+            TimingTrace.mark("login", "authenticate");
             if (user != null) {
                 splash.updateProgress(80, "Login successful!");
                 SwingUtilities.invokeLater(() -> {
                     splash.closeSplash();
-                    mainFrame.handleLoginSuccess(user.userId(), user.username(), user.role());
+                    mainFrame.handleLoginSuccess(user);
                     showWelcomeDialog(user);
                 });
             } else {
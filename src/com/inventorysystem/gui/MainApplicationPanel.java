@@ -1,14 +1,28 @@
 package com.inventorysystem.gui;
 
+import com.inventorysystem.data.ProductCatalogCache;
 import com.inventorysystem.data.StoreRepository;
+import com.inventorysystem.util.DebugLogger;
+import com.inventorysystem.util.TimingTrace;
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 // Main app panel
 public class MainApplicationPanel extends JPanel {
+
+    private static final String DEFAULT_CARD = "Dashboard";
+    // Likeliest next card, built on the EDT shortly after the first paint; off with -Dsmartstock.ui.prewarm=false
+    private static final String PREWARM_CARD = "Products";
+    private static final int PREWARM_DELAY_MS = 1500;
+    private static final boolean PREWARM = Boolean.parseBoolean(System.getProperty("smartstock.ui.prewarm", "true"));
     
     private final userFrame mainFrame;
     private final String userRole;
@@ -25,6 +39,11 @@ public class MainApplicationPanel extends JPanel {
     private boolean navPanelVisible = true; // Track visibility state
     private JButton toggleNavButton; // Toggle button reference
 
+    // Cards are built on first navigation (or by the pre-warm), not in the constructor
+    private final Map<String, Supplier<JPanel>> cardFactories = new LinkedHashMap<>();
+    private final Set<String> builtCards = new HashSet<>();
+    private boolean firstPaintDone;
+
     public MainApplicationPanel(userFrame mainFrame, String username, String role, 
                                 String storeName, String storeLocation, String storeContact) {
         this.mainFrame = mainFrame;
@@ -40,11 +59,12 @@ public class MainApplicationPanel extends JPanel {
         mainContentPanel = new JPanel(cardLayout);
         mainContentPanel.setBackground(UIConstants.BACKGROUND_COLOR);
         
-        mainContentPanel.add(new dashboardPanel(mainFrame), "Dashboard");
-        mainContentPanel.add(new productsPanel(mainFrame), "Products");
-        mainContentPanel.add(new stockPanel(mainFrame), "Stocks");
-        mainContentPanel.add(new recordsPanel(mainFrame), "Records");
-        mainContentPanel.add(new AboutPanel(mainFrame), "About");
+        cardFactories.put("Dashboard", () -> new dashboardPanel(mainFrame));
+        cardFactories.put("Products", () -> new productsPanel(mainFrame));
+        cardFactories.put("Stocks", () -> new stockPanel(mainFrame));
+        cardFactories.put("Records", () -> new recordsPanel(mainFrame));
+        cardFactories.put("About", () -> new AboutPanel(mainFrame));
+        ensureCard(DEFAULT_CARD); // First card added stays visible; the others start hidden
         
         JScrollPane contentScrollPane = new JScrollPane(mainContentPanel);
         contentScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
@@ -61,7 +81,37 @@ public class MainApplicationPanel extends JPanel {
         
         add(contentWrapper, BorderLayout.CENTER);
         
-        cardLayout.show(mainContentPanel, "Dashboard");
+        cardLayout.show(mainContentPanel, DEFAULT_CARD);
+    }
+
+    // Show a card, building it first if needed
+    private void showCard(String name) {
+        ensureCard(name);
+        cardLayout.show(mainContentPanel, name);
+    }
+
+    private void ensureCard(String name) {
+        if (!builtCards.add(name)) return;
+        long start = System.nanoTime();
+        mainContentPanel.add(cardFactories.get(name).get(), name);
+        mainContentPanel.revalidate();
+        DebugLogger.debug(String.format("Built %s card in %.0f ms", name, (System.nanoTime() - start) / 1e6));
+    }
+
+    // First paint ends the login trace and schedules the pre-warm
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstPaintDone) return;
+        firstPaintDone = true;
+        TimingTrace.finish("login", "first paint");
+        if (PREWARM) {
+            Timer prewarm = new Timer(PREWARM_DELAY_MS, e -> {
+                if (isDisplayable()) ensureCard(PREWARM_CARD); // Still logged in
+            });
+            prewarm.setRepeats(false);
+            prewarm.start();
+        }
     }
     
     /**
@@ -272,7 +322,7 @@ public class MainApplicationPanel extends JPanel {
         button.setFont(UIConstants.FONT_EMOJI_LARGE.deriveFont(Font.BOLD, 14f));
 
         button.addActionListener(e -> {
-            cardLayout.show(mainContentPanel, panelName);
+            showCard(panelName);
             updateButtonSelection(button);
         });
 
@@ -437,6 +487,7 @@ public class MainApplicationPanel extends JPanel {
             "Are you sure you want to logout?", "Confirm Logout",
             JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         if (choice == JOptionPane.YES_OPTION) {
+            ProductCatalogCache.clearAll(); // Next login starts from fresh data
             mainFrame.showLoginPanel();
         }
     }
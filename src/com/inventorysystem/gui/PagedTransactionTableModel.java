@@ -0,0 +1,261 @@
+package com.inventorysystem.gui;
+
+import com.inventorysystem.data.RecordsRepository;
+import com.inventorysystem.data.RecordsRepository.SortKey;
+import com.inventorysystem.model.DateRange;
+import com.inventorysystem.model.TransactionRecord;
+import com.inventorysystem.util.DebugLogger;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Transaction history table, fetched page by page as rows scroll into view
+class PagedTransactionTableModel extends AbstractTableModel {
+
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 25; // ~5000 rows in memory at most
+    private static final long FAILED_PAGE_RETRY_MS = 5000; // Don't re-query a failed page on every repaint
+
+    private static final String[] COLUMNS = {
+        "#", "Date", "Product", "Unit", "Type", "Qty", "Cost/Unit", "Total Cost", "Retail/Unit", "Total Retail"
+    };
+    // Sort key per column; # is not sortable
+    private static final SortKey[] SORT_KEYS = {
+        null, SortKey.DATE, SortKey.PRODUCT, SortKey.UNIT, SortKey.TYPE, SortKey.QUANTITY,
+        SortKey.COST, SortKey.TOTAL_COST, SortKey.RETAIL, SortKey.TOTAL_RETAIL
+    };
+
+    // One background loader shared by all panels; pages queue behind each other
+    private static final ExecutorService PAGE_LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "records-page-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final RecordsRepository recordsRepository;
+    private final int userId;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MMM-yyyy hh:mm a");
+
+    // EDT-only state
+    private final Map<Integer, List<TransactionRecord>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<TransactionRecord>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, TransactionRecord> pageCursors = new HashMap<>(); // Last row of each page seen
+    private final Map<Integer, PageFailure> failedPages = new HashMap<>();
+    private Consumer<SQLException> onError;
+    private boolean pageErrorShown; // One dialog per reload, not one per page
+    private DateRange range;
+    private String search;
+    private SortKey sortKey = SortKey.DATE;
+    private boolean ascending;
+    private int rowCount;
+
+    // Shared with the loader thread
+    private final Set<Integer> pendingPages = ConcurrentHashMap.newKeySet();
+    private volatile long generation;
+
+    private record PageFailure(String message, long failedAt) {}
+
+    PagedTransactionTableModel(RecordsRepository recordsRepository, int userId) {
+        this.recordsRepository = recordsRepository;
+        this.userId = userId;
+    }
+
+    // Drop cached pages and re-count for a new range/search/order (EDT)
+    void reload(DateRange range, String search, SortKey sortKey, boolean ascending, Consumer<SQLException> onError) {
+        long gen = ++generation;
+        this.range = range;
+        this.search = search;
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.onError = onError;
+        pages.clear();
+        pageCursors.clear();
+        failedPages.clear();
+        pageErrorShown = false;
+        pendingPages.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+
+        PAGE_LOADER.submit(() -> {
+            try {
+                int count = recordsRepository.countTransactions(userId, range, search);
+                List<TransactionRecord> firstPage = count > 0
+                    ? fetchPage(range, search, sortKey, ascending, 0, null)
+                    : List.of();
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) return; // Superseded
+                    rowCount = count;
+                    storePage(0, firstPage);
+                    fireTableDataChanged();
+                });
+            } catch (SQLException e) {
+                DebugLogger.error("Error counting transaction history", e);
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) onError.accept(e);
+                });
+            }
+        });
+    }
+
+    DateRange getRange() {
+        return range;
+    }
+
+    String getSearch() {
+        return search;
+    }
+
+    SortKey getSortKey() {
+        return sortKey;
+    }
+
+    boolean isAscending() {
+        return ascending;
+    }
+
+    // Sort key for a table column, or null when it cannot be sorted
+    static SortKey sortKeyFor(int column) {
+        return column >= 0 && column < SORT_KEYS.length ? SORT_KEYS[column] : null;
+    }
+
+    // Loaded record for a row, or null while its page is in flight or failed
+    TransactionRecord getRecord(int row) {
+        int pageIndex = row / PAGE_SIZE;
+        List<TransactionRecord> page = pages.get(pageIndex);
+        if (page == null) {
+            PageFailure failure = failedPages.get(pageIndex);
+            if (failure != null && System.currentTimeMillis() - failure.failedAt() < FAILED_PAGE_RETRY_MS) {
+                return null;
+            }
+            failedPages.remove(pageIndex);
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    // Only dates are formatted here; amounts stay numeric for the currency renderer
+    @Override
+    public Object getValueAt(int row, int column) {
+        TransactionRecord record = getRecord(row);
+        if (record == null) {
+            if (column != 2) return null;
+            PageFailure failure = failedPages.get(row / PAGE_SIZE);
+            return failure != null ? "Failed to load: " + failure.message() : "Loading...";
+        }
+
+        int qty = Math.abs(record.quantity()); // Use absolute value for totals
+        double retailPerUnit = record.retailPrice();
+        switch (column) {
+            case 0: return null; // # column - rendered dynamically
+            case 1: return record.transactionDate() != null ? dateFormat.format(record.transactionDate()) : "-";
+            case 2: return record.productName();
+            case 3: return record.unit();
+            case 4: return record.transactionType();
+            case 5: return record.quantity(); // Show original quantity with sign
+            case 6: return record.unitPrice();
+            case 7: return record.unitPrice() * qty;
+            case 8: return retailPerUnit == 0.0 ? "-" : retailPerUnit;
+            case 9: return retailPerUnit == 0.0 ? "-" : retailPerUnit * qty;
+            default: return null;
+        }
+    }
+
+    private void requestPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) return;
+
+        // Fast scrolling queues many pages; forget the ones far from here
+        pendingPages.removeIf(p -> Math.abs(p - pageIndex) > MAX_CACHED_PAGES / 2);
+
+        long gen = generation;
+        DateRange pageRange = range;
+        String pageSearch = search;
+        SortKey pageSortKey = sortKey;
+        boolean pageAscending = ascending;
+        TransactionRecord cursor = pageIndex == 0 ? null : pageCursors.get(pageIndex - 1);
+
+        PAGE_LOADER.submit(() -> {
+            if (gen != generation || !pendingPages.contains(pageIndex)) return;
+            try {
+                List<TransactionRecord> page = fetchPage(pageRange, pageSearch, pageSortKey, pageAscending, pageIndex, cursor);
+                SwingUtilities.invokeLater(() -> {
+                    pendingPages.remove(pageIndex);
+                    if (gen != generation) return;
+                    storePage(pageIndex, page);
+                    int first = pageIndex * PAGE_SIZE;
+                    int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+                    if (first <= last) fireTableRowsUpdated(first, last);
+                });
+            } catch (SQLException e) {
+                DebugLogger.error("Error loading transaction page " + pageIndex, e);
+                SwingUtilities.invokeLater(() -> {
+                    pendingPages.remove(pageIndex);
+                    if (gen != generation) return;
+                    failedPages.put(pageIndex, new PageFailure(e.getMessage(), System.currentTimeMillis()));
+                    int first = pageIndex * PAGE_SIZE;
+                    int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+                    if (first <= last) fireTableRowsUpdated(first, last);
+                    if (!pageErrorShown) {
+                        pageErrorShown = true;
+                        onError.accept(e);
+                    }
+                });
+            }
+        });
+    }
+
+    // Keyset seek when newest first and the previous page is known. Other orders, and a scrollbar drag
+    // that lands past the last loaded page, fall back to LIMIT/OFFSET, which gets slower the deeper the page.
+    private List<TransactionRecord> fetchPage(DateRange pageRange, String pageSearch, SortKey pageSortKey,
+                                              boolean pageAscending, int pageIndex,
+                                              TransactionRecord cursor) throws SQLException {
+        if (RecordsRepository.isNewestFirst(pageSortKey, pageAscending) && (pageIndex == 0 || cursor != null)) {
+            return recordsRepository.getTransactionPage(userId, pageRange, pageSearch, cursor, PAGE_SIZE);
+        }
+        return recordsRepository.getTransactionPageAt(userId, pageRange, pageSearch, pageSortKey, pageAscending,
+            pageIndex * PAGE_SIZE, PAGE_SIZE);
+    }
+
+    private void storePage(int pageIndex, List<TransactionRecord> page) {
+        pages.put(pageIndex, page);
+        if (!page.isEmpty()) {
+            pageCursors.put(pageIndex, page.get(page.size() - 1));
+        }
+    }
+}
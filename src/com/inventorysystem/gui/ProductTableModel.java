@@ -0,0 +1,245 @@
+package com.inventorysystem.gui;
+
+import com.inventorysystem.model.Product;
+import com.inventorysystem.util.TimingTrace;
+
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+// Products table backed by one array per column; values stay numeric, renderers format them
+class ProductTableModel extends AbstractTableModel {
+
+    static final int COL_ID = 1;
+    static final int COL_NAME = 2;
+    static final int COL_CATEGORY = 3;
+    static final int COL_UNIT = 4;
+    static final int COL_COST = 5;
+    static final int COL_TOTAL_COST = 6;
+    static final int COL_MARKUP = 7;
+    static final int COL_RETAIL = 8;
+    static final int COL_TOTAL_RETAIL = 9;
+    static final int COL_STOCK = 10;
+
+    private static final String[] COLUMNS = {
+        "#", "ID", "Product Name", "Category", "Unit", "Cost Price", "Total Cost", "Markup %", "Retail Price", "Total Retail", "Stock"
+    };
+
+    private int rowCount;
+    private int[] ids = new int[0];
+    private String[] names = new String[0];
+    private String[] categories = new String[0];
+    private String[] units = new String[0];
+    private double[] costPrices = new double[0];
+    private double[] totalCosts = new double[0];
+    private double[] markups = new double[0];
+    private double[] retailPrices = new double[0];
+    private int[] stocks = new int[0];
+
+    // Replace every row with one table event (EDT)
+    void setProducts(List<Product> products) {
+        int n = products.size();
+        int[] newIds = new int[n];
+        String[] newNames = new String[n];
+        String[] newCategories = new String[n];
+        String[] newUnits = new String[n];
+        double[] newCosts = new double[n];
+        double[] newTotalCosts = new double[n];
+        double[] newMarkups = new double[n];
+        double[] newRetail = new double[n];
+        int[] newStocks = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            Product product = products.get(i);
+            newIds[i] = product.id();
+            newNames[i] = product.name();
+            newCategories[i] = product.categoryName();
+            newUnits[i] = product.unit();
+            newCosts[i] = product.costPrice();
+            newTotalCosts[i] = product.totalCost();
+            newMarkups[i] = product.effectiveMarkupPercent();
+            newRetail[i] = product.displayRetailPrice();
+            newStocks[i] = product.stock();
+        }
+
+        ids = newIds;
+        names = newNames;
+        categories = newCategories;
+        units = newUnits;
+        costPrices = newCosts;
+        totalCosts = newTotalCosts;
+        markups = newMarkups;
+        retailPrices = newRetail;
+        stocks = newStocks;
+        rowCount = n;
+        fireTableDataChanged();
+    }
+
+    // Typed accessors by model row
+    int getProductId(int row) {
+        return ids[row];
+    }
+
+    String getProductName(int row) {
+        return names[row];
+    }
+
+    String getCategoryName(int row) {
+        return categories[row];
+    }
+
+    double getCostPrice(int row) {
+        return costPrices[row];
+    }
+
+    double getRetailPrice(int row) {
+        return retailPrices[row];
+    }
+
+    int getStock(int row) {
+        return stocks[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    // Real types so the sorter compares numbers, not formatted text
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case COL_ID:
+            case COL_STOCK:
+                return Integer.class;
+            case COL_COST:
+            case COL_TOTAL_COST:
+            case COL_MARKUP:
+            case COL_RETAIL:
+            case COL_TOTAL_RETAIL:
+                return Double.class;
+            case COL_NAME:
+            case COL_CATEGORY:
+            case COL_UNIT:
+                return String.class;
+            default:
+                return Object.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case COL_ID: return ids[row];
+            case COL_NAME: return names[row];
+            case COL_CATEGORY: return categories[row];
+            case COL_UNIT: return units[row];
+            case COL_COST: return costPrices[row];
+            case COL_TOTAL_COST: return totalCosts[row];
+            case COL_MARKUP: return markups[row];
+            case COL_RETAIL: return retailPrices[row];
+            case COL_TOTAL_RETAIL: return retailPrices[row] * stocks[row];
+            case COL_STOCK: return stocks[row];
+            default: return null; // # column - rendered dynamically
+        }
+    }
+
+    private static long benchmarkSink; // Keeps the scans from being optimized away
+
+    // Benchmark: memory and load/scan time against the old pre-formatted DefaultTableModel rows
+    public static void main(String[] args) {
+        int rows = 100_000;
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            double cost = 10 + (i % 997) * 0.37;
+            int stock = i % 250;
+            double retail = Math.round(cost * 1.3 * 100.0) / 100.0;
+            products.add(new Product(i, "Product " + i, "Category " + (i % 40), "piece",
+                cost, retail, stock, cost * stock, null, 30.0, retail));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            boolean report = round == 2;
+
+            long before = TimingTrace.usedHeap();
+            long start = System.nanoTime();
+            DefaultTableModel legacy = buildLegacy(products);
+            long legacyBuild = System.nanoTime() - start;
+            long legacyBytes = TimingTrace.usedHeap() - before;
+            start = System.nanoTime();
+            benchmarkSink += scan(legacy);
+            long legacyScan = System.nanoTime() - start;
+            legacy = null;
+
+            before = TimingTrace.usedHeap();
+            start = System.nanoTime();
+            ProductTableModel columnar = new ProductTableModel();
+            columnar.setProducts(products);
+            long columnarBuild = System.nanoTime() - start;
+            long columnarBytes = TimingTrace.usedHeap() - before;
+            start = System.nanoTime();
+            benchmarkSink += scan(columnar);
+            long columnarScan = System.nanoTime() - start;
+
+            if (report) {
+                System.out.printf("%,d rows%n", rows);
+                System.out.printf("  DefaultTableModel (formatted): build %7.1f ms, scan %6.1f ms, ~%,d KB%n",
+                    legacyBuild / 1e6, legacyScan / 1e6, legacyBytes / 1024);
+                System.out.printf("  ProductTableModel (columnar):  build %7.1f ms, scan %6.1f ms, ~%,d KB%n",
+                    columnarBuild / 1e6, columnarScan / 1e6, columnarBytes / 1024);
+            }
+            columnar = null;
+        }
+    }
+
+    // Same shape loadProductsFromDB used to push into a DefaultTableModel
+    private static DefaultTableModel buildLegacy(List<Product> products) {
+        Vector<Vector<Object>> data = new Vector<>(products.size());
+        for (Product product : products) {
+            Vector<Object> row = new Vector<>(11);
+            row.add(null);
+            row.add(product.id());
+            row.add(product.name());
+            row.add(product.categoryName());
+            row.add(product.unit());
+            row.add(String.format("₱%,.2f", product.costPrice()));
+            row.add(String.format("₱%,.2f", product.totalCost()));
+            row.add(String.format("%.1f%%", product.effectiveMarkupPercent()));
+            row.add(String.format("₱%,.2f", product.displayRetailPrice()));
+            row.add(String.format("₱%,.2f", product.displayRetailPrice() * product.stock()));
+            row.add(product.stock());
+            data.add(row);
+        }
+        Vector<String> columns = new Vector<>(List.of(COLUMNS));
+        return new DefaultTableModel(data, columns);
+    }
+
+    // Read every cell, as a sort or export would
+    private static long scan(javax.swing.table.TableModel model) {
+        long hash = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            for (int col = 1; col < model.getColumnCount(); col++) {
+                Object value = model.getValueAt(row, col);
+                if (value != null) hash += value.hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -1,10 +1,6 @@
 package com.inventorysystem.gui;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-import org.json.JSONObject;
 import org.json.JSONException;
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -12,9 +8,6 @@ import javax.swing.border.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.font.TextAttribute;
-import java.awt.geom.Rectangle2D;
-import java.text.AttributedString;
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
@@ -528,54 +521,15 @@ public class QRCodePanel extends JPanel {
 
     // Create QR code image from form data
     private void generateAndDisplayQRCode() {
-        String qrText;
-        Map<String, String> detailsMap = new HashMap<>();
-
         try {
-            qrText = generateProductJsonForQR(detailsMap);
-            if (qrText == null) {
+            QRLabelSheet.Label label = labelFromForm();
+            if (label == null) {
                 resetQrDisplay();
                 return;
             }
 
-            // Generate QR code image (280x280 pixels)
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            final int qrCodeSize = 280;
-            BitMatrix bitMatrix = qrCodeWriter.encode(qrText, BarcodeFormat.QR_CODE, qrCodeSize, qrCodeSize);
-            BufferedImage qrImage = toBufferedImage(bitMatrix);
-
-            // Add product details below QR code
-            int textHeight = 85; // Increased for unit line
-            int combinedHeight = qrCodeSize + textHeight;
-            BufferedImage combinedImage = new BufferedImage(qrCodeSize, combinedHeight, BufferedImage.TYPE_INT_RGB);
-            Graphics2D g2d = combinedImage.createGraphics();
-
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, qrCodeSize, combinedHeight);
-
-            g2d.drawImage(qrImage, 0, 0, null);
-
-            // Draw product info text
-            g2d.setColor(Color.BLACK);
-            g2d.setFont(new Font("Monospaced", Font.PLAIN, 12));
-            FontMetrics fm = g2d.getFontMetrics();
-            int lineHeight = fm.getHeight();
-            int startY = qrCodeSize + 20;
-            int currentY = startY;
-            int paddingX = 10;
-
-            drawDetailLine(g2d, "Name:", detailsMap.getOrDefault("Name", "N/A"), paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Category:", detailsMap.getOrDefault("Category", "N/A"), paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Unit:", detailsMap.getOrDefault("Unit", "-"), paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Cost:", detailsMap.getOrDefault("Cost Price", "N/A"), paddingX, currentY);
-            currentY += lineHeight;
-
-            g2d.dispose();
-
-            currentQRCodeImage = combinedImage;
+            // Same label layout and payload as the printed sheets
+            currentQRCodeImage = QRLabelSheet.render(label);
 
             qrCodeDisplayLabel.setIcon(new ImageIcon(currentQRCodeImage));
             qrCodeDisplayLabel.setText(null);
@@ -598,21 +552,8 @@ public class QRCodePanel extends JPanel {
         }
     }
 
-    // Draw one line of product info (label + value)
-    private void drawDetailLine(Graphics2D g2d, String label, String value, int x, int y) {
-        AttributedString asLabel = new AttributedString(String.format("%-10s", label));
-        asLabel.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, 0, label.length());
-        g2d.drawString(asLabel.getIterator(), x, y);
-
-        FontMetrics fm = g2d.getFontMetrics();
-        Rectangle2D labelBounds = fm.getStringBounds(String.format("%-10s", label), g2d);
-        g2d.drawString(value, x + (int)labelBounds.getWidth() + 5, y);
-    }
-
-    // Convert form fields to JSON string for QR code
-    private String generateProductJsonForQR(Map<String, String> detailsMap) throws NumberFormatException, JSONException {
-        detailsMap.clear();
-
+    // Validated form values as a label, or null after showing what is missing
+    private QRLabelSheet.Label labelFromForm() throws NumberFormatException {
         String name = productNameField.getText().trim();
         String selectedCategory = (String) categoryComboBox.getSelectedItem();
         String costPriceStr = costPriceField.getText().trim();
@@ -643,26 +584,9 @@ public class QRCodePanel extends JPanel {
             showError("Please select a unit of measurement.");
             return null;
         }
-        
-        // Save for display below QR code (ID will be auto-assigned when scanned)
-        detailsMap.put("Name", name);
-        detailsMap.put("Category", selectedCategory);
-        detailsMap.put("Unit", unit);
-        detailsMap.put("Cost Price", String.format("₱%,.2f", costPrice));
-
-        // Build JSON for QR code (without product ID - will be auto-assigned on scan)
-        JSONObject dataObject = new JSONObject();
-        dataObject.put("name", name);
-        dataObject.put("category_id", categoryId);
-        dataObject.put("unit", unit);
-        dataObject.put("cost_price", costPrice);
-        dataObject.put("stock", stock);
-
-        JSONObject mainObject = new JSONObject();
-        mainObject.put("action", "create_product");
-        mainObject.put("data", dataObject);
-
-        return mainObject.toString();
+
+        // No product ID - auto-assigned when scanned
+        return new QRLabelSheet.Label(0, name, selectedCategory, categoryId, unit, costPrice, stock);
     }
 
     // Save QR code image to file
@@ -728,19 +652,6 @@ public class QRCodePanel extends JPanel {
         }
     }
 
-    // Convert QR matrix to image
-    private BufferedImage toBufferedImage(BitMatrix matrix) {
-        int width = matrix.getWidth();
-        int height = matrix.getHeight();
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                image.setRGB(x, y, matrix.get(x, y) ? Color.BLACK.getRGB() : Color.WHITE.getRGB());
-            }
-        }
-        return image;
-    }
-
     // Clear QR display area
     private void resetQrDisplay() {
         currentQRCodeImage = null;
@@ -0,0 +1,341 @@
+package com.inventorysystem.gui;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.inventorysystem.data.ProductRepository;
+import com.inventorysystem.model.BulkResult;
+import com.inventorysystem.model.QRStockIn;
+import com.inventorysystem.util.DebugLogger;
+import com.inventorysystem.util.ProgressTask;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Stock-in from a folder (or several selected files) of label photos: images are decoded in parallel with
+// one reader per thread, identical labels are merged, and everything is saved in one transaction.
+final class QRImageImport {
+
+    static final String[] IMAGE_EXTENSIONS = {"png", "jpg", "jpeg", "bmp", "gif"};
+
+    private static final int DECODER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int MAX_LISTED_PROBLEMS = 15;
+
+    // QR only; photos that fail the quick pass get a second, thorough one
+    private static final ThreadLocal<MultiFormatReader> QUICK_READER = ThreadLocal.withInitial(() -> reader(false));
+    private static final ThreadLocal<MultiFormatReader> THOROUGH_READER = ThreadLocal.withInitial(() -> reader(true));
+
+    enum Outcome { DECODED, NO_QR, UNREADABLE }
+
+    record Decoded(File file, Outcome outcome, String payload) {}
+
+    // Distinct labels ready to save, plus the files that could not be used
+    record Batch(List<QRStockIn> items, int labels, Map<File, String> problems) {}
+
+    // What the background run produced; saved is null when nothing was written
+    private record Imported(Batch batch, BulkResult saved) {}
+
+    private QRImageImport() {}
+
+    private static MultiFormatReader reader(boolean tryHarder) {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, List.of(BarcodeFormat.QR_CODE));
+        if (tryHarder) hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        MultiFormatReader reader = new MultiFormatReader();
+        reader.setHints(hints);
+        return reader;
+    }
+
+    // Image files in the selection; folders are searched recursively
+    static List<File> collectImages(File[] selection) throws IOException {
+        List<File> images = new ArrayList<>();
+        for (File selected : selection) {
+            if (selected.isDirectory()) {
+                try (Stream<Path> paths = Files.walk(selected.toPath())) {
+                    paths.filter(Files::isRegularFile).map(Path::toFile).filter(QRImageImport::isImage).sorted().forEach(images::add);
+                }
+            } else if (isImage(selected)) {
+                images.add(selected);
+            }
+        }
+        return images;
+    }
+
+    private static boolean isImage(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        for (String extension : IMAGE_EXTENSIONS) {
+            if (name.endsWith("." + extension)) return true;
+        }
+        return false;
+    }
+
+    // Read and decode one file with this thread's readers
+    static Decoded decode(File file) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(file);
+        } catch (IOException e) {
+            return new Decoded(file, Outcome.UNREADABLE, null);
+        }
+        if (image == null) return new Decoded(file, Outcome.UNREADABLE, null);
+
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        for (ThreadLocal<MultiFormatReader> pooled : List.of(QUICK_READER, THOROUGH_READER)) {
+            MultiFormatReader reader = pooled.get();
+            try {
+                return new Decoded(file, Outcome.DECODED, reader.decodeWithState(bitmap).getText());
+            } catch (ReaderException e) {
+                // Try the next pass
+            } finally {
+                reader.reset();
+            }
+        }
+        return new Decoded(file, Outcome.NO_QR, null);
+    }
+
+    // Decode every file on a fixed pool; results in file order. Unstarted files are skipped on cancel.
+    static List<Decoded> decodeAll(List<File> files, AtomicInteger done, AtomicBoolean cancelled) throws InterruptedException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(DECODER_THREADS, r -> {
+            Thread thread = new Thread(r, "qr-import-decoder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Decoded>> futures = new ArrayList<>(files.size());
+            for (File file : files) {
+                futures.add(pool.submit(() -> {
+                    if (cancelled.get()) return null;
+                    Decoded decoded = decode(file);
+                    done.incrementAndGet();
+                    return decoded;
+                }));
+            }
+            List<Decoded> results = new ArrayList<>(files.size());
+            for (Future<Decoded> future : futures) {
+                try {
+                    Decoded decoded = future.get();
+                    if (decoded != null) results.add(decoded);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("QR decode failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Merge identical payloads (their stock adds up, as scanning each photo would) and parse each once
+    static Batch aggregate(List<Decoded> decoded) {
+        Map<String, List<File>> byPayload = new LinkedHashMap<>();
+        Map<File, String> problems = new LinkedHashMap<>();
+        for (Decoded result : decoded) {
+            switch (result.outcome()) {
+                case DECODED -> byPayload.computeIfAbsent(result.payload(), k -> new ArrayList<>()).add(result.file());
+                case NO_QR -> problems.put(result.file(), "No QR code found");
+                case UNREADABLE -> problems.put(result.file(), "Could not read image");
+            }
+        }
+
+        List<QRStockIn> items = new ArrayList<>(byPayload.size());
+        int labels = 0;
+        for (Map.Entry<String, List<File>> entry : byPayload.entrySet()) {
+            List<File> files = entry.getValue();
+            String problem;
+            try {
+                JSONObject main = new JSONObject(entry.getKey());
+                if (!"create_product".equals(main.optString("action"))) {
+                    problem = "Not a product label";
+                } else {
+                    JSONObject data = main.getJSONObject("data");
+                    int stock = data.getInt("stock");
+                    double costPrice = data.getDouble("cost_price");
+                    if (stock < 0 || costPrice < 0) {
+                        problem = "Negative stock or cost price";
+                    } else {
+                        items.add(new QRStockIn(data.optInt("id", 0), data.getString("name"), data.getInt("category_id"),
+                            data.getString("unit"), costPrice, stock * files.size()));
+                        labels += files.size();
+                        continue;
+                    }
+                }
+            } catch (JSONException e) {
+                problem = "Unrecognized QR content";
+            }
+            for (File file : files) problems.put(file, problem);
+        }
+        return new Batch(items, labels, problems);
+    }
+
+    // Decode, merge and save on a background thread with progress, then show one summary
+    static void run(File[] selection, Component parent, ProductRepository repository, Runnable onSaved) {
+        Window parentWindow = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
+        List<File> files;
+        try {
+            files = collectImages(selection);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(parentWindow, "Error reading folder: " + e.getMessage(),
+                "QR Image Import", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (files.isEmpty()) {
+            JOptionPane.showMessageDialog(parentWindow, "No image files (PNG, JPG, JPEG, BMP, GIF) found in the selection.",
+                "QR Image Import", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        AtomicInteger decodedCount = new AtomicInteger();
+        AtomicInteger savedCount = new AtomicInteger();
+        AtomicInteger saveTotal = new AtomicInteger(-1); // Set once decoding is done
+        ProgressTask.<Imported>start(parentWindow, "Importing QR Images", "qr-image-import", files.size(),
+            "Decoding 0 of " + files.size() + " images...",
+            view -> {
+                int total = saveTotal.get();
+                if (total < 0) {
+                    view.update(decodedCount.get(), "Decoding " + decodedCount.get() + " of " + files.size() + " images...");
+                } else {
+                    view.disableCancel(); // Saving is one transaction; too late to cancel
+                    view.setMaximum(Math.max(1, total));
+                    view.update(savedCount.get(), "Saving " + total + " products...");
+                }
+            },
+            cancelled -> {
+                long start = System.nanoTime();
+                List<Decoded> decoded = decodeAll(files, decodedCount, cancelled);
+                long decodeNanos = System.nanoTime() - start;
+                Batch batch = aggregate(decoded);
+                BulkResult saved = null;
+                if (!cancelled.get() && !batch.items().isEmpty()) {
+                    saveTotal.set(batch.items().size());
+                    saved = repository.bulkStockInFromQR(batch.items(), savedCount::set);
+                }
+                DebugLogger.info(String.format("QR image import: %d files, %d labels, %d products, decode %.0f ms, total %.0f ms",
+                    files.size(), batch.labels(), batch.items().size(), decodeNanos / 1e6, (System.nanoTime() - start) / 1e6));
+                return new Imported(batch, saved);
+            },
+            (imported, error, cancelled) -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(parentWindow, "Import failed, no stock was changed.\n\n" + error.getMessage(),
+                        "QR Image Import", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (imported.saved() != null && imported.saved().successCount() > 0) onSaved.run();
+                showSummary(parentWindow, files.size(), imported.batch(), imported.saved(), cancelled);
+            });
+    }
+
+    private static void showSummary(Window parent, int fileCount, Batch batch, BulkResult saved, boolean cancelled) {
+        StringBuilder sb = new StringBuilder();
+        if (cancelled && saved == null) sb.append("Import cancelled, no stock was changed.\n\n");
+        sb.append(String.format("Images selected:        %d%n", fileCount));
+        sb.append(String.format("Product labels read:    %d%n", batch.labels()));
+        sb.append(String.format("Duplicate labels merged: %d%n", batch.labels() - batch.items().size()));
+        sb.append(String.format("Images not used:        %d%n", batch.problems().size()));
+        if (saved != null) {
+            sb.append(String.format("Products stocked in:    %d%n", saved.successCount()));
+            int units = batch.items().stream().mapToInt(QRStockIn::quantity).sum();
+            sb.append(String.format("Units added:            %d%n", units));
+        }
+
+        if (!batch.problems().isEmpty()) {
+            sb.append("\nImages not used:\n");
+            batch.problems().entrySet().stream().limit(MAX_LISTED_PROBLEMS)
+                .forEach(p -> sb.append("  ").append(p.getKey().getName()).append(" - ").append(p.getValue()).append('\n'));
+            if (batch.problems().size() > MAX_LISTED_PROBLEMS) {
+                sb.append("  ... and ").append(batch.problems().size() - MAX_LISTED_PROBLEMS).append(" more\n");
+            }
+        }
+        if (saved != null && !saved.failures().isEmpty()) {
+            sb.append("\nProducts not saved:\n");
+            saved.failures().entrySet().stream().limit(MAX_LISTED_PROBLEMS)
+                .forEach(f -> sb.append("  ID ").append(f.getKey()).append(" - ").append(f.getValue()).append('\n'));
+        }
+
+        JTextArea report = new JTextArea(sb.toString());
+        report.setEditable(false);
+        report.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane scroll = new JScrollPane(report);
+        scroll.setPreferredSize(new Dimension(460, Math.min(420, 60 + report.getLineCount() * 17)));
+        boolean clean = batch.problems().isEmpty() && (saved == null || saved.failures().isEmpty());
+        JOptionPane.showMessageDialog(parent, scroll, "QR Image Import Summary",
+            clean ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
+    // Benchmark: 240 label photos (1 in 4 a repeat, some blank), old path (serial, new reader, all formats) vs decodeAll
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("qr_import_bench");
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 240; i++) {
+            BufferedImage photo = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = photo.createGraphics();
+            g.setColor(new Color(200, 196, 188));
+            g.fillRect(0, 0, photo.getWidth(), photo.getHeight());
+            if (i % 40 != 39) {
+                int product = i % 4 == 3 ? i - 1 : i;
+                QRLabelSheet.Label label = new QRLabelSheet.Label(product + 1, "Product " + (product + 1), "Category", 1, "piece", 12.5);
+                g.drawImage(QRLabelSheet.render(label), 120 + (i % 7) * 40, 80 + (i % 5) * 30, null);
+            }
+            g.dispose();
+            File file = dir.resolve(String.format("label_%03d.png", i)).toFile();
+            ImageIO.write(photo, "png", file);
+            files.add(file);
+        }
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+
+            long start = System.nanoTime();
+            int legacyDecoded = 0;
+            for (File file : files) {
+                BufferedImage image = ImageIO.read(file);
+                try {
+                    new MultiFormatReader().decode(new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image))));
+                    legacyDecoded++;
+                } catch (NotFoundException e) {
+                    // Blank photo
+                }
+            }
+            long legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Batch batch = aggregate(decodeAll(files, new AtomicInteger(), new AtomicBoolean()));
+            long pooled = System.nanoTime() - start;
+
+            if (report) {
+                System.out.printf("%d images, serial new reader per image: %,.0f ms (%d decoded, %d upserts)%n",
+                    files.size(), legacy / 1e6, legacyDecoded, legacyDecoded);
+                System.out.printf("%d images, %d pooled decoders + merge:  %,.0f ms (%d decoded, %d upserts in 1 transaction, %d unused)%n",
+                    files.size(), DECODER_THREADS, pooled / 1e6, batch.labels(), batch.items().size(), batch.problems().size());
+            }
+        }
+        for (File file : files) file.delete();
+        Files.delete(dir);
+    }
+}
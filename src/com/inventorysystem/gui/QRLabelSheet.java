@@ -0,0 +1,632 @@
+package com.inventorysystem.gui;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.inventorysystem.util.DebugLogger;
+import com.inventorysystem.util.ProgressTask;
+import com.inventorysystem.util.TimingTrace;
+import org.json.JSONObject;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import javax.swing.filechooser.FileFilter;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.awt.font.TextAttribute;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Product QR labels, one at a time or as a batch: codes are encoded in parallel one page at a time
+// and written straight to a PDF, numbered PNG sheets or a ZIP of single labels.
+final class QRLabelSheet {
+
+    static final int QR_SIZE = 280;
+    static final int LABEL_HEIGHT = QR_SIZE + 100;
+
+    // A4 at 150 dpi, 4 x 4 labels per page
+    private static final int PAGE_WIDTH = 1240;
+    private static final int PAGE_HEIGHT = 1754;
+    private static final int COLUMNS = 4;
+    private static final int ROWS = 4;
+    private static final int LABELS_PER_PAGE = COLUMNS * ROWS;
+    private static final int GAP_X = (PAGE_WIDTH - COLUMNS * QR_SIZE) / (COLUMNS + 1);
+    private static final int GAP_Y = (PAGE_HEIGHT - ROWS * LABEL_HEIGHT) / (ROWS + 1);
+
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    // What goes on one label; productId 0 leaves the ID out so the scan assigns one
+    record Label(int productId, String name, String categoryName, int categoryId, String unit, double costPrice, int stock) {
+        // Sheet labels stock in one unit per scan, so scanning every printed label doesn't double the quantity
+        Label(int productId, String name, String categoryName, int categoryId, String unit, double costPrice) {
+            this(productId, name, categoryName, categoryId, unit, costPrice, 1);
+        }
+    }
+
+    enum Format {
+        PDF("PDF label sheet (*.pdf)", "pdf"),
+        PNG("PNG label sheets, one file per page (*.png)", "png"),
+        ZIP("ZIP of single labels (*.zip)", "zip");
+
+        final String description;
+        final String extension;
+
+        Format(String description, String extension) {
+            this.description = description;
+            this.extension = extension;
+        }
+    }
+
+    private QRLabelSheet() {}
+
+    // Same payload the scanner's create_product handler reads
+    static String payload(Label label) {
+        JSONObject productData = new JSONObject();
+        if (label.productId() > 0) productData.put("id", label.productId());
+        productData.put("name", label.name());
+        productData.put("category_id", label.categoryId());
+        productData.put("unit", label.unit());
+        productData.put("cost_price", label.costPrice());
+        productData.put("stock", label.stock());
+
+        JSONObject qrData = new JSONObject();
+        qrData.put("action", "create_product");
+        qrData.put("data", productData);
+        return qrData.toString();
+    }
+
+    // QR code plus the product details underneath
+    static BufferedImage render(Label label) throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(payload(label), BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE);
+
+        BufferedImage image = new BufferedImage(QR_SIZE, LABEL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, QR_SIZE, LABEL_HEIGHT);
+        g2d.drawImage(toImage(bitMatrix), 0, 0, null);
+
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(TEXT_FONT);
+        int lineHeight = g2d.getFontMetrics().getHeight();
+        int currentY = QR_SIZE + 20;
+        int paddingX = 10;
+        drawDetailLine(g2d, "Name:", label.name(), paddingX, currentY);
+        currentY += lineHeight;
+        drawDetailLine(g2d, "Category:", label.categoryName(), paddingX, currentY);
+        currentY += lineHeight;
+        drawDetailLine(g2d, "Unit:", label.unit(), paddingX, currentY);
+        currentY += lineHeight;
+        drawDetailLine(g2d, "Cost:", String.format("₱%,.2f", label.costPrice()), paddingX, currentY);
+        g2d.dispose();
+        return image;
+    }
+
+    // One line of product info with a bold label
+    private static void drawDetailLine(Graphics2D g2d, String label, String value, int x, int y) {
+        String padded = String.format("%-10s", label);
+        AttributedString asLabel = new AttributedString(padded);
+        asLabel.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, 0, label.length());
+        g2d.drawString(asLabel.getIterator(), x, y);
+
+        Rectangle2D labelBounds = g2d.getFontMetrics().getStringBounds(padded, g2d);
+        g2d.drawString(value == null ? "-" : value, x + (int) labelBounds.getWidth() + 5, y);
+    }
+
+    // Rasterize row by row into the int pixel buffer; rows repeat once per module, so repeats are copied
+    static BufferedImage toImage(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        BitArray row = new BitArray(width);
+        BitArray previous = null;
+        for (int y = 0; y < height; y++) {
+            row = matrix.getRow(y, row);
+            int offset = y * width;
+            if (previous != null && row.equals(previous)) {
+                System.arraycopy(pixels, offset - width, pixels, offset, width);
+                continue;
+            }
+            for (int x = 0; x < width; x++) {
+                pixels[offset + x] = row.get(x) ? BLACK : WHITE;
+            }
+            previous = row.clone();
+        }
+        return image;
+    }
+
+    // --- Batch export ---
+
+    // Ask for a file and write the labels on a background thread, with progress and cancel
+    static void export(List<Label> labels, Component parent) {
+        Window parentWindow = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
+        if (labels.isEmpty()) {
+            JOptionPane.showMessageDialog(parentWindow, "No products to label!", "QR Labels", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save QR Labels As");
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        for (Format format : Format.values()) {
+            fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(format.description, format.extension));
+        }
+        fileChooser.setFileFilter(fileChooser.getChoosableFileFilters()[0]);
+        fileChooser.setSelectedFile(new File("qr_labels_" + labels.size() + ".pdf"));
+        if (fileChooser.showSaveDialog(parentWindow) != JFileChooser.APPROVE_OPTION) return;
+
+        Format format = formatOf(fileChooser.getSelectedFile(), fileChooser.getFileFilter());
+        File chosen = fileChooser.getSelectedFile();
+        File target = chosen.getName().toLowerCase().endsWith("." + format.extension)
+            ? chosen : new File(chosen.getParentFile(), chosen.getName() + "." + format.extension);
+
+        AtomicInteger labelsWritten = new AtomicInteger();
+        ProgressTask.<List<File>>start(parentWindow, "Generating QR Labels", "qr-label-export", labels.size(),
+            "Generating 0 of " + labels.size() + " labels...",
+            view -> {
+                int written = labelsWritten.get();
+                view.update(written, "Generating " + written + " of " + labels.size() + " labels...");
+            },
+            cancelled -> {
+                long start = System.nanoTime();
+                List<File> files = write(labels, target, format, labelsWritten, cancelled);
+                DebugLogger.info(String.format("QR labels: %d written to %s in %.0f ms",
+                    labelsWritten.get(), target.getName(), (System.nanoTime() - start) / 1e6));
+                return files;
+            },
+            (written, error, cancelled) -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(parentWindow, "Error generating labels: " + error.getMessage(),
+                        "QR Labels", JOptionPane.ERROR_MESSAGE);
+                } else if (cancelled) {
+                    JOptionPane.showMessageDialog(parentWindow, "Label generation cancelled.",
+                        "QR Labels", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parentWindow,
+                        labels.size() + " labels saved.\n\nFile: " + written.get(0).getName()
+                            + (written.size() > 1 ? " (+" + (written.size() - 1) + " more pages)" : "")
+                            + "\nLocation: " + target.getParent(),
+                        "QR Labels", JOptionPane.INFORMATION_MESSAGE);
+                }
+            });
+    }
+
+    private static Format formatOf(File file, FileFilter filter) {
+        String name = file.getName().toLowerCase();
+        for (Format format : Format.values()) {
+            if (name.endsWith("." + format.extension)) return format;
+        }
+        for (Format format : Format.values()) {
+            if (format.description.equals(filter.getDescription())) return format;
+        }
+        return Format.PDF;
+    }
+
+    // Encode page n+1 on the pool while page n is written; at most two pages of labels in memory.
+    // Returns the files written; nothing is left behind on failure or cancel.
+    static List<File> write(List<Label> labels, File target, Format format,
+                            AtomicInteger labelsWritten, AtomicBoolean cancelled) throws IOException {
+        LabelSink sink = switch (format) {
+            case PDF -> new PdfSink(target);
+            case PNG -> new PngSink(target);
+            case ZIP -> new ZipSink(target, labels);
+        };
+        boolean complete = false;
+        try {
+            CompletableFuture<BufferedImage[]> next = renderPage(labels, 0);
+            for (int first = 0; first < labels.size(); first += LABELS_PER_PAGE) {
+                BufferedImage[] page = join(next);
+                int following = first + LABELS_PER_PAGE;
+                next = following < labels.size() ? renderPage(labels, following) : null;
+                if (cancelled.get()) break;
+                sink.add(first, page);
+                labelsWritten.addAndGet(page.length);
+            }
+            if (!cancelled.get()) {
+                sink.finish();
+                complete = true;
+            }
+        } finally {
+            sink.close();
+            if (!complete) {
+                sink.files().forEach(File::delete);
+            }
+        }
+        return sink.files();
+    }
+
+    private static CompletableFuture<BufferedImage[]> renderPage(List<Label> labels, int first) {
+        int count = Math.min(LABELS_PER_PAGE, labels.size() - first);
+        return CompletableFuture.supplyAsync(() -> {
+            BufferedImage[] images = new BufferedImage[count];
+            IntStream.range(0, count).parallel().forEach(i -> {
+                try {
+                    images[i] = render(labels.get(first + i));
+                } catch (WriterException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            return images;
+        }, POOL);
+    }
+
+    private static BufferedImage[] join(CompletableFuture<BufferedImage[]> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw new IOException("Could not encode QR label: " + (cause != null ? cause.getMessage() : e.getMessage()), cause);
+        }
+    }
+
+    // Labels tiled onto an A4 page with thin cut lines
+    private static BufferedImage tile(BufferedImage[] labels) {
+        BufferedImage page = new BufferedImage(PAGE_WIDTH, PAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = page.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, PAGE_WIDTH, PAGE_HEIGHT);
+        g.setColor(Color.LIGHT_GRAY);
+        for (int i = 0; i < labels.length; i++) {
+            int x = GAP_X + (i % COLUMNS) * (QR_SIZE + GAP_X);
+            int y = GAP_Y + (i / COLUMNS) * (LABEL_HEIGHT + GAP_Y);
+            g.drawImage(labels[i], x, y, null);
+            g.drawRect(x - 1, y - 1, QR_SIZE + 1, LABEL_HEIGHT + 1);
+        }
+        g.dispose();
+        return page;
+    }
+
+    private interface LabelSink {
+        void add(int firstIndex, BufferedImage[] labels) throws IOException;
+        void finish() throws IOException;
+        void close() throws IOException;
+        List<File> files();
+    }
+
+    // Numbered PNG sheets: labels_p001.png, labels_p002.png, ...
+    private static final class PngSink implements LabelSink {
+        private final File directory;
+        private final String baseName;
+        private final List<File> files = new ArrayList<>();
+
+        PngSink(File target) {
+            directory = target.getAbsoluteFile().getParentFile();
+            String name = target.getName();
+            baseName = name.substring(0, name.length() - ".png".length());
+        }
+
+        public void add(int firstIndex, BufferedImage[] labels) throws IOException {
+            File file = new File(directory, String.format("%s_p%03d.png", baseName, files.size() + 1));
+            files.add(file);
+            ImageIO.write(tile(labels), "PNG", file);
+        }
+
+        public void finish() {}
+
+        public void close() {}
+
+        public List<File> files() {
+            return files;
+        }
+    }
+
+    // One PNG per label, named like the single-label save
+    private static final class ZipSink implements LabelSink {
+        private final File target;
+        private final List<Label> labels;
+        private final ZipOutputStream zip;
+
+        ZipSink(File target, List<Label> labels) throws IOException {
+            this.target = target;
+            this.labels = labels;
+            this.zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(target), 1 << 16));
+        }
+
+        public void add(int firstIndex, BufferedImage[] images) throws IOException {
+            for (int i = 0; i < images.length; i++) {
+                Label label = labels.get(firstIndex + i);
+                String name = label.name() == null ? "" : label.name().trim().replaceAll("[^a-zA-Z0-9.-]", "_");
+                zip.putNextEntry(new ZipEntry((name.isEmpty() ? "PRODUCT" : name) + "_ID_" + label.productId() + ".png"));
+                ImageIO.write(images[i], "PNG", zip);
+                zip.closeEntry();
+            }
+        }
+
+        public void finish() {}
+
+        public void close() throws IOException {
+            zip.close();
+        }
+
+        public List<File> files() {
+            return List.of(target);
+        }
+    }
+
+    // Minimal PDF: one full-page greyscale image per page, Flate-compressed, written as pages complete
+    private static final class PdfSink implements LabelSink {
+        private static final int CATALOG = 1;
+        private static final int PAGES = 2;
+        private static final int A4_WIDTH_PT = 595;
+        private static final int A4_HEIGHT_PT = 842;
+
+        private final File target;
+        private final CountingOutputStream out;
+        private final List<Long> offsets = new ArrayList<>(List.of(0L, 0L, 0L)); // Index = object number
+        private final List<Integer> pageObjects = new ArrayList<>();
+
+        PdfSink(File target) throws IOException {
+            this.target = target;
+            this.out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(target), 1 << 16));
+            out.write("%PDF-1.4\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        public void add(int firstIndex, BufferedImage[] labels) throws IOException {
+            byte[] pixels = deflate(gray(tile(labels)));
+
+            int image = beginObject();
+            ascii("<< /Type /XObject /Subtype /Image /Width " + PAGE_WIDTH + " /Height " + PAGE_HEIGHT
+                + " /ColorSpace /DeviceGray /BitsPerComponent 8 /Filter /FlateDecode /Length " + pixels.length + " >>\nstream\n");
+            out.write(pixels);
+            ascii("\nendstream\nendobj\n");
+
+            byte[] drawing = ("q " + A4_WIDTH_PT + " 0 0 " + A4_HEIGHT_PT + " 0 0 cm /Im0 Do Q").getBytes(StandardCharsets.US_ASCII);
+            int contents = beginObject();
+            ascii("<< /Length " + drawing.length + " >>\nstream\n");
+            out.write(drawing);
+            ascii("\nendstream\nendobj\n");
+
+            int page = beginObject();
+            ascii("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + A4_WIDTH_PT + " " + A4_HEIGHT_PT + "]"
+                + " /Resources << /XObject << /Im0 " + image + " 0 R >> >> /Contents " + contents + " 0 R >>\nendobj\n");
+            pageObjects.add(page);
+        }
+
+        public void finish() throws IOException {
+            StringBuilder kids = new StringBuilder();
+            for (int page : pageObjects) kids.append(page).append(" 0 R ");
+            offsets.set(PAGES, out.count());
+            ascii(PAGES + " 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>\nendobj\n");
+            offsets.set(CATALOG, out.count());
+            ascii(CATALOG + " 0 obj\n<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+
+            long xref = out.count();
+            StringBuilder table = new StringBuilder("xref\n0 " + offsets.size() + "\n0000000000 65535 f \n");
+            for (int i = 1; i < offsets.size(); i++) {
+                table.append(String.format("%010d 00000 n \n", offsets.get(i)));
+            }
+            table.append("trailer\n<< /Size ").append(offsets.size()).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+            ascii(table.toString());
+        }
+
+        public void close() throws IOException {
+            out.close();
+        }
+
+        public List<File> files() {
+            return List.of(target);
+        }
+
+        private int beginObject() throws IOException {
+            int number = offsets.size();
+            offsets.add(out.count());
+            ascii(number + " 0 obj\n");
+            return number;
+        }
+
+        private void ascii(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private static byte[] gray(BufferedImage page) {
+            int[] rgb = ((DataBufferInt) page.getRaster().getDataBuffer()).getData();
+            byte[] gray = new byte[rgb.length];
+            for (int i = 0; i < rgb.length; i++) {
+                int p = rgb[i];
+                gray[i] = (byte) ((((p >> 16) & 0xFF) * 299 + ((p >> 8) & 0xFF) * 587 + (p & 0xFF) * 114) / 1000);
+            }
+            return gray;
+        }
+
+        private static byte[] deflate(byte[] data) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 8);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream stream = new DeflaterOutputStream(buffer, deflater, 1 << 16)) {
+                stream.write(data);
+            } finally {
+                deflater.end();
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // Benchmark: 800 labels, the old one-at-a-time path (setRGB, column-major, every image kept) vs the batch writer
+    public static void main(String[] args) throws Exception {
+        List<Label> labels = new ArrayList<>();
+        for (int i = 1; i <= 800; i++) {
+            labels.add(new Label(i, "Product " + i, "Category " + (i % 12), i % 12 + 1, "piece", 10 + i * 0.25));
+        }
+        BitMatrix sample = new QRCodeWriter().encode(payload(labels.get(0)), BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE);
+
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 200; i++) legacyImage(sample);
+            long legacyRaster = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < 200; i++) toImage(sample);
+            long rowRaster = System.nanoTime() - start;
+
+            long before = TimingTrace.usedHeap();
+            start = System.nanoTime();
+            List<BufferedImage> kept = new ArrayList<>();
+            for (Label label : labels) {
+                BitMatrix matrix = new QRCodeWriter().encode(payload(label), BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE);
+                BufferedImage image = new BufferedImage(QR_SIZE, LABEL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = image.createGraphics();
+                g.drawImage(legacyImage(matrix), 0, 0, null);
+                g.dispose();
+                kept.add(image);
+            }
+            long legacyBatch = System.nanoTime() - start;
+            long legacyBytes = TimingTrace.usedHeap() - before;
+            kept.clear();
+
+            File pdf = File.createTempFile("qr_labels", ".pdf");
+            start = System.nanoTime();
+            write(labels, pdf, Format.PDF, new AtomicInteger(), new AtomicBoolean());
+            long pdfBatch = System.nanoTime() - start;
+            String check = verifyPdf(pdf, (labels.size() + LABELS_PER_PAGE - 1) / LABELS_PER_PAGE);
+
+            if (report) {
+                System.out.printf("Rasterize 280x280: setRGB column-major %.3f ms, int raster rows %.3f ms%n",
+                    legacyRaster / 1e6 / 200, rowRaster / 1e6 / 200);
+                System.out.printf("800 labels, serial (images only, none written): %,.0f ms, ~%,d KB held%n",
+                    legacyBatch / 1e6, legacyBytes / 1024);
+                System.out.printf("800 labels, parallel to PDF (%d pages, %,d KB, %d threads): %,.0f ms%n",
+                    (labels.size() + LABELS_PER_PAGE - 1) / LABELS_PER_PAGE, pdf.length() / 1024,
+                    POOL.getParallelism(), pdfBatch / 1e6);
+                System.out.println("PDF check: " + check);
+            }
+            pdf.delete();
+        }
+    }
+
+    // Re-read the written PDF the way a viewer would: startxref -> xref table -> every object,
+    // each stream's /Length up to endstream, and every page image inflating to a full page of gray pixels
+    static String verifyPdf(File pdf, int expectedPages) throws IOException {
+        byte[] bytes = java.nio.file.Files.readAllBytes(pdf.toPath());
+        String text = new String(bytes, StandardCharsets.ISO_8859_1); // One char per byte, so indexes are offsets
+        if (!text.startsWith("%PDF-1.4\n")) throw new IllegalStateException("Missing PDF header");
+        if (!text.endsWith("%%EOF\n")) throw new IllegalStateException("Missing %%EOF");
+
+        int startxref = text.lastIndexOf("startxref\n");
+        if (startxref < 0) throw new IllegalStateException("Missing startxref");
+        int xref = Integer.parseInt(text.substring(startxref + 10, text.indexOf('\n', startxref + 10)).trim());
+        if (!text.startsWith("xref\n0 ", xref)) throw new IllegalStateException("startxref " + xref + " does not point at xref");
+
+        int line = xref + 5;
+        String[] header = text.substring(line, text.indexOf('\n', line)).split(" ");
+        int size = Integer.parseInt(header[1]);
+        line = text.indexOf('\n', line) + 1;
+        if (!text.startsWith("0000000000 65535 f \n", line)) throw new IllegalStateException("Bad free entry");
+        int images = 0;
+        for (int number = 1; number < size; number++) {
+            int entry = line + number * 20; // Fixed 20-byte xref entries
+            if (!text.startsWith(" 00000 n \n", entry + 10)) throw new IllegalStateException("Bad xref entry " + number);
+            int offset = Integer.parseInt(text.substring(entry, entry + 10));
+            if (!text.startsWith(number + " 0 obj\n", offset)) {
+                throw new IllegalStateException("Object " + number + " not at xref offset " + offset);
+            }
+            int dictEnd = text.indexOf("\nendobj\n", offset);
+            int streamAt = text.indexOf(">>\nstream\n", offset);
+            if (streamAt < 0 || streamAt > dictEnd) continue;
+
+            java.util.regex.Matcher length = java.util.regex.Pattern.compile("/Length (\\d+)")
+                .matcher(text.substring(offset, streamAt));
+            if (!length.find()) throw new IllegalStateException("Stream " + number + " has no /Length");
+            int dataStart = streamAt + 10;
+            int dataEnd = dataStart + Integer.parseInt(length.group(1));
+            if (!text.startsWith("\nendstream\nendobj\n", dataEnd)) {
+                throw new IllegalStateException("Stream " + number + " /Length does not reach endstream");
+            }
+            if (text.substring(offset, streamAt).contains("/Subtype /Image")) {
+                java.util.zip.Inflater inflater = new java.util.zip.Inflater();
+                try {
+                    inflater.setInput(bytes, dataStart, dataEnd - dataStart);
+                    byte[] pixels = new byte[PAGE_WIDTH * PAGE_HEIGHT + 1];
+                    int inflated = 0;
+                    while (!inflater.finished() && inflated < pixels.length) {
+                        int n = inflater.inflate(pixels, inflated, pixels.length - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                        inflated += n;
+                    }
+                    if (inflated != PAGE_WIDTH * PAGE_HEIGHT) {
+                        throw new IllegalStateException("Image " + number + " inflates to " + inflated + " bytes");
+                    }
+                } catch (java.util.zip.DataFormatException e) {
+                    throw new IllegalStateException("Image " + number + " is not valid Flate data", e);
+                } finally {
+                    inflater.end();
+                }
+                images++;
+            }
+        }
+        if (!text.startsWith("trailer\n<< /Size " + size + " /Root 1 0 R >>", line + size * 20)) {
+            throw new IllegalStateException("Trailer does not follow the xref table");
+        }
+        if (!text.contains("/Count " + expectedPages + " >>") || images != expectedPages) {
+            throw new IllegalStateException("Expected " + expectedPages + " pages, found " + images + " page images");
+        }
+        return "ok (" + (size - 1) + " objects, " + images + " pages, xref at " + xref + ")";
+    }
+
+    private static BufferedImage legacyImage(BitMatrix matrix) {
+        BufferedImage image = new BufferedImage(matrix.getWidth(), matrix.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < matrix.getWidth(); x++) {
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                image.setRGB(x, y, matrix.get(x, y) ? Color.BLACK.getRGB() : Color.WHITE.getRGB());
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,443 @@
+package com.inventorysystem.gui;
+
+import com.github.sarxos.webcam.Webcam;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.inventorysystem.util.DebugLogger;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Webcam QR scanning as a capture -> decode pipeline: one thread grabs frames into a small
+// drop-oldest queue, a few workers decode them with their own QR-only reader.
+// Frames that look like the last decoded one are skipped, and the area where the last code
+// was found is tried before the full frame.
+final class QRScanPipeline {
+
+    static final long DUPLICATE_WINDOW_MS = 1000;  // Same code again within this window is ignored
+    private static final int DECODER_THREADS = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int QUEUE_CAPACITY = DECODER_THREADS;
+    private static final long IDLE_WAIT_MS = 10;    // No frame ready yet
+    private static final long STATS_LOG_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Change gate: luminance sampled on a coarse grid, compared with the last frame sent to decode
+    private static final int GRID_COLUMNS = 40;
+    private static final int GRID_ROWS = 30;
+    private static final double CHANGE_THRESHOLD = 4.0;  // Mean absolute difference, 0-255 scale
+    private static final long FORCE_DECODE_MS = 500;     // Decode at least this often even if nothing moved
+
+    // Region of interest around the last code found
+    private static final double REGION_MARGIN = 0.6;     // Of the finder pattern span, added on each side
+    private static final int MIN_REGION_SIZE = 64;
+    private static final long REGION_TTL_MS = 2000;
+
+    private static final ThreadMXBean CPU = ManagementFactory.getThreadMXBean();
+
+    private static final Map<DecodeHintType, Object> HINTS = new EnumMap<>(DecodeHintType.class);
+    static {
+        HINTS.put(DecodeHintType.POSSIBLE_FORMATS, List.of(BarcodeFormat.QR_CODE));
+    }
+
+    // Where frames come from; the webcam in the app, synthetic frames in the benchmark
+    interface FrameSource {
+        boolean isOpen();
+        BufferedImage grab() throws Exception; // null when no frame is ready
+    }
+
+    private final FrameSource source;
+    private final Consumer<String> onScan;     // Called on a decoder thread, once per distinct scan
+    private final Runnable onSourceClosed;     // Called on the capture thread if the camera goes away
+    private final BlockingQueue<BufferedImage> frames = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final boolean gated;           // Change gate and region-first decoding; off only for the benchmark baseline
+    private volatile boolean running;
+    private volatile Region lastRegion;
+
+    // Capture thread only
+    private int[] lastSignature;
+    private long lastForwardedMillis;
+
+    // Metrics
+    private volatile long startNanos;
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder decoded = new LongAdder();
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAccumulator maxDecodeNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder regionHits = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();    // Gate + decode work, all threads
+
+    QRScanPipeline(FrameSource source, Consumer<String> onScan, Runnable onSourceClosed) {
+        this(source, onScan, onSourceClosed, true);
+    }
+
+    private QRScanPipeline(FrameSource source, Consumer<String> onScan, Runnable onSourceClosed, boolean gated) {
+        this.source = source;
+        this.onScan = onScan;
+        this.onSourceClosed = onSourceClosed;
+        this.gated = gated;
+    }
+
+    static FrameSource frames(Webcam webcam) {
+        return new FrameSource() {
+            public boolean isOpen() { return webcam.isOpen(); }
+            public BufferedImage grab() { return webcam.getImage(); }
+        };
+    }
+
+    void start() {
+        running = true;
+        startNanos = System.nanoTime();
+        threads.add(new Thread(this::captureLoop, "qr-capture"));
+        for (int i = 0; i < DECODER_THREADS; i++) {
+            threads.add(new Thread(this::decodeLoop, "qr-decode-" + (i + 1)));
+        }
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Stop every thread and wait briefly for them, so the camera can be closed safely afterwards
+    void stop() {
+        if (!running) return;
+        running = false;
+        for (Thread thread : threads) thread.interrupt();
+        for (Thread thread : threads) {
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        frames.clear();
+        DebugLogger.info("QR scanner stopped: " + summary());
+    }
+
+    private void captureLoop() {
+        long lastLog = System.nanoTime();
+        while (running) {
+            if (!source.isOpen()) {
+                if (running) onSourceClosed.run();
+                break;
+            }
+            BufferedImage image;
+            try {
+                image = source.grab();
+            } catch (Exception e) {
+                DebugLogger.debug("QR capture error: " + e.getMessage());
+                image = null;
+            }
+            if (image == null) {
+                try { Thread.sleep(IDLE_WAIT_MS); } catch (InterruptedException e) { break; }
+                continue;
+            }
+            captured.increment();
+            if (gated && !changed(image)) {
+                unchanged.increment();
+                continue;
+            }
+
+            // Drop-oldest: decoders always get the freshest frames
+            while (!frames.offer(image)) {
+                if (frames.poll() != null) dropped.increment();
+            }
+
+            if (DebugLogger.isDebugEnabled() && System.nanoTime() - lastLog > STATS_LOG_NANOS) {
+                lastLog = System.nanoTime();
+                DebugLogger.debug("QR scanner: " + summary());
+            }
+        }
+    }
+
+    // True if the frame differs enough from the last one sent to decode (or that was a while ago)
+    private boolean changed(BufferedImage image) {
+        long cpuStart = CPU.getCurrentThreadCpuTime();
+        int[] signature = signature(image);
+        long now = System.currentTimeMillis();
+        boolean changed = lastSignature == null || now - lastForwardedMillis >= FORCE_DECODE_MS
+            || meanDifference(signature, lastSignature) >= CHANGE_THRESHOLD;
+        if (changed) {
+            lastSignature = signature;
+            lastForwardedMillis = now;
+        }
+        cpuNanos.add(CPU.getCurrentThreadCpuTime() - cpuStart);
+        return changed;
+    }
+
+    // Downsampled luminance, one sample per grid cell
+    private static int[] signature(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] samples = new int[GRID_COLUMNS * GRID_ROWS];
+        int i = 0;
+        for (int gy = 0; gy < GRID_ROWS; gy++) {
+            int y = (gy * 2 + 1) * height / (GRID_ROWS * 2);
+            for (int gx = 0; gx < GRID_COLUMNS; gx++) {
+                int rgb = image.getRGB((gx * 2 + 1) * width / (GRID_COLUMNS * 2), y);
+                samples[i++] = (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+            }
+        }
+        return samples;
+    }
+
+    private static double meanDifference(int[] a, int[] b) {
+        long total = 0;
+        for (int i = 0; i < a.length; i++) total += Math.abs(a[i] - b[i]);
+        return (double) total / a.length;
+    }
+
+    private void decodeLoop() {
+        MultiFormatReader reader = new MultiFormatReader();
+        reader.setHints(HINTS); // Reused for every frame on this worker
+        while (running) {
+            BufferedImage image;
+            try {
+                image = frames.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            String text = decode(reader, image);
+            if (text != null && running && accept(text)) {
+                scans.increment();
+                onScan.accept(text);
+            }
+        }
+    }
+
+    // Last code's region first, then the whole frame
+    private String decode(MultiFormatReader reader, BufferedImage image) {
+        long start = System.nanoTime();
+        long cpuStart = CPU.getCurrentThreadCpuTime();
+        try {
+            Region region = gated ? lastRegion : null;
+            if (region != null && System.currentTimeMillis() - region.foundAt() > REGION_TTL_MS) {
+                lastRegion = region = null;
+            }
+            if (region != null && region.fits(image)) {
+                Result result = tryDecode(reader, new BufferedImageLuminanceSource(image, region.x(), region.y(), region.width(), region.height()));
+                if (result != null) {
+                    regionHits.increment();
+                    remember(result, region.x(), region.y(), image);
+                    return result.getText();
+                }
+            }
+            Result result = tryDecode(reader, new BufferedImageLuminanceSource(image));
+            if (result == null) return null;
+            remember(result, 0, 0, image);
+            return result.getText();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            decoded.increment();
+            decodeNanos.add(elapsed);
+            maxDecodeNanos.accumulate(elapsed);
+            cpuNanos.add(CPU.getCurrentThreadCpuTime() - cpuStart);
+        }
+    }
+
+    private static Result tryDecode(MultiFormatReader reader, BufferedImageLuminanceSource luminance) {
+        try {
+            return reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(luminance)));
+        } catch (NotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            DebugLogger.debug("QR decode error: " + e.getMessage());
+            return null;
+        } finally {
+            reader.reset();
+        }
+    }
+
+    // Box around the finder patterns, padded and clamped to the frame
+    private void remember(Result result, int offsetX, int offsetY, BufferedImage image) {
+        ResultPoint[] points = result.getResultPoints();
+        if (points == null || points.length == 0) return;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (ResultPoint point : points) {
+            if (point == null) continue;
+            minX = Math.min(minX, point.getX());
+            maxX = Math.max(maxX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxY = Math.max(maxY, point.getY());
+        }
+        if (minX > maxX) return;
+        int margin = (int) (Math.max(maxX - minX, maxY - minY) * REGION_MARGIN);
+        int x0 = Math.max(0, offsetX + (int) minX - margin);
+        int y0 = Math.max(0, offsetY + (int) minY - margin);
+        int x1 = Math.min(image.getWidth(), offsetX + (int) maxX + margin);
+        int y1 = Math.min(image.getHeight(), offsetY + (int) maxY + margin);
+        if (x1 - x0 < MIN_REGION_SIZE || y1 - y0 < MIN_REGION_SIZE) return;
+        lastRegion = new Region(x0, y0, x1 - x0, y1 - y0, System.currentTimeMillis());
+    }
+
+    private record Region(int x, int y, int width, int height, long foundAt) {
+        boolean fits(BufferedImage image) {
+            return x + width <= image.getWidth() && y + height <= image.getHeight();
+        }
+    }
+
+    // A code held in front of the camera is reported once; it counts as new after it has been out of view for the window
+    private boolean accept(String text) {
+        long now = System.currentTimeMillis();
+        Long previous = lastSeen.put(text, now);
+        if (previous != null && now - previous < DUPLICATE_WINDOW_MS) {
+            duplicates.increment();
+            return false;
+        }
+        if (lastSeen.size() > 64) {
+            lastSeen.values().removeIf(seen -> now - seen >= DUPLICATE_WINDOW_MS);
+        }
+        return true;
+    }
+
+    // --- Metrics ---
+
+    double getCaptureFps() {
+        return perSecond(captured.sum());
+    }
+
+    double getDecodeFps() {
+        return perSecond(decoded.sum());
+    }
+
+    double getAverageDecodeMillis() {
+        long count = decoded.sum();
+        return count == 0 ? 0.0 : decodeNanos.sum() / 1e6 / count;
+    }
+
+    double getMaxDecodeMillis() {
+        return maxDecodeNanos.get() / 1e6;
+    }
+
+    long getDroppedFrames() {
+        return dropped.sum();
+    }
+
+    long getScans() {
+        return scans.sum();
+    }
+
+    long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    long getUnchangedFrames() {
+        return unchanged.sum();
+    }
+
+    long getRegionHits() {
+        return regionHits.sum();
+    }
+
+    // Scanner CPU time (gate + decode) per distinct scan; all of it while nothing has been scanned yet
+    double getCpuMillisPerScan() {
+        return cpuNanos.sum() / 1e6 / Math.max(1, scans.sum());
+    }
+
+    String summary() {
+        return String.format("%.1f fps captured, %.1f fps decoded, decode avg %.1f ms / max %.1f ms, %d unchanged, %d dropped, "
+                + "%d scans, %d decodes from region, %d duplicates, %.1f ms CPU per scan",
+            getCaptureFps(), getDecodeFps(), getAverageDecodeMillis(), getMaxDecodeMillis(), getUnchangedFrames(),
+            getDroppedFrames(), getScans(), getRegionHits(), getDuplicates(), getCpuMillisPerScan());
+    }
+
+    private double perSecond(long count) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0.0 : count / seconds;
+    }
+
+    // Benchmark: CPU per scan on a simulated 30 fps camera over a mostly empty counter, gating off vs on
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(42);
+        BufferedImage[] codeA = new BufferedImage[8], codeB = new BufferedImage[8], empty = new BufferedImage[8];
+        for (int i = 0; i < 8; i++) {
+            codeA[i] = frame("{\"action\":\"sell\",\"data\":{\"id\":101}}", random, i % 3 - 1, i % 2);
+            codeB[i] = frame("{\"action\":\"sell\",\"data\":{\"id\":202}}", random, i % 2, i % 3 - 1);
+            empty[i] = frame(null, random, 0, 0);
+        }
+        long runMillis = 7000; // One appearance of each code
+
+        // Warm up the decoder so neither run pays for JIT compilation
+        MultiFormatReader warmup = new MultiFormatReader();
+        for (int i = 0; i < 300; i++) {
+            tryDecode(warmup, new BufferedImageLuminanceSource(i % 2 == 0 ? codeA[i % 8] : empty[i % 8]));
+        }
+
+        for (boolean gated : new boolean[]{false, true}) {
+            QRScanPipeline pipeline = new QRScanPipeline(camera(codeA, codeB, empty), text -> { }, () -> { }, gated);
+            pipeline.start();
+            Thread.sleep(runMillis);
+            System.out.println((gated ? "Gated:   " : "Ungated: ") + pipeline.summary());
+            pipeline.stop();
+        }
+    }
+
+    // 30 fps, 8 s cycle: code A for 1 s, empty counter for 3 s, code B for 1 s, empty for 3 s
+    private static FrameSource camera(BufferedImage[] codeA, BufferedImage[] codeB, BufferedImage[] empty) {
+        long start = System.nanoTime();
+        AtomicInteger frameCount = new AtomicInteger();
+        return new FrameSource() {
+            public boolean isOpen() { return true; }
+            public BufferedImage grab() throws InterruptedException {
+                int frame = frameCount.incrementAndGet();
+                long wait = start + frame * 33_333_333L - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                long phase = ((System.nanoTime() - start) / 1_000_000L) % 8000;
+                BufferedImage[] scene = phase < 1000 ? codeA : phase >= 4000 && phase < 5000 ? codeB : empty;
+                return scene[frame % scene.length];
+            }
+        };
+    }
+
+    // QVGA frame of a grey counter with sensor noise, optionally with a code near the middle
+    private static BufferedImage frame(String text, Random random, int dx, int dy) throws Exception {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.LIGHT_GRAY);
+        g.fillRect(0, 0, 320, 240);
+        if (text != null) {
+            g.drawImage(MatrixToImageWriter.toBufferedImage(new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 160, 160)),
+                80 + dx * 3, 40 + dy * 3, null);
+        }
+        g.dispose();
+        for (int y = 0; y < 240; y++) {
+            for (int x = 0; x < 320; x++) {
+                int rgb = image.getRGB(x, y);
+                int gray = Math.max(0, Math.min(255, (rgb & 0xFF) + random.nextInt(7) - 3));
+                image.setRGB(x, y, (gray << 16) | (gray << 8) | gray);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,156 @@
+package com.inventorysystem.gui;
+
+import com.inventorysystem.data.DatabaseConnection;
+import com.inventorysystem.data.SchemaMigrator;
+import com.inventorysystem.util.DebugLogger;
+import com.inventorysystem.util.SoundUtil;
+import com.inventorysystem.util.TimingTrace;
+
+import javax.swing.JFrame;
+import javax.swing.LookAndFeel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Launch: the startup tasks run concurrently while the splash shows their real progress.
+// The login window opens once the look and feel and the database are ready; class preloading may finish after.
+public final class StartupSequence {
+
+    private static final int STARTUP_THREADS = 3;
+
+    // Loaded (not initialized) ahead of first use: QR libraries, webcam API, main screen panels
+    private static final String[] PRELOAD_CLASSES = {
+        "com.google.zxing.MultiFormatReader",
+        "com.google.zxing.qrcode.QRCodeReader",
+        "com.google.zxing.qrcode.QRCodeWriter",
+        "com.google.zxing.common.HybridBinarizer",
+        "com.google.zxing.client.j2se.BufferedImageLuminanceSource",
+        "com.github.sarxos.webcam.Webcam",
+        "com.github.sarxos.webcam.WebcamPanel",
+        "com.inventorysystem.gui.MainApplicationPanel",
+        "com.inventorysystem.gui.dashboardPanel",
+        "com.inventorysystem.gui.productsPanel",
+        "com.inventorysystem.gui.QRScanPipeline",
+    };
+
+    private final AtomicInteger progress = new AtomicInteger();
+    private volatile String status = "Starting...";
+    private Startup splash; // EDT only
+
+    private StartupSequence() {}
+
+    public static void launch() {
+        new StartupSequence().start();
+    }
+
+    private void start() {
+        TimingTrace.start("startup");
+        SwingUtilities.invokeLater(() -> {
+            splash = new Startup();
+            refreshSplash();
+            splash.showSplash();
+        });
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(STARTUP_THREADS, r -> {
+            Thread thread = new Thread(r, "startup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Config, then pool warm-up and schema migration: login queries need both
+        CompletableFuture<Void> config = task(pool, "Configuration loaded", 15, () -> DatabaseConnection.getPoolStats());
+        CompletableFuture<Void> database = config.thenCompose(v -> task(pool, "Database ready", 45, () -> {
+            DatabaseConnection.warmUp();
+            SchemaMigrator.migrate();
+        }));
+        CompletableFuture<LookAndFeel> lookAndFeel = CompletableFuture.supplyAsync(StartupSequence::createLookAndFeel, pool)
+            .whenComplete((laf, e) -> done("Interface loaded", 20));
+        CompletableFuture<Void> preload = task(pool, "Scanner libraries loaded", 20, () -> {
+            preloadClasses();
+            SoundUtil.preload("beep.wav", "success.wav"); // Scan and login feedback without a decode per beep
+        });
+
+        CompletableFuture.allOf(database, lookAndFeel).whenComplete((v, e) ->
+            SwingUtilities.invokeLater(() -> showLogin(lookAndFeel.join())));
+        CompletableFuture.allOf(config, database, lookAndFeel, preload).whenComplete((v, e) -> pool.shutdown());
+    }
+
+    @FunctionalInterface
+    private interface StartupTask {
+        void run() throws Exception;
+    }
+
+    // Failures are logged, not fatal: a missing database shows up at login, as before
+    private CompletableFuture<Void> task(ExecutorService pool, String doneStatus, int weight, StartupTask work) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                work.run();
+            } catch (Throwable e) {
+                DebugLogger.error("Startup task failed (" + doneStatus + ")", e instanceof Exception ex ? ex : new RuntimeException(e));
+            }
+            DebugLogger.debug(String.format("Startup: %s in %.0f ms", doneStatus, (System.nanoTime() - start) / 1e6));
+            done(doneStatus, weight);
+        }, pool);
+    }
+
+    private void done(String doneStatus, int weight) {
+        progress.addAndGet(weight);
+        status = doneStatus + "...";
+        TimingTrace.mark("startup", doneStatus.toLowerCase());
+        SwingUtilities.invokeLater(this::refreshSplash);
+    }
+
+    private void refreshSplash() {
+        if (splash != null) splash.updateProgress(progress.get(), status);
+    }
+
+    // Heavy part of the system look and feel (class loading, defaults) off the EDT; installed on the EDT
+    private static LookAndFeel createLookAndFeel() {
+        try {
+            return (LookAndFeel) Class.forName(UIManager.getSystemLookAndFeelClassName())
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            DebugLogger.error("Failed to load system LookAndFeel", e);
+            return null;
+        }
+    }
+
+    private static void preloadClasses() {
+        ClassLoader loader = StartupSequence.class.getClassLoader();
+        List<String> missing = new ArrayList<>();
+        for (String name : PRELOAD_CLASSES) {
+            try {
+                Class.forName(name, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) DebugLogger.debug("Startup preload skipped: " + missing);
+    }
+
+    private void showLogin(LookAndFeel lookAndFeel) {
+        if (lookAndFeel != null) {
+            try {
+                UIManager.setLookAndFeel(lookAndFeel); // OS look
+            } catch (Exception e) {
+                DebugLogger.error("Failed to set LookAndFeel", e);
+            }
+        }
+        progress.set(100);
+        status = "Ready!";
+        refreshSplash();
+
+        userFrame frame = new userFrame();
+        frame.setExtendedState(JFrame.MAXIMIZED_BOTH); // Full screen
+        frame.setVisible(true);
+        if (splash != null) splash.closeSplash();
+        TimingTrace.finish("startup", "login shown");
+    }
+}
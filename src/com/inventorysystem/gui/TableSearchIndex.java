@@ -0,0 +1,331 @@
+package com.inventorysystem.gui;
+
+import javax.swing.JTextField;
+import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// N-gram index over a few text columns of a table model; replaces the per-keystroke regex RowFilter.
+// Rebuilt on a background thread after the model changes, narrows from the previous result while the user keeps typing.
+final class TableSearchIndex {
+
+    static final int SEARCH_DELAY_MS = 150;
+    private static final int REBUILD_DELAY_MS = 100; // A reload fires one event per row; build once it settles
+    private static final int MAX_GRAM = 3;
+    private static final char COLUMN_SEPARATOR = '\n';
+
+    // Shared by every table; builds queue behind each other
+    private static final ExecutorService INDEX_BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "table-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final TableModel model;
+    private final int[] columns;
+    private final Timer rebuildTimer;
+
+    // EDT-only state
+    private String[] rowText = new String[0];   // Lower-cased indexed columns per model row
+    private Map<Long, int[]> postings = Map.of(); // 1-3 char gram -> ascending model rows containing it
+    private boolean stale = true;
+    private long version;               // Bumped on every model change
+    private long requestedVersion = -1; // Version the pending build was started for
+    private Runnable onRebuilt = () -> {};
+    private String lastQuery = "";
+    private BitSet lastMatches;
+
+    // Built off the EDT from a snapshot of the cells
+    private record Built(String[] rowText, Map<Long, int[]> postings) {}
+
+    TableSearchIndex(TableModel model, int... columns) {
+        this.model = model;
+        this.columns = columns.clone();
+        rebuildTimer = new Timer(REBUILD_DELAY_MS, e -> startRebuild());
+        rebuildTimer.setRepeats(false);
+        model.addTableModelListener(e -> {
+            stale = true;
+            version++;
+            requestRebuild();
+        });
+    }
+
+    // Wire a search field to a sorter: debounced, filtered through the index
+    static TableSearchIndex attach(JTextField searchField, TableRowSorter<? extends TableModel> sorter, int... columns) {
+        TableSearchIndex index = new TableSearchIndex(sorter.getModel(), columns);
+        Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> sorter.setRowFilter(index.filter(searchField.getText())));
+        searchTimer.setRepeats(false);
+
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+        });
+        // Reloaded rows: re-run the search through the new index
+        index.onRebuilt = () -> {
+            if (!searchField.getText().trim().isEmpty()) searchTimer.restart();
+        };
+        return index;
+    }
+
+    // Row filter for the query, or null to show every row
+    RowFilter<TableModel, Integer> filter(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            lastQuery = "";
+            lastMatches = null;
+            return null;
+        }
+        if (stale) {
+            // Index still building; scan the cells until it is swapped in
+            requestRebuild();
+            lastQuery = "";
+            lastMatches = null;
+            return new RowFilter<TableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                    return contains(entry, q);
+                }
+            };
+        }
+
+        BitSet matches = match(q);
+        return new RowFilter<TableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                // Rows changed since the match; check the cells directly until the next search
+                return stale ? contains(entry, q) : matches.get(entry.getIdentifier());
+            }
+        };
+    }
+
+    private boolean contains(RowFilter.Entry<? extends TableModel, ? extends Integer> entry, String q) {
+        for (int column : columns) {
+            if (entry.getStringValue(column).toLowerCase(Locale.ROOT).contains(q)) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Model rows whose indexed columns contain the query (case-insensitive), or null for an empty query.
+    // Needs a current index; filter() scans the cells instead while one is building.
+    BitSet match(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            lastQuery = "";
+            lastMatches = null;
+            return null;
+        }
+
+        BitSet matches;
+        if (q.length() <= MAX_GRAM) {
+            matches = toBitSet(postings.get(gram(q, 0, q.length()))); // Exact, no verification needed
+        } else {
+            int[] candidates = intersect(q);
+            // Still typing: the previous result may already be the smaller candidate set
+            if (lastMatches != null && q.contains(lastQuery) && lastMatches.cardinality() < candidates.length) {
+                matches = verify(lastMatches.stream().toArray(), q);
+            } else {
+                matches = verify(candidates, q);
+            }
+        }
+        lastQuery = q;
+        lastMatches = matches;
+        return matches;
+    }
+
+    private void requestRebuild() {
+        if (requestedVersion == version) return; // Already queued for this data
+        requestedVersion = version;
+        rebuildTimer.restart();
+    }
+
+    // Copy the cells on the EDT, build the grams on the builder thread, swap in on the EDT
+    private void startRebuild() {
+        long buildVersion = version;
+        Object[] cells = snapshot();
+        INDEX_BUILDER.submit(() -> {
+            Built built = build(cells, columns.length);
+            SwingUtilities.invokeLater(() -> {
+                if (buildVersion != version) return; // Model changed again; a newer build is queued
+                install(built);
+                onRebuilt.run();
+            });
+        });
+    }
+
+    // Indexed cell values, row by row
+    private Object[] snapshot() {
+        int rows = model.getRowCount();
+        Object[] cells = new Object[rows * columns.length];
+        int i = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column : columns) {
+                cells[i++] = model.getValueAt(row, column);
+            }
+        }
+        return cells;
+    }
+
+    private static Built build(Object[] cells, int columnCount) {
+        int rows = columnCount == 0 ? 0 : cells.length / columnCount;
+        String[] text = new String[rows];
+        Map<Long, IntList> building = new HashMap<>();
+        StringBuilder sb = new StringBuilder(64);
+
+        for (int row = 0; row < rows; row++) {
+            sb.setLength(0);
+            for (int c = 0; c < columnCount; c++) {
+                Object value = cells[row * columnCount + c];
+                if (value != null) sb.append(value);
+                sb.append(COLUMN_SEPARATOR);
+            }
+            String rowString = sb.toString().toLowerCase(Locale.ROOT);
+            text[row] = rowString;
+
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (int i = 0; i + n <= rowString.length(); i++) {
+                    long key = gram(rowString, i, n);
+                    if (key < 0) continue; // Spans a column boundary
+                    building.computeIfAbsent(key, k -> new IntList()).addOnce(row);
+                }
+            }
+        }
+
+        Map<Long, int[]> built = new HashMap<>(building.size() * 2);
+        building.forEach((key, list) -> built.put(key, list.toArray()));
+        return new Built(text, built);
+    }
+
+    private void install(Built built) {
+        rowText = built.rowText();
+        postings = built.postings();
+        stale = false;
+        lastQuery = "";
+        lastMatches = null;
+    }
+
+    // Rows holding every trigram of the query, merged rarest first
+    private int[] intersect(String q) {
+        int count = q.length() - MAX_GRAM + 1;
+        int[][] lists = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int[] list = postings.get(gram(q, i, MAX_GRAM));
+            if (list == null) return new int[0];
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = lists[0];
+        for (int l = 1; l < lists.length && result.length > 0; l++) {
+            int[] other = lists[l];
+            int[] merged = new int[result.length];
+            int size = 0;
+            for (int i = 0, j = 0; i < result.length && j < other.length; ) {
+                if (result[i] < other[j]) i++;
+                else if (result[i] > other[j]) j++;
+                else { merged[size++] = result[i]; i++; j++; }
+            }
+            result = Arrays.copyOf(merged, size);
+        }
+        return result;
+    }
+
+    // Grams only prove the pieces exist; confirm the whole substring
+    private BitSet verify(int[] candidates, String q) {
+        BitSet result = new BitSet(rowText.length);
+        for (int row : candidates) {
+            if (rowText[row].contains(q)) result.set(row);
+        }
+        return result;
+    }
+
+    private BitSet toBitSet(int[] rows) {
+        BitSet result = new BitSet(rowText.length);
+        if (rows != null) {
+            for (int row : rows) result.set(row);
+        }
+        return result;
+    }
+
+    // Up to three UTF-16 chars packed into one key, tagged with the length; -1 if it spans a column
+    private static long gram(String s, int start, int length) {
+        long key = length;
+        for (int i = start; i < start + length; i++) {
+            char c = s.charAt(i);
+            if (c == COLUMN_SEPARATOR) return -1;
+            key = (key << 16) | c;
+        }
+        return key;
+    }
+
+    // Growable int array; rows arrive in ascending order so duplicates are always at the tail
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    // Benchmark: index build and incremental typing over 100k rows
+    public static void main(String[] args) {
+        String[] words = {"coke", "sprite", "royal", "mountain", "water", "bread", "rice", "noodles", "coffee", "sugar"};
+        String[] categories = {"Beverages", "Bakery", "Grains", "Snacks", "Condiments"};
+        DefaultTableModel model = new DefaultTableModel(new Object[]{"#", "ID", "Product Name", "Category"}, 0);
+        for (int i = 1; i <= 100_000; i++) {
+            model.addRow(new Object[]{null, i,
+                words[i % words.length] + " " + words[(i / 7) % words.length] + " " + (i % 500) + "ml",
+                categories[i % categories.length]});
+        }
+
+        TableSearchIndex index = new TableSearchIndex(model, 1, 2, 3);
+        build(index.snapshot(), 3); // Warm up
+        long start = System.nanoTime();
+        Object[] cells = index.snapshot();
+        long copied = System.nanoTime();
+        index.install(build(cells, 3));
+        System.out.printf("Snapshot on the EDT: %.1f ms, index build off the EDT: %.1f ms, for %d rows%n",
+            (copied - start) / 1e6, (System.nanoTime() - copied) / 1e6, model.getRowCount());
+
+        // Type each query a keystroke at a time, as the search field would, and average the warm runs
+        String[] queries = {"c", "co", "cof", "coff", "coffee", "coffee s", "coffee su", "sugar 25", "bev", "4242"};
+        int rounds = 50;
+        long[] nanos = new long[queries.length];
+        int[] hits = new int[queries.length];
+        for (int round = 0; round < rounds * 2; round++) {
+            index.match("");
+            for (int q = 0; q < queries.length; q++) {
+                long t = System.nanoTime();
+                BitSet rows = index.match(queries[q]);
+                if (round >= rounds) {
+                    nanos[q] += System.nanoTime() - t;
+                    hits[q] = rows.cardinality();
+                }
+            }
+        }
+        for (int q = 0; q < queries.length; q++) {
+            System.out.printf("  %-11s %7d rows  %7.3f ms%n", "\"" + queries[q] + "\"", hits[q], nanos[q] / 1e6 / rounds);
+        }
+    }
+}
@@ -63,6 +63,7 @@ public class UIConstants {
     public static final Color BACKGROUND_COLOR    = new Color(245, 248, 250); // App Main BG
     public static final Color FORM_COLOR          = Color.WHITE;              // Panels/Forms
     public static final Color OVERLAY_BACKGROUND  = new Color(255, 255, 255, 240); // Login Overlay
+    public static final Color TABLE_ALT_ROW       = new Color(248, 249, 250); // Striped table rows
 
     // --- Navigation ---
     public static final Color NAV_BACKGROUND      = new Color(52, 73, 94);
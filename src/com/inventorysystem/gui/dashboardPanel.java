@@ -1,16 +1,28 @@
 package com.inventorysystem.gui;
 
 import com.inventorysystem.data.DashboardRepository;
-import com.inventorysystem.data.UserRepository;
+import com.inventorysystem.model.DashboardSnapshot;
+import com.inventorysystem.model.DateRange;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Dashboard panel
 public class dashboardPanel extends JPanel {
 
+    // Background loader shared by all dashboard instances
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dashboard-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
     private JLabel productsValue;
     private JLabel totalStockValue;
     private JLabel outOfStockValue;
@@ -24,27 +36,16 @@ public class dashboardPanel extends JPanel {
 
     private final int userId;
     private final DashboardRepository dashboardRepository;
-    private final UserRepository userRepository;
     private DateRangePanel dateRangePanel;
+    private JLabel loadingLabel;
+
+    // Latest refresh wins; older results are dropped
+    private final AtomicLong refreshGeneration = new AtomicLong();
+    private Future<?> pendingRefresh;
 
     public dashboardPanel(userFrame mainFrame) {
-        int originalUserId = mainFrame.loggedInUserId;
-        String userRole = mainFrame.loggedInUserRole;
-        this.userRepository = new UserRepository();
-        
-        // For employees, use their admin's user_id to see admin's data
-        int effectiveUserId = originalUserId;
-        if (userRole.equalsIgnoreCase("Employee")) {
-            try {
-                int adminId = userRepository.getAdminIdForEmployee(originalUserId);
-                if (adminId > 0) {
-                    effectiveUserId = adminId;
-                }
-            } catch (SQLException e) {
-                com.inventorysystem.util.DebugLogger.error("Error getting admin ID for employee", e);
-            }
-        }
-        this.userId = effectiveUserId;
+        // Employees see their admin's data (resolved once at login)
+        this.userId = mainFrame.getOwnerId();
         
         this.dashboardRepository = new DashboardRepository();
 
@@ -61,6 +62,13 @@ public class dashboardPanel extends JPanel {
         titleLabel.setForeground(UIConstants.TEXT_PRIMARY);
         titleLabel.setBorder(new EmptyBorder(0, 0, 10, 0));
         topPanel.add(titleLabel, BorderLayout.WEST);
+
+        loadingLabel = new JLabel("Loading...", SwingConstants.RIGHT);
+        loadingLabel.setFont(UIConstants.LABEL_FONT_PLAIN_12);
+        loadingLabel.setForeground(UIConstants.TEXT_SECONDARY);
+        loadingLabel.setBorder(new EmptyBorder(0, 0, 10, 15));
+        loadingLabel.setVisible(false);
+        topPanel.add(loadingLabel, BorderLayout.CENTER);
         
         dateRangePanel = new DateRangePanel();
         dateRangePanel.addDateRangeChangeListener(() -> refreshData());
@@ -213,8 +221,18 @@ public class dashboardPanel extends JPanel {
             }
         });
         
-        // Custom cell renderer with striping
+        // Custom cell renderer with striping; amounts formatted at paint time
         javax.swing.table.DefaultTableCellRenderer cellRenderer = new javax.swing.table.DefaultTableCellRenderer() {
+            private final java.text.DecimalFormat currency = new java.text.DecimalFormat("₱#,##0.00");
+            {
+                currency.setRoundingMode(java.math.RoundingMode.HALF_UP);
+            }
+
+            @Override
+            protected void setValue(Object value) {
+                setText(value instanceof Double ? currency.format(value) : value == null ? "" : value.toString());
+            }
+
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
@@ -507,128 +525,86 @@ public class dashboardPanel extends JPanel {
     }
 
     
+    // Start background load (EDT), superseding any load still in flight
     private void refreshData() {
-        updateProducts();
-        updateTotalStock();
-        updateOutOfStock();
-        updateInventoryValue();
-        updateTotalSalesWithDateRange();
-        updateNetProfitWithDateRange();
-        updateBestSellers();
-        updateStockAlerts();
-    }
+        DateRange range = dateRangePanel.getDateRange();
+        long generation = refreshGeneration.incrementAndGet();
 
-    private void updateProducts() {
-        try {
-            int count = dashboardRepository.getTotalProducts(userId);
-            productsValue.setText(String.valueOf(count));
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error updating products", e);
-            productsValue.setText("Error");
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(true);
         }
-    }
+        setLoading(true);
 
-    private void updateTotalStock() {
-        try {
-            int totalStock = dashboardRepository.getTotalStock(userId);
-            totalStockValue.setText(String.valueOf(totalStock));
-        } catch (SQLException e) {
-             com.inventorysystem.util.DebugLogger.error("Error updating total stock", e);
-            totalStockValue.setText("Error");
-        }
-    }
-
-    private void updateOutOfStock() {
-        try {
-            int outOfStock = dashboardRepository.getOutOfStockCount(userId);
-            outOfStockValue.setText(String.valueOf(outOfStock));
-        } catch (SQLException e) {
-             com.inventorysystem.util.DebugLogger.error("Error updating out of stock count", e);
-            outOfStockValue.setText("Error");
-        }
+        pendingRefresh = REFRESH_EXECUTOR.submit(() -> {
+            if (generation != refreshGeneration.get()) return; // Superseded before it started
+            try {
+                DashboardSnapshot snapshot = dashboardRepository.getDashboardSnapshot(userId, range, 5);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != refreshGeneration.get()) return;
+                    applySnapshot(snapshot);
+                    setLoading(false);
+                });
+            } catch (SQLException e) {
+                if (generation != refreshGeneration.get()) return; // Cancelled, newer load pending
+                com.inventorysystem.util.DebugLogger.error("Error refreshing dashboard", e);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != refreshGeneration.get()) return;
+                    showLoadError(e);
+                    setLoading(false);
+                });
+            }
+        });
     }
 
-    private void updateInventoryValue() {
-        try {
-            double cost = dashboardRepository.getTotalInventoryCost(userId);
-            totalCostValue.setText("₱" + String.format("%,.0f", cost));
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error updating inventory value", e);
-            totalCostValue.setText("Error");
-        }
+    private void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
+        setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 
-    private void updateTotalSalesWithDateRange() {
-        try {
-            java.sql.Date startDate = dateRangePanel.getSqlStartDate();
-            java.sql.Date endDate = dateRangePanel.getSqlEndDate();
-            double income = dashboardRepository.getTotalIncome(userId, startDate, endDate);
-            totalIncomeValue.setText("₱" + String.format("%,.0f", income));
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error updating total sales", e);
-            totalIncomeValue.setText("Error");
-        }
-    }
+    // Push snapshot into cards and tables
+    private void applySnapshot(DashboardSnapshot snapshot) {
+        productsValue.setText(String.valueOf(snapshot.totalProducts()));
+        totalStockValue.setText(String.valueOf(snapshot.totalStock()));
+        outOfStockValue.setText(String.valueOf(snapshot.outOfStockCount()));
+        totalCostValue.setText("₱" + String.format("%,.0f", snapshot.inventoryCost()));
+        totalIncomeValue.setText("₱" + String.format("%,.0f", snapshot.totalIncome()));
+        totalProfitValue.setText("₱" + String.format("%,.0f", snapshot.totalProfit()));
 
-    private void updateNetProfitWithDateRange() {
-        try {
-            java.sql.Date startDate = dateRangePanel.getSqlStartDate();
-            java.sql.Date endDate = dateRangePanel.getSqlEndDate();
-            double profit = dashboardRepository.getTotalProfit(userId, startDate, endDate);
-            totalProfitValue.setText("₱" + String.format("%,.0f", profit));
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error updating net profit", e);
-            totalProfitValue.setText("Error");
-        }
-    }
-    
-    private void updateBestSellers() {
-    try {
         bestSellersModel.setRowCount(0);
-        
-        // Get dates from the panel
-        java.sql.Date startDate = dateRangePanel.getSqlStartDate();
-        java.sql.Date endDate = dateRangePanel.getSqlEndDate();
-        
-        // Call the date-aware repository method
-        java.util.List<Object[]> bestSellers = dashboardRepository.getBestSellers(userId, startDate, endDate, 5);
-        
-        if (bestSellers.isEmpty()) {
+        if (snapshot.bestSellers().isEmpty()) {
             // Placeholder if no sales found
             bestSellersModel.addRow(new Object[]{null, "-", "No sales in this period", "-", "-", "-"});
         } else {
-            for (Object[] row : bestSellers) {
-                // Add null placeholder for # column at index 0
-                Object[] rowWithNumber = new Object[row.length + 1];
-                rowWithNumber[0] = null; // # column - rendered dynamically
-                System.arraycopy(row, 0, rowWithNumber, 1, row.length);
-                bestSellersModel.addRow(rowWithNumber);
+            for (Object[] row : snapshot.bestSellers()) {
+                bestSellersModel.addRow(withRowNumber(row));
             }
         }
-    } catch (SQLException e) {
-        // IMPROVED ERROR HANDLING: Logs error and shows error in table
-        com.inventorysystem.util.DebugLogger.error("Error updating best sellers", e);
+
+        stockAlertModel.setRowCount(0);
+        for (Object[] row : snapshot.stockAlerts()) {
+            stockAlertModel.addRow(withRowNumber(row));
+        }
+    }
+
+    private void showLoadError(SQLException e) {
+        productsValue.setText("Error");
+        totalStockValue.setText("Error");
+        outOfStockValue.setText("Error");
+        totalCostValue.setText("Error");
+        totalIncomeValue.setText("Error");
+        totalProfitValue.setText("Error");
+
         bestSellersModel.setRowCount(0);
         bestSellersModel.addRow(new Object[]{null, "!", "Error: " + e.getMessage(), "", "", ""});
+        stockAlertModel.setRowCount(0);
+        stockAlertModel.addRow(new Object[]{null, "", "Error loading data", ""});
     }
-}
-    
-    private void updateStockAlerts() {
-        try {
-            stockAlertModel.setRowCount(0);
-            java.util.List<Object[]> alerts = dashboardRepository.getStockAlerts(userId);
-            for (Object[] row : alerts) {
-                // Add null placeholder for # column at index 0
-                Object[] rowWithNumber = new Object[row.length + 1];
-                rowWithNumber[0] = null; // # column - rendered dynamically
-                System.arraycopy(row, 0, rowWithNumber, 1, row.length);
-                stockAlertModel.addRow(rowWithNumber);
-            }
-        } catch (SQLException e) {
-            com.inventorysystem.util.DebugLogger.error("Error updating stock alerts", e);
-            stockAlertModel.setRowCount(0);
-            stockAlertModel.addRow(new Object[]{null, "", "Error loading data", ""});
-        }
+
+    // Add null placeholder for # column at index 0 (rendered dynamically)
+    private static Object[] withRowNumber(Object[] row) {
+        Object[] rowWithNumber = new Object[row.length + 1];
+        System.arraycopy(row, 0, rowWithNumber, 1, row.length);
+        return rowWithNumber;
     }
 
     // Test method
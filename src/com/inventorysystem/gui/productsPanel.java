@@ -7,31 +7,25 @@ import com.github.sarxos.webcam.WebcamException;
 import com.github.sarxos.webcam.WebcamPanel;
 import com.github.sarxos.webcam.WebcamResolution;
 import com.google.zxing.BinaryBitmap;
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.MultiFormatReader;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Result;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
-import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.HybridBinarizer;
-import com.google.zxing.qrcode.QRCodeWriter;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.inventorysystem.model.*;
 import com.inventorysystem.util.SoundUtil;
 import com.inventorysystem.util.CSVExporter;
+import com.inventorysystem.util.ProgressTask;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.*;
 import java.awt.*;
-import java.awt.font.TextAttribute;
-import java.awt.geom.Rectangle2D;
-import java.text.AttributedString;
 import javax.swing.border.LineBorder;
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -39,16 +33,20 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 public class productsPanel extends JPanel {
 
-    private DefaultTableModel tableModel;
+    private ProductTableModel tableModel;
     private JTable productsTable;
     private JPanel scannerDisplayPanel;
     private JRadioButton addUpdateModeRadio;
@@ -61,6 +59,7 @@ public class productsPanel extends JPanel {
     private Webcam webcam;
     private final Executor executor = Executors.newSingleThreadExecutor();
     private final AtomicBoolean isScanning = new AtomicBoolean(false);
+    private volatile QRScanPipeline scanPipeline;
 
     private final int userId;
     private final ProductRepository productRepository;
@@ -69,6 +68,8 @@ public class productsPanel extends JPanel {
     private final userFrame mainFrame;
     private JDialog currentDetailsDialog = null;
     private List<Product> cachedProducts = new ArrayList<>(); // For edit dialog
+    private final AtomicLong loadGeneration = new AtomicLong();
+    private CartPanel cartPanel; // Sell mode basket
 
     // Products panel
     public productsPanel(userFrame mainFrame) {
@@ -77,20 +78,8 @@ public class productsPanel extends JPanel {
         this.userRole = mainFrame.loggedInUserRole;
         this.userRepository = new UserRepository();
         
-        // For employees, use their admin's user_id to access admin's products
-        int effectiveUserId = this.userId;
-        if (userRole.equalsIgnoreCase("Employee")) {
-            try {
-                int adminId = userRepository.getAdminIdForEmployee(this.userId);
-                if (adminId > 0) {
-                    effectiveUserId = adminId;
-                }
-            } catch (SQLException e) {
-                com.inventorysystem.util.DebugLogger.error("Error getting admin ID for employee", e);
-            }
-        }
-        
-        this.productRepository = new ProductRepository(effectiveUserId);
+        // For employees, use their admin's user_id to access admin's products (resolved once at login)
+        this.productRepository = new ProductRepository(mainFrame.getOwnerId());
 
         setLayout(new BorderLayout(10, 10));
         setBackground(UIConstants.WHITE);
@@ -105,6 +94,12 @@ public class productsPanel extends JPanel {
         JPanel sidePanel = createSidePanel();
         add(sidePanel, BorderLayout.EAST);
 
+        // Cart shows while the scanner is in sell mode
+        cartPanel = new CartPanel(this::processCheckout);
+        cartPanel.setVisible(sellModeRadio.isSelected());
+        sellModeRadio.addItemListener(e -> cartPanel.setVisible(sellModeRadio.isSelected()));
+        add(cartPanel, BorderLayout.SOUTH);
+
         addComponentListener(new java.awt.event.ComponentAdapter() {
             @Override
             public void componentShown(java.awt.event.ComponentEvent e) {
@@ -118,8 +113,7 @@ public class productsPanel extends JPanel {
                 }
             }
         });
-
-        loadProductsFromDB();
+        // No load here: cards are built hidden and componentShown loads on first display
     }
 
     private JPanel createTopPanel() {
@@ -141,24 +135,10 @@ public class productsPanel extends JPanel {
         searchField.putClientProperty("JTextField.placeHolderText", "Search products...");
         searchField.setFont(UIConstants.INPUT_FONT);
 
-        // add filter logic
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(tableModel);
+        // add filter logic - indexed, debounced search on ID, name and category
+        TableRowSorter<ProductTableModel> sorter = new TableRowSorter<>(tableModel);
         productsTable.setRowSorter(sorter);
-
-        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
-            public void changedUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void removeUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void insertUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            private void filter() {
-                String text = searchField.getText();
-                if (text.trim().length() == 0) {
-                    sorter.setRowFilter(null);
-                } else {
-                    // Case-insensitive search on all columns
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + text));
-                }
-            }
-        });
+        TableSearchIndex.attach(searchField, sorter, 1, 2, 3);
 
         rightPanel.add(new JLabel("Search:"));
         rightPanel.add(searchField);
@@ -193,13 +173,7 @@ public class productsPanel extends JPanel {
 
     // Create table panel
     private JScrollPane createTablePanel() {
-        String[] columnNames = {"#", "ID", "Product Name", "Category", "Unit", "Cost Price", "Total Cost", "Markup %", "Retail Price", "Total Retail", "Stock"};
-        tableModel = new DefaultTableModel(new Object[][]{}, columnNames) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ProductTableModel();
         productsTable = new JTable(tableModel) {
             @Override
             public String getToolTipText(java.awt.event.MouseEvent event) {
@@ -248,21 +222,25 @@ public class productsPanel extends JPanel {
                 c.setForeground(UIConstants.WHITE);
                 c.setFont(UIConstants.TABLE_HEADER_FONT);
                 c.setHorizontalAlignment(JLabel.CENTER);
-                c.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                c.setBorder(CustomTableRenderer.CELL_PADDING);
                 return c;
             }
         });
 
-        // Custom Cell Renderer for Rows (Striping, Alignment & Padding)
+        // Custom Cell Renderer for Rows (Striping, Alignment & Padding); numbers formatted at paint time
         productsTable.setDefaultRenderer(Object.class, new CustomTableRenderer());
+        productsTable.setDefaultRenderer(String.class, new CustomTableRenderer());
+        productsTable.setDefaultRenderer(Integer.class, new CustomTableRenderer());
+        productsTable.setDefaultRenderer(Double.class, CustomTableRenderer.currency());
+        productsTable.getColumnModel().getColumn(ProductTableModel.COL_MARKUP).setCellRenderer(CustomTableRenderer.percent());
 
         // Custom renderer for row number column (#)
-        productsTable.getColumnModel().getColumn(0).setCellRenderer(new javax.swing.table.DefaultTableCellRenderer() {
+        productsTable.getColumnModel().getColumn(0).setCellRenderer(new CustomTableRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
                 super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setText(String.valueOf(row + 1));
+                setText(CustomTableRenderer.rowNumberText(row));
                 setHorizontalAlignment(SwingConstants.CENTER);
                 
                 // Apply same striping as CustomTableRenderer
@@ -274,7 +252,7 @@ public class productsPanel extends JPanel {
                     setForeground(UIConstants.TEXT_PRIMARY);
                 }
                 setFont(UIConstants.TABLE_SMALL_FONT);
-                setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                setBorder(CustomTableRenderer.CELL_PADDING);
                 return this;
             }
         });
@@ -398,13 +376,13 @@ public class productsPanel extends JPanel {
                         generateQRButton.setEnabled(true);
                         sellProductButton.setEnabled(true);
                     } else {
-                        // Multiple selection - disable edit, QR, and sell
+                        // Multiple selection - disable edit and sell, QR becomes a label sheet
                         addProductButton.setText("Add / Edit Product");
                         addProductButton.setEnabled(false);
                         setMarkupButton.setText("Set Markup (" + selectedCount + " selected)");
                         setMarkupButton.setEnabled(true);
-                        generateQRButton.setText("Generate QR Code");
-                        generateQRButton.setEnabled(false);
+                        generateQRButton.setText("QR Labels (" + selectedCount + " selected)");
+                        generateQRButton.setEnabled(true);
                         sellProductButton.setEnabled(false);
                     }
                 }
@@ -545,71 +523,18 @@ public class productsPanel extends JPanel {
 
     // --- Data Loading & Table Methods ---
 
-    // Load products from database
+    // Load products from database (rows built off the EDT, applied in one batch)
     private void loadProductsFromDB() {
-        tableModel.setRowCount(0);
+        long generation = loadGeneration.incrementAndGet();
         
         new Thread(() -> {
             try {
                 List<Product> products = productRepository.getAllProducts();
-                cachedProducts = new ArrayList<>(products); // Cache for later use
-                double defaultMarkup = userRepository.getDefaultMarkup(userId);
                 
                 SwingUtilities.invokeLater(() -> {
-                    for (Product product : products) {
-                        // Get the stored retail price from database
-                        double storedRetailPrice = product.retailPrice();
-                        double displayRetailPrice;
-                        
-                        // Get product-specific markup from database
-                        String markupDisplay = "";
-                        Double productMarkup = null;
-                        
-                        try {
-                            productMarkup = productRepository.getProductMarkup(product.id());
-                        } catch (SQLException e) {
-                            markupDisplay = "N/A";
-                        }
-
-                        // Calculate display retail price based on priority:
-                        // 1. Use stored retail price if exists (> 0)
-                        // 2. Otherwise calculate from markup (product-specific or default)
-                        if (storedRetailPrice > 0.0) {
-                            displayRetailPrice = storedRetailPrice;
-                        } else {
-                            // Calculate from markup
-                            double costPrice = product.costPrice();
-                            double markupToUse = (productMarkup != null) ? productMarkup : defaultMarkup;
-                            displayRetailPrice = costPrice * (1 + markupToUse / 100.0);
-                            displayRetailPrice = Math.round(displayRetailPrice * 100.0) / 100.0;
-                        }
-
-                        // Set markup display text
-                        if (!markupDisplay.equals("N/A")) {
-                            if (productMarkup != null) {
-                                markupDisplay = String.format("%.1f%%", productMarkup);
-                            } else {
-                                markupDisplay = String.format("%.1f%%", defaultMarkup);
-                            }
-                        }
-
-                        // Calculate total retail price
-                        double totalRetailPrice = displayRetailPrice * product.stock();
-                        
-                        tableModel.addRow(new Object[]{
-                            null, // # column - rendered dynamically
-                            product.id(),
-                            product.name(),
-                            product.categoryName(),
-                            product.unit(),
-                            String.format("₱%,.2f", product.costPrice()),
-                            String.format("₱%,.2f", product.totalCost()),
-                            markupDisplay,
-                            String.format("₱%,.2f", displayRetailPrice),
-                            String.format("₱%,.2f", totalRetailPrice),
-                            product.stock()
-                        });
-                    }
+                    if (generation != loadGeneration.get()) return; // Newer load pending
+                    cachedProducts = new ArrayList<>(products); // Cache for later use
+                    tableModel.setProducts(products); // Single table event, no per-cell formatting
                 });
             } catch (SQLException e) {
                 SwingUtilities.invokeLater(() -> {
@@ -744,10 +669,8 @@ public class productsPanel extends JPanel {
                 idField.setText(String.valueOf(productId));
                 nameField.setText(tableModel.getValueAt(selectedRow, 2).toString());
                 
-                // Get cost price - remove formatting
-                String costPriceStr = tableModel.getValueAt(selectedRow, 5).toString();
-                costPriceStr = costPriceStr.replace("₱", "").replace(",", "").trim();
-                costPriceField.setText(costPriceStr);
+                // Get cost price - numeric in the model, shown with 2 decimals
+                costPriceField.setText(String.format("%.2f", tableModel.getCostPrice(selectedRow)));
                 
                 stockField.setText(tableModel.getValueAt(selectedRow, 10).toString());
                 
@@ -1039,13 +962,12 @@ public class productsPanel extends JPanel {
         int currentStock = (int) tableModel.getValueAt(selectedRow, 10);
         
         // Get selling price - remove formatting
-        String sellingPriceStr = tableModel.getValueAt(selectedRow, 8).toString();
-        double sellingPrice = Double.parseDouble(sellingPriceStr.replace("₱", "").replace(",", "").trim());
+        double sellingPrice = tableModel.getRetailPrice(selectedRow);
 
         // Create sell dialog
         JDialog sellDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Sell Product", true);
         sellDialog.setLayout(new BorderLayout());
-        sellDialog.setSize(450, 350);
+        sellDialog.setSize(480, 350);
         sellDialog.setLocationRelativeTo(mainFrame);
         sellDialog.setResizable(false);
 
@@ -1159,7 +1081,29 @@ public class productsPanel extends JPanel {
             // processSale handles its own SQLException and table refresh
         });
         
+        JButton addToCartButton = new JButton("Add to Cart");
+        addToCartButton.setFont(UIConstants.BUTTON_FONT);
+        addToCartButton.setPreferredSize(new Dimension(120, 35));
+        addToCartButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        addToCartButton.addActionListener(e -> {
+            try {
+                int quantity = Integer.parseInt(quantityField.getText());
+                int id = Integer.parseInt(productId);
+                if (quantity <= 0) {
+                    showError("Quantity must be positive.");
+                } else if (!cartPanel.addItem(id, productName, quantity, sellingPrice, currentStock)) {
+                    showError("Not enough stock. Available: " + currentStock + ", already in cart: " + cartPanel.getQuantity(id));
+                } else {
+                    sellModeRadio.setSelected(true); // Show the cart
+                    sellDialog.dispose();
+                }
+            } catch (NumberFormatException ex) {
+                showError("Invalid quantity entered.");
+            }
+        });
+        
         buttonPanel.add(cancelButton);
+        buttonPanel.add(addToCartButton);
         buttonPanel.add(sellButton);
         sellDialog.add(buttonPanel, BorderLayout.SOUTH);
         
@@ -1193,8 +1137,7 @@ public class productsPanel extends JPanel {
         int currentStock = (int) tableModel.getValueAt(selectedRow, 10);
 
         // Get cost price - remove formatting
-        String costPriceStr = tableModel.getValueAt(selectedRow, 5).toString();
-        double costPrice = Double.parseDouble(costPriceStr.replace("₱", "").replace(",", "").trim());
+        double costPrice = tableModel.getCostPrice(selectedRow);
 
         // Create compact return dialog
         JDialog returnDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Return Product", true);
@@ -1664,6 +1607,37 @@ public class productsPanel extends JPanel {
         }
     }
 
+    // Checkout the cart as one sale
+    // Locking sale transaction off the EDT; cart and table are updated back on it
+    private void processCheckout(List<CartItem> items) {
+        cartPanel.setCheckingOut(true);
+        new Thread(() -> {
+            SaleReceipt receipt = null;
+            Throwable failure = null;
+            try {
+                receipt = productRepository.checkout(items);
+            } catch (Throwable e) {
+                failure = e;
+                com.inventorysystem.util.DebugLogger.error("Checkout failed",
+                    e instanceof Exception ex ? ex : new RuntimeException(e));
+            } finally {
+                SaleReceipt finalReceipt = receipt;
+                Throwable finalFailure = failure;
+                SwingUtilities.invokeLater(() -> {
+                    cartPanel.setCheckingOut(false);
+                    if (finalReceipt != null) {
+                        cartPanel.removeSold(items);
+                        showSuccess(String.format("Sale #%d recorded: %d item(s), %d unit(s), total ₱%,.2f",
+                            finalReceipt.saleId(), finalReceipt.lineCount(), finalReceipt.totalQuantity(), finalReceipt.totalAmount()));
+                    } else {
+                        showError("Checkout Error: " + (finalFailure != null ? finalFailure.getMessage() : "unknown error"));
+                    }
+                    loadProductsFromDB();
+                });
+            }
+        }, "checkout").start();
+    }
+
     /**
      * Processes QR code commands using direct DB lookup for 100% accuracy.
      */
@@ -1728,22 +1702,22 @@ public class productsPanel extends JPanel {
                         if (sellModeRadio.isSelected()) {
                             if (currentDetailsDialog != null && currentDetailsDialog.isVisible()) currentDetailsDialog.dispose();
                             
-                            String retailPriceStr = "N/A";
+                            double rp = 0.0;
                             try {
-                                double rp = productRepository.getProductRetailPrice(String.valueOf(confirmedId));
+                                rp = productRepository.getProductRetailPrice(String.valueOf(confirmedId));
                                 if (rp <= 0) {
                                     Double m = productRepository.getProductMarkup(confirmedId);
                                     double mv = (m != null) ? m : userRepository.getDefaultMarkup(userId);
-                                    rp = confirmedCost * (1 + mv / 100.0);
+                                    rp = Math.round(confirmedCost * (1 + mv / 100.0) * 100.0) / 100.0;
                                 }
-                                retailPriceStr = String.format("₱%,.2f", rp);
                             } catch (Exception ex) {}
 
-                            productRepository.sellProduct(String.valueOf(confirmedId), 1);
-                            loadProductsFromDB();
+                            // Scans build up the basket; Checkout sells it in one transaction
+                            if (!cartPanel.addItem(confirmedId, confirmedName, 1, rp, currentStock)) {
+                                showError("Not enough stock for " + confirmedName + ". Available: " + currentStock);
+                                return;
+                            }
                             findAndSelectProduct(String.valueOf(confirmedId));
-
-                            showProductDetailsDialog("Product Sold", confirmedId, confirmedName, confirmedCategory, confirmedCost, retailPriceStr, UIConstants.SUCCESS_COLOR);
                         } else if (removeStockModeRadio.isSelected()) {
                             if (currentStock <= 0) {
                                 showError("Cannot remove stock. Current stock is 0.");
@@ -1810,10 +1784,7 @@ public class productsPanel extends JPanel {
         String name = (String) tableModel.getValueAt(row, 2);
         String category = (String) tableModel.getValueAt(row, 3);
         
-        // Parse Cost Price (remove ₱ and ,)
-        String costStr = tableModel.getValueAt(row, 5).toString().replace("₱", "").replace(",", "").trim();
-        double cost = 0.0;
-        try { cost = Double.parseDouble(costStr); } catch (NumberFormatException e) {}
+        double cost = tableModel.getCostPrice(row);
 
         int stock = (int) tableModel.getValueAt(row, 10);
 
@@ -2090,6 +2061,8 @@ public class productsPanel extends JPanel {
         toggleScanButton.setEnabled(false); toggleScanButton.setText("Stopping...");
 
         executor.execute(() -> {
+            QRScanPipeline pipelineToStop = this.scanPipeline; this.scanPipeline = null;
+            if (pipelineToStop != null) pipelineToStop.stop(); // Before the camera closes under it
             WebcamPanel panelToStop = this.webcamPanel; Webcam camToClose = this.webcam;
             if (panelToStop != null) try { panelToStop.stop(); } catch (Exception e) { com.inventorysystem.util.DebugLogger.error("Error stopping webcam panel", e); }
             if (camToClose != null && camToClose.isOpen()) try { camToClose.close(); } catch (Exception e) { com.inventorysystem.util.DebugLogger.error("Error closing webcam", e); }
@@ -2129,27 +2102,17 @@ public class productsPanel extends JPanel {
     }
 
     /**
-     * Main scanning loop that captures images and decodes QR codes.
+     * Starts the capture/decode pipeline for the open webcam; each distinct scan beeps and runs on the EDT.
      */
     private void scanLoop() {
-        do {
-            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); break; }
-            Result result = null; BufferedImage image = null; Webcam currentWebcam = this.webcam;
-            if (currentWebcam == null || !currentWebcam.isOpen()) { break; }
-            try { image = currentWebcam.getImage(); } catch (Exception e) { com.inventorysystem.util.DebugLogger.debug("scanLoop: Image capture error: " + e.getMessage()); continue; }
-            if (image != null) {
-                LuminanceSource source = new BufferedImageLuminanceSource(image);
-                BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-                try { result = new MultiFormatReader().decode(bitmap); } catch (NotFoundException e) { } catch (Exception e) { com.inventorysystem.util.DebugLogger.debug("scanLoop: QR decode error: " + e.getMessage()); }
-            }
-            if (result != null && isScanning.get()) {
-                SoundUtil.play("beep.wav"); 
-                final String qrText = result.getText();
-                SwingUtilities.invokeLater(() -> { if (isScanning.get()) { processQRCodeCommand(qrText); } });
-                try { Thread.sleep(1000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); break; }
-            }
-        } while (isScanning.get());
-        if (isScanning.get()) { SwingUtilities.invokeLater(this::stopScanner); }
+        Webcam currentWebcam = this.webcam;
+        if (currentWebcam == null || !currentWebcam.isOpen()) { return; }
+        scanPipeline = new QRScanPipeline(QRScanPipeline.frames(currentWebcam), qrText -> {
+            if (!isScanning.get()) { return; }
+            SoundUtil.play("beep.wav");
+            SwingUtilities.invokeLater(() -> { if (isScanning.get()) { processQRCodeCommand(qrText); } });
+        }, () -> SwingUtilities.invokeLater(this::stopScanner));
+        scanPipeline.start();
     }
 
     private void showError(String message) {
@@ -2179,8 +2142,7 @@ public class productsPanel extends JPanel {
                 int productId = (int) tableModel.getValueAt(selectedRows[0], 1); // ID column
                 String productName = (String) tableModel.getValueAt(selectedRows[0], 2); // Product Name column
                 // Get cost price - remove formatting
-                String costPriceStr = tableModel.getValueAt(selectedRows[0], 5).toString(); // Cost Price column
-                double costPrice = Double.parseDouble(costPriceStr.replace("₱", "").replace(",", "").trim());
+                double costPrice = tableModel.getCostPrice(selectedRows[0]); // Cost Price column
                 // Get current markup if exists
                 Double currentMarkup = productRepository.getProductMarkup(productId);
                 double defaultMarkup = userRepository.getDefaultMarkup(userId);
@@ -2396,103 +2358,55 @@ public class productsPanel extends JPanel {
             return;
         }
 
-        int selectedRow = productsTable.getSelectedRow();
-        if (selectedRow == -1) {
+        int[] selectedRows = productsTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(mainFrame, "Please select a product from the table first.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
         try {
-            // Get product data from table (corrected indices)
-            int productId = (int) tableModel.getValueAt(selectedRow, 1); // ID column
-            String productName = (String) tableModel.getValueAt(selectedRow, 2); // Product Name column
-            String categoryName = (String) tableModel.getValueAt(selectedRow, 3); // Category column
-            String costPriceStr = tableModel.getValueAt(selectedRow, 5).toString(); // Cost Price column
-            double costPrice = Double.parseDouble(costPriceStr.replace("₱", "").replace(",", "").trim());
-
-            // Get unit from cached products
-            String unit = null;
+            // Category IDs and units, looked up once for the whole selection
+            Map<String, Integer> categoryIds = new HashMap<>();
+            for (Category cat : productRepository.getCategories()) {
+                categoryIds.putIfAbsent(cat.name(), cat.id());
+            }
+            Map<Integer, String> units = new HashMap<>();
             for (Product p : cachedProducts) {
-                if (p.id() == productId) {
-                    unit = p.unit();
-                    break;
+                units.put(p.id(), p.unit());
+            }
+
+            List<QRLabelSheet.Label> labels = new ArrayList<>(selectedRows.length);
+            int missingUnit = 0;
+            for (int viewRow : selectedRows) {
+                int modelRow = productsTable.convertRowIndexToModel(viewRow);
+                int productId = tableModel.getProductId(modelRow);
+                String unit = units.get(productId);
+                if (unit == null || unit.trim().isEmpty()) {
+                    missingUnit++;
+                    continue;
                 }
+                String categoryName = tableModel.getCategoryName(modelRow);
+                labels.add(new QRLabelSheet.Label(productId, tableModel.getProductName(modelRow), categoryName,
+                    categoryIds.getOrDefault(categoryName, 1), unit, tableModel.getCostPrice(modelRow)));
             }
-            
-            if (unit == null || unit.trim().isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Product does not have a unit of measurement.", "Error", JOptionPane.ERROR_MESSAGE);
+
+            if (selectedRows.length == 1) {
+                if (labels.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "Product does not have a unit of measurement.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                QRLabelSheet.Label label = labels.get(0);
+                displayQRCodeDialog(QRLabelSheet.render(label), label.name(), label.productId());
                 return;
             }
 
-            // Get category_id from database
-            List<Category> categories = productRepository.getCategories();
-            int categoryId = 1; // Default
-            for (Category cat : categories) {
-                if (cat.name().equals(categoryName)) {
-                    categoryId = cat.id();
-                    break;
-                }
+            // Several products: one printable label sheet
+            if (missingUnit > 0) {
+                JOptionPane.showMessageDialog(this, missingUnit + " selected product(s) have no unit of measurement and will be skipped.",
+                    "QR Labels", JOptionPane.WARNING_MESSAGE);
             }
+            QRLabelSheet.export(labels, this);
 
-            // Build JSON for QR code (matching QRCodePanel format)
-            JSONObject qrData = new JSONObject();
-            qrData.put("action", "create_product");
-
-            JSONObject productData = new JSONObject();
-            productData.put("id", productId);
-            productData.put("name", productName);
-            productData.put("category_id", categoryId);
-            productData.put("unit", unit);
-            productData.put("cost_price", costPrice);
-            productData.put("stock", 1); // Default to 1 to avoid doubling quantity when scanned
-
-            qrData.put("data", productData);
-            String qrText = qrData.toString();
-
-            // Generate QR code image
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            final int qrCodeSize = 280; // Match QRCodePanel size
-            BitMatrix bitMatrix = qrCodeWriter.encode(qrText, BarcodeFormat.QR_CODE, qrCodeSize, qrCodeSize);
-            BufferedImage qrImage = toBufferedImage(bitMatrix);
-
-            // Add product details below QR code
-            int textHeight = 100; // Increased for unit line
-            int combinedHeight = qrCodeSize + textHeight;
-            BufferedImage combinedImage = new BufferedImage(qrCodeSize, combinedHeight, BufferedImage.TYPE_INT_RGB);
-            Graphics2D g2d = combinedImage.createGraphics();
-
-            // Background
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, qrCodeSize, combinedHeight);
-
-            // Draw QR code
-            g2d.drawImage(qrImage, 0, 0, null);
-
-            // Draw product info text - MATCH QRCodePanel EXACTLY
-            g2d.setColor(Color.BLACK);
-            g2d.setFont(new Font("Monospaced", Font.PLAIN, 12)); // Changed from BOLD to PLAIN
-            FontMetrics fm = g2d.getFontMetrics();
-            int lineHeight = fm.getHeight();
-            int startY = qrCodeSize + 20; // Match QRCodePanel padding
-            int currentY = startY;
-            int paddingX = 10;
-
-            // Use same format as QRCodePanel with label:value pairs
-            drawDetailLine(g2d, "Name:", productName, paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Category:", categoryName, paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Unit:", unit, paddingX, currentY);
-            currentY += lineHeight;
-            drawDetailLine(g2d, "Cost:", "₱" + String.format("%,.2f", costPrice), paddingX, currentY);
-
-            g2d.dispose();
-            
-            // Display in dialog with save option
-            displayQRCodeDialog(combinedImage, productName, productId);
-            
-        } catch (NumberFormatException ex) {
-            showError("Error parsing product data: " + ex.getMessage());
         } catch (WriterException ex) {
             showError("Could not generate QR code: " + ex.getMessage());
         } catch (SQLException ex) {
@@ -2502,31 +2416,6 @@ public class productsPanel extends JPanel {
         }
     }
     
-    /** Helper method to convert BitMatrix to BufferedImage */
-    private BufferedImage toBufferedImage(BitMatrix matrix) {
-        int width = matrix.getWidth();
-        int height = matrix.getHeight();
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-            }
-        }
-        return image;
-    }
-    
-    /** Helper method to draw one line of product info with bold label (matches QRCodePanel) */
-    private void drawDetailLine(Graphics2D g2d, String label, String value, int x, int y) {
-        AttributedString asLabel = new AttributedString(String.format("%-10s", label));
-        asLabel.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, 0, label.length());
-        g2d.drawString(asLabel.getIterator(), x, y);
-
-        FontMetrics fm = g2d.getFontMetrics();
-        Rectangle2D labelBounds = fm.getStringBounds(String.format("%-10s", label), g2d);
-        g2d.drawString(value, x + (int)labelBounds.getWidth() + 5, y);
-    }
-    
     /** Display generated QR code in a dialog with save option */
     private void displayQRCodeDialog(BufferedImage qrImage, String productName, int productId) {
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "QR Code - " + productName, true);
@@ -2634,14 +2523,31 @@ public class productsPanel extends JPanel {
         }
         
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Select QR Code Image");
+        fileChooser.setDialogTitle("Select QR Code Image(s) or Folder");
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        fileChooser.setMultiSelectionEnabled(true);
         fileChooser.setFileFilter(new FileNameExtensionFilter(
-            "Image Files (PNG, JPG, JPEG, BMP, GIF)", "png", "jpg", "jpeg", "bmp", "gif"));
+            "Image Files (PNG, JPG, JPEG, BMP, GIF)", QRImageImport.IMAGE_EXTENSIONS));
 
         int result = fileChooser.showOpenDialog(this);
         
         if (result == JFileChooser.APPROVE_OPTION) {
-            File imageFile = fileChooser.getSelectedFile();
+            File[] selection = fileChooser.getSelectedFiles();
+            if (selection.length == 0) {
+                selection = new File[] { fileChooser.getSelectedFile() };
+            }
+
+            // Folder or several images: bulk stock-in with one summary instead of a dialog per file
+            if (selection.length > 1 || selection[0].isDirectory()) {
+                if (!addUpdateModeRadio.isSelected()) {
+                    showError("Folder and multi-image import adds stock, so it is only available in Add/Update mode.");
+                    return;
+                }
+                QRImageImport.run(selection, this, productRepository, this::loadProductsFromDB);
+                return;
+            }
+
+            File imageFile = selection[0];
             
             try {
                 // Read the image
@@ -3030,11 +2936,14 @@ public class productsPanel extends JPanel {
         }
     }
 
-    // Process bulk operation
+    // Process bulk operation: rows validated here, written in one batched transaction off the EDT
     private void processBulkOperation(String operationType, DefaultTableModel dialogModel, JDialog dialog) {
-        int successCount = 0;
         int skipCount = 0;
         StringBuilder errors = new StringBuilder();
+        Map<Integer, String> productNames = new HashMap<>();
+        Map<Integer, Double> markups = new LinkedHashMap<>();
+        List<StockAdjustment> adjustments = new ArrayList<>();
+        List<Integer> deletions = new ArrayList<>();
 
         for (int i = 0; i < dialogModel.getRowCount(); i++) {
             boolean selected = (Boolean) dialogModel.getValueAt(i, 0); // Checkbox is now column 0
@@ -3045,6 +2954,7 @@ public class productsPanel extends JPanel {
 
             int productId = (Integer) dialogModel.getValueAt(i, 1); // Product ID is now column 1
             String productName = (String) dialogModel.getValueAt(i, 2); // Product Name is now column 2
+            productNames.put(productId, productName);
 
             try {
                 switch (operationType) {
@@ -3057,9 +2967,7 @@ public class productsPanel extends JPanel {
                                 skipCount++;
                                 continue;
                             }
-                            productRepository.updateProductMarkup(productId, markup);
-                            productRepository.clearRetailPrice(productId);
-                            successCount++;
+                            markups.put(productId, markup);
                         } else {
                             skipCount++;
                         }
@@ -3072,42 +2980,18 @@ public class productsPanel extends JPanel {
                             continue;
                         }
                         int removeQty = Integer.parseInt(removeQtyStr);
-                        String removeReason = dialogModel.getValueAt(i, 4).toString().trim(); // Column 4
-                        // Get current stock from main table
-                        int mainTableRow = -1;
-                        for (int j = 0; j < tableModel.getRowCount(); j++) {
-                            if ((int)tableModel.getValueAt(j, 1) == productId) { // ID is now column 1
-                                mainTableRow = j;
-                                break;
-                            }
-                        }
-                        if (mainTableRow == -1) {
-                            errors.append("- ").append(productName).append(": Product not found\n");
-                            skipCount++;
-                            continue;
-                        }
-                        int currentStock = (int) tableModel.getValueAt(mainTableRow, 10); // Stock is now column 10
                         if (removeQty <= 0) {
                             errors.append("- ").append(productName).append(": Quantity must be positive\n");
                             skipCount++;
                             continue;
                         }
-                        if (removeQty > currentStock) {
-                            errors.append("- ").append(productName).append(": Insufficient stock\n");
-                            skipCount++;
-                            continue;
-                        }
-                        productRepository.removeStock(productId, removeQty, removeReason);
-                        successCount++;
+                        String removeReason = dialogModel.getValueAt(i, 4).toString().trim(); // Column 4
+                        // Stock is checked under row lock by the repository
+                        adjustments.add(new StockAdjustment(productId, removeQty, "STOCK-REMOVAL", removeReason));
                         break;
 
                     case "DELETE":
-                        if (productRepository.deleteProduct(productId)) {
-                            successCount++;
-                        } else {
-                            errors.append("- ").append(productName).append(": Not found\n");
-                            skipCount++;
-                        }
+                        deletions.add(productId);
                         break;
 
                     case "RETURN":
@@ -3140,21 +3024,61 @@ public class productsPanel extends JPanel {
                             processReturnType = "CUSTOMER-RETURN"; // default
                         }
                         
-                        productRepository.processReturn(productId, returnQty, processReturnType, notes);
-                        successCount++;
+                        adjustments.add(new StockAdjustment(productId, returnQty, processReturnType, notes));
                         break;
                 }
             } catch (NumberFormatException ex) {
                 errors.append("- ").append(productName).append(": Invalid number format\n");
                 skipCount++;
-            } catch (SQLException ex) {
-                errors.append("- ").append(productName).append(": ").append(ex.getMessage()).append("\n");
-                skipCount++;
             }
         }
 
-        dialog.dispose();
+        int total = markups.size() + adjustments.size() + deletions.size();
+        if (total == 0) {
+            dialog.dispose();
+            showBulkResult(operationType, 0, skipCount, errors);
+            return;
+        }
+
+        int inputSkips = skipCount;
+        AtomicInteger processed = new AtomicInteger();
+        dialog.setEnabled(false);
+        ProgressTask.<BulkResult>start(dialog, "Processing...", "bulk-" + operationType.toLowerCase(), total,
+            "Processing " + total + " product(s)...",
+            view -> {
+                // One transaction: past the start there is nothing partial to stop at
+                view.disableCancel();
+                view.update(processed.get(), "Processing " + total + " product(s)...");
+            },
+            cancelled -> {
+                if (cancelled.get()) return null;
+                IntConsumer progress = processed::set;
+                switch (operationType) {
+                    case "SET_MARKUP":   return productRepository.bulkUpdateMarkup(markups, progress);
+                    case "REMOVE_STOCK": return productRepository.bulkRemoveStock(adjustments, progress);
+                    case "DELETE":       return productRepository.bulkDelete(deletions, progress);
+                    case "RETURN":       return productRepository.bulkProcessReturn(adjustments, progress);
+                    default:             return new BulkResult(0, Map.of());
+                }
+            },
+            (result, error, cancelled) -> {
+                dialog.setEnabled(true);
+                dialog.dispose();
+                if (error != null) {
+                    // Whole batch rolled back
+                    showError("No changes were saved: " + error.getMessage());
+                } else if (result == null) {
+                    showError("Cancelled. No changes were saved.");
+                } else {
+                    result.failures().forEach((id, reason) ->
+                        errors.append("- ").append(productNames.getOrDefault(id, "ID " + id)).append(": ").append(reason).append("\n"));
+                    showBulkResult(operationType, result.successCount(), inputSkips + result.failures().size(), errors);
+                }
+                loadProductsFromDB();
+            });
+    }
 
+    private void showBulkResult(String operationType, int successCount, int skipCount, StringBuilder errors) {
         String message = getResultMessage(operationType, successCount, skipCount);
         if (skipCount > 0 && errors.length() > 0) {
             message += "\n\nErrors:\n" + errors.toString();
@@ -3164,8 +3088,6 @@ public class productsPanel extends JPanel {
         } else {
             showError("No products were processed.");
         }
-
-        loadProductsFromDB();
     }
 
     // Get result message
@@ -3238,7 +3160,9 @@ public class productsPanel extends JPanel {
             userFrame mockFrame = new userFrame();
             mockFrame.loggedInUserId = 1;
             mockFrame.loggedInUserRole = "Admin";
-            frame.add(new productsPanel(mockFrame));
+            productsPanel panel = new productsPanel(mockFrame);
+            frame.add(panel);
+            panel.loadProductsFromDB(); // Not shown through a CardLayout here
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
         });
@@ -1,52 +1,36 @@
 package com.inventorysystem.gui;
 
 import com.inventorysystem.data.RecordsRepository;
-import com.inventorysystem.data.UserRepository;
+import com.inventorysystem.model.DateRange;
 import com.inventorysystem.model.TransactionRecord;
 import com.inventorysystem.util.CSVExporter;
 
 import javax.swing.*;
 import javax.swing.border.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
-import java.sql.SQLException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.List;
 
 // Records panel
 public class recordsPanel extends JPanel {
 
-    private final DefaultTableModel tableModel;
-    private JTable recordsTable; // For search bar
+    private static final int SEARCH_DELAY_MS = 300;
+    private static final String[] EXPORT_COLUMNS = {
+        "Date", "Product", "Unit", "Type", "Qty", "Cost/Unit", "Total Cost", "Retail/Unit", "Total Retail"
+    };
+
+    private final PagedTransactionTableModel tableModel;
+    private JTable recordsTable;
+    private JTextField searchField;
+    private Timer searchTimer;
     private final RecordsRepository recordsRepository;
-    private final UserRepository userRepository;
     private final int userId;
     private DateRangePanel dateRangePanel;
-    private List<String> rowNotes; // For tooltips
 
     public recordsPanel(userFrame mainFrame) {
-        int originalUserId = mainFrame.loggedInUserId;
-        String userRole = mainFrame.loggedInUserRole;
-        this.userRepository = new UserRepository();
-        
-        // Use admin user_id
-        int effectiveUserId = originalUserId;
-        if (userRole.equalsIgnoreCase("Employee")) {
-            try {
-                int adminId = userRepository.getAdminIdForEmployee(originalUserId);
-                if (adminId > 0) {
-                    effectiveUserId = adminId;
-                }
-            } catch (SQLException e) {
-                com.inventorysystem.util.DebugLogger.error("Error getting admin ID for employee", e);
-            }
-        }
-        this.userId = effectiveUserId;
+        // Use admin user_id (resolved once at login)
+        this.userId = mainFrame.getOwnerId();
         
         this.recordsRepository = new RecordsRepository();
-        this.rowNotes = new ArrayList<>();
         
         setLayout(new BorderLayout(10, 10));
         setBackground(UIConstants.BACKGROUND_COLOR);
@@ -54,14 +38,8 @@ public class recordsPanel extends JPanel {
             new LineBorder(UIConstants.BORDER_COLOR, 1),
             new EmptyBorder(20, 20, 20, 20)));
 
-        // Init model first
-        tableModel = new DefaultTableModel(new String[]{
-            "#", "Date", "Product", "Unit", "Type", "Qty", "Cost/Unit", "Total Cost", "Retail/Unit", "Total Retail"
-        }, 0) {
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Init model first - pages load lazily as rows are painted
+        tableModel = new PagedTransactionTableModel(recordsRepository, userId);
         
         // Init table second
         JScrollPane tableScrollPane = createTablePanel();
@@ -76,8 +54,7 @@ public class recordsPanel extends JPanel {
                 loadData();
             }
         });
-
-        loadData();
+        // No load here: cards are built hidden and componentShown loads on first display
     }
 
     // Title, Date Filter, and Search Bar
@@ -112,30 +89,23 @@ public class recordsPanel extends JPanel {
         exportButton.setBorderPainted(false);
         exportButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
         exportButton.setToolTipText("Export transaction records to CSV file");
-        exportButton.addActionListener(e -> CSVExporter.exportTableToCSV(recordsTable, "transaction_records", this));
+        exportButton.addActionListener(e -> exportRecords());
         rightPanel.add(exportButton);
 
         // Search Field
-        JTextField searchField = new JTextField(15);
+        searchField = new JTextField(15);
         searchField.setFont(UIConstants.INPUT_FONT);
         searchField.setPreferredSize(new Dimension(180, 35));
+        searchField.setToolTipText("Search by product name or transaction type");
         
-        // Filter Logic - recordsTable MUST be initialized before this
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(tableModel);
-        recordsTable.setRowSorter(sorter);
+        // Search runs in the query, debounced while typing
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> loadData());
+        searchTimer.setRepeats(false);
         
         searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
-            public void changedUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void removeUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void insertUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            private void filter() {
-                String text = searchField.getText();
-                if (text.trim().length() == 0) {
-                    sorter.setRowFilter(null);
-                } else {
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + text));
-                }
-            }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searchTimer.restart(); }
         });
         
         rightPanel.add(new JLabel("Search:"));
@@ -173,13 +143,11 @@ public class recordsPanel extends JPanel {
                         }
                         
                         // Add notes if available
-                        if (row < rowNotes.size()) {
-                            int modelRow = convertRowIndexToModel(row);
-                            String notes = rowNotes.get(modelRow);
-                            if (notes != null && !notes.trim().isEmpty()) {
-                                if (tooltip.length() > 6) tooltip.append("<br><br>");
-                                tooltip.append("<b>Notes:</b> ").append(notes);
-                            }
+                        TransactionRecord record = tableModel.getRecord(row);
+                        String notes = record != null ? record.notes() : null;
+                        if (notes != null && !notes.trim().isEmpty()) {
+                            if (tooltip.length() > 6) tooltip.append("<br><br>");
+                            tooltip.append("<b>Notes:</b> ").append(notes);
                         }
                         
                         tooltip.append("</html>");
@@ -190,7 +158,7 @@ public class recordsPanel extends JPanel {
             }
         };
         
-        recordsTable.setAutoCreateRowSorter(true);
+        // No row sorter: sorting would force every page to load; header clicks re-query in the new order
         recordsTable.setFont(UIConstants.TABLE_FONT);
         recordsTable.setRowHeight(UIConstants.TABLE_ROW_HEIGHT);
         recordsTable.setShowVerticalLines(false);
@@ -218,32 +186,57 @@ public class recordsPanel extends JPanel {
                 label.setForeground(Color.WHITE);
                 label.setFont(UIConstants.TABLE_HEADER_FONT);
                 label.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
-                label.setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                label.setBorder(CustomTableRenderer.CELL_PADDING);
                 label.setOpaque(true);
+                // Arrow on the sorted column
+                RecordsRepository.SortKey key = PagedTransactionTableModel.sortKeyFor(table.convertColumnIndexToModel(column));
+                if (key != null && key == tableModel.getSortKey()) {
+                    label.setText(value + (tableModel.isAscending() ? " \u25B2" : " \u25BC"));
+                }
                 return label;
             }
         });
         
-        // Custom cell renderer with striping
+        // Click a header to sort by it; click again to reverse
+        header.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = recordsTable.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                RecordsRepository.SortKey key = PagedTransactionTableModel.sortKeyFor(column);
+                if (key == null) return;
+                // Date starts newest first, the rest A-Z / low-high
+                boolean ascending = key == tableModel.getSortKey()
+                    ? !tableModel.isAscending()
+                    : key != RecordsRepository.SortKey.DATE;
+                loadData(key, ascending);
+                header.repaint();
+            }
+        });
+        
+        // Custom cell renderer with striping; amount columns formatted at paint time
         recordsTable.setDefaultRenderer(Object.class, new CustomTableRenderer());
+        CustomTableRenderer currencyRenderer = CustomTableRenderer.currency();
+        for (int col = 6; col <= 9; col++) {
+            recordsTable.getColumnModel().getColumn(col).setCellRenderer(currencyRenderer);
+        }
         
         // Custom renderer for row number column (#)
-        recordsTable.getColumnModel().getColumn(0).setCellRenderer(new javax.swing.table.DefaultTableCellRenderer() {
+        recordsTable.getColumnModel().getColumn(0).setCellRenderer(new CustomTableRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
                 super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setText(String.valueOf(row + 1));
+                setText(CustomTableRenderer.rowNumberText(row));
                 setHorizontalAlignment(SwingConstants.CENTER);
                 if (isSelected) {
                     setBackground(UIConstants.PRIMARY_LIGHT);
                     setForeground(Color.WHITE);
                 } else {
-                    setBackground(row % 2 == 0 ? Color.WHITE : new Color(248, 249, 250));
+                    setBackground(row % 2 == 0 ? Color.WHITE : UIConstants.TABLE_ALT_ROW);
                     setForeground(UIConstants.TEXT_PRIMARY);
                 }
                 setFont(UIConstants.TABLE_SMALL_FONT);
-                setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                setBorder(CustomTableRenderer.CELL_PADDING);
                 return this;
             }
         });
@@ -252,56 +245,18 @@ public class recordsPanel extends JPanel {
         recordsTable.getColumnModel().getColumn(0).setMaxWidth(50);
         
         // Add specific renderer for Type column (index 4) to ensure colors show
-        recordsTable.getColumnModel().getColumn(4).setCellRenderer(new javax.swing.table.DefaultTableCellRenderer() {
+        recordsTable.getColumnModel().getColumn(4).setCellRenderer(new CustomTableRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
                 super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setHorizontalAlignment(SwingConstants.CENTER);
-                // Apply transaction type colors using UIConstants
-                if (value != null && !isSelected) {
-                    String type = value.toString();
-                    if (type.equals("STOCK-OUT") || type.equals("SALE")) {
-                        setForeground(UIConstants.DANGER_COLOR);     // Red - Outgoing
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("STOCK-IN")) {
-                        setForeground(UIConstants.SUCCESS_GREEN);     // Green - Incoming
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("CUSTOMER-RETURN")) {
-                        setForeground(UIConstants.INFO_BLUE);    // Blue - Return
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("STOCK-REMOVAL")) {
-                        setForeground(UIConstants.WARNING_DEEP);     // Deep Orange - Removal
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("REJECT")) {
-                        setForeground(UIConstants.WARNING_COLOR);     // Orange - Damaged
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("REFUND")) {
-                        setForeground(UIConstants.PURPLE_COLOR);    // Purple - Refund
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("DISPOSE")) {
-                        setForeground(UIConstants.BROWN_COLOR);     // Brown - Disposal
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else if (type.equals("DELETE")) {
-                        setForeground(UIConstants.DANGER_CRITICAL);     // Bright Red - Critical
-                        setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
-                    } else {
-                        setForeground(UIConstants.TEXT_PRIMARY);
-                        setFont(UIConstants.TABLE_FONT);
-                    }
-                } else if (isSelected) {
-                    setBackground(UIConstants.PRIMARY_LIGHT);
+                // Type colors and bold come from CustomTableRenderer.styleOf, same as every other table
+                if (isSelected) {
                     setForeground(Color.WHITE);
-                    setFont(UIConstants.TABLE_FONT.deriveFont(Font.BOLD, 12f));
+                    setFont(CustomTableRenderer.STATUS_FONT);
                 } else {
-                    setForeground(UIConstants.TEXT_PRIMARY);
-                    setFont(UIConstants.TABLE_FONT);
-                }
-                // Row striping
-                if (!isSelected) {
-                    setBackground(row % 2 == 0 ? Color.WHITE : new Color(248, 249, 250));
+                    setBackground(row % 2 == 0 ? Color.WHITE : UIConstants.TABLE_ALT_ROW); // Row striping
                 }
-                setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
                 return this;
             }
         });
@@ -322,56 +277,44 @@ public class recordsPanel extends JPanel {
     
     // Load transactions from database
     public void loadData() {
-        tableModel.setRowCount(0);
+        loadData(tableModel.getSortKey(), tableModel.isAscending());
+    }
+
+    private void loadData(RecordsRepository.SortKey sortKey, boolean ascending) {
+        if (searchTimer != null) searchTimer.stop();
+        String search = searchField != null ? searchField.getText().trim() : "";
+        tableModel.reload(dateRangePanel.getDateRange(), search, sortKey, ascending, e ->
+            JOptionPane.showMessageDialog(this,
+                "Error loading transaction history: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    // Stream the current range/search straight from the database to a file
+    private void exportRecords() {
+        DateRange range = tableModel.getRange();
+        String search = tableModel.getSearch();
+        RecordsRepository.SortKey sortKey = tableModel.getSortKey();
+        boolean ascending = tableModel.isAscending();
+        if (range == null) return;
         
-        new Thread(() -> {
-            try {
-                java.sql.Date startDate = dateRangePanel.getSqlStartDate();
-                java.sql.Date endDate = dateRangePanel.getSqlEndDate();
-                List<TransactionRecord> history = recordsRepository.getTransactionHistoryWithDateRange(
-                    userId, startDate, endDate);
-                
-                SwingUtilities.invokeLater(() -> {
-                    SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MMM-yyyy hh:mm a");
-                    
-                    rowNotes.clear(); // Clear previous notes
-                    
-                    for (TransactionRecord record : history) {
-                        String formattedDate = record.transactionDate() != null 
-                            ? dateFormat.format(record.transactionDate()) 
-                            : "-";
-                        
-                        // Calculate totals
-                        int qty = Math.abs(record.quantity()); // Use absolute value for display
-                        double costPerUnit = record.unitPrice();
-                        double retailPerUnit = record.retailPrice();
-                        double totalCost = costPerUnit * qty;
-                        double totalRetail = retailPerUnit * qty;
-                        
-                        tableModel.addRow(new Object[]{
-                            null, // # column - rendered dynamically
-                            formattedDate,
-                            record.productName(),
-                            record.unit(),
-                            record.transactionType(),
-                            record.quantity(), // Show original quantity with sign
-                            String.format("₱%,.2f", costPerUnit),
-                            String.format("₱%,.2f", totalCost),
-                            retailPerUnit == 0.0 ? "-" : String.format("₱%,.2f", retailPerUnit),
-                            retailPerUnit == 0.0 ? "-" : String.format("₱%,.2f", totalRetail)
-                        });
-                        
-                        // Store notes for tooltip
-                        rowNotes.add(record.notes());
-                    }
-                });
-            } catch (SQLException e) {
-                SwingUtilities.invokeLater(() -> 
-                    JOptionPane.showMessageDialog(this, 
-                        "Error loading transaction history: " + e.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE));
-            }
-        }).start();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MMM-yyyy hh:mm a"); // Export thread only
+        CSVExporter.exportStreaming(EXPORT_COLUMNS, sink ->
+            recordsRepository.streamTransactions(userId, range, search, sortKey, ascending, record -> {
+                int qty = Math.abs(record.quantity());
+                double retailPerUnit = record.retailPrice();
+                sink.writeRow(
+                    record.transactionDate() != null ? dateFormat.format(record.transactionDate()) : "-",
+                    record.productName(),
+                    record.unit(),
+                    record.transactionType(),
+                    record.quantity(),
+                    record.unitPrice(),
+                    record.unitPrice() * qty,
+                    retailPerUnit == 0.0 ? "-" : retailPerUnit,
+                    retailPerUnit == 0.0 ? "-" : retailPerUnit * qty);
+                return !sink.isCancelled();
+            }),
+            tableModel.getRowCount(), "transaction_records", this);
     }
 
     // Test method
@@ -383,7 +326,9 @@ public class recordsPanel extends JPanel {
             userFrame mockFrame = new userFrame();
             mockFrame.loggedInUserId = 1;
             mockFrame.loggedInUserRole = "Admin";
-            frame.add(new recordsPanel(mockFrame));
+            recordsPanel panel = new recordsPanel(mockFrame);
+            frame.add(panel);
+            panel.loadData(); // Not shown through a CardLayout here
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
         });
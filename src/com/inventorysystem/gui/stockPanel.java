@@ -1,7 +1,6 @@
 package com.inventorysystem.gui;
 
 import com.inventorysystem.data.StockRepository;
-import com.inventorysystem.data.UserRepository;
 import com.inventorysystem.model.StockRecord;
 import com.inventorysystem.util.CSVExporter;
 import javax.swing.*;
@@ -20,27 +19,11 @@ public class stockPanel extends JPanel {
     private JTable stockTable;
     private final int userId;
     private final StockRepository stockRepository;
-    private final UserRepository userRepository;
     private DateRangePanel dateRangePanel;
 
     public stockPanel(userFrame mainFrame) {
-        int originalUserId = mainFrame.loggedInUserId;
-        String userRole = mainFrame.loggedInUserRole;
-        this.userRepository = new UserRepository();
-        
-        // Show admin data
-        int effectiveUserId = originalUserId;
-        if (userRole.equalsIgnoreCase("Employee")) {
-            try {
-                int adminId = userRepository.getAdminIdForEmployee(originalUserId);
-                if (adminId > 0) {
-                    effectiveUserId = adminId;
-                }
-            } catch (SQLException e) {
-                com.inventorysystem.util.DebugLogger.error("Error getting admin ID for employee", e);
-            }
-        }
-        this.userId = effectiveUserId;
+        // Show admin data (resolved once at login)
+        this.userId = mainFrame.getOwnerId();
         
         this.stockRepository = new StockRepository();
 
@@ -64,8 +47,7 @@ public class stockPanel extends JPanel {
                 loadStockSummary();
             }
         });
-
-        loadStockSummary();
+        // No load here: cards are built hidden and componentShown loads on first display
     }
 
     // Title/date filter
@@ -109,23 +91,10 @@ public class stockPanel extends JPanel {
         searchField.setFont(UIConstants.INPUT_FONT);
         searchField.setPreferredSize(new Dimension(180, 35));
         
-        // Filter logic
+        // Filter logic - indexed, debounced search on ID, name and category
         TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(model);
         stockTable.setRowSorter(sorter);
-        
-        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
-            public void changedUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void removeUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            public void insertUpdate(javax.swing.event.DocumentEvent e) { filter(); }
-            private void filter() {
-                String text = searchField.getText();
-                if (text.trim().length() == 0) {
-                    sorter.setRowFilter(null);
-                } else {
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + text));
-                }
-            }
-        });
+        TableSearchIndex.attach(searchField, sorter, 1, 2, 3);
         
         rightPanel.add(new JLabel("Search:"));
         rightPanel.add(searchField);
@@ -188,7 +157,7 @@ public class stockPanel extends JPanel {
                 c.setForeground(Color.WHITE);
                 c.setFont(UIConstants.TABLE_HEADER_FONT);
                 ((javax.swing.JLabel) c).setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
-                setBorder(javax.swing.BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                setBorder(CustomTableRenderer.CELL_PADDING);
                 return c;
             }
         });
@@ -197,22 +166,22 @@ public class stockPanel extends JPanel {
         stockTable.setDefaultRenderer(Object.class, new CustomTableRenderer());
         
         // Renderer: # col
-        stockTable.getColumnModel().getColumn(0).setCellRenderer(new javax.swing.table.DefaultTableCellRenderer() {
+        stockTable.getColumnModel().getColumn(0).setCellRenderer(new CustomTableRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
                 super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                setText(String.valueOf(row + 1));
+                setText(CustomTableRenderer.rowNumberText(row));
                 setHorizontalAlignment(SwingConstants.CENTER);
                 if (isSelected) {
                     setBackground(UIConstants.PRIMARY_LIGHT);
                     setForeground(Color.WHITE);
                 } else {
-                    setBackground(row % 2 == 0 ? Color.WHITE : new Color(248, 249, 250));
+                    setBackground(row % 2 == 0 ? Color.WHITE : UIConstants.TABLE_ALT_ROW);
                     setForeground(UIConstants.TEXT_PRIMARY);
                 }
                 setFont(UIConstants.TABLE_SMALL_FONT);
-                setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+                setBorder(CustomTableRenderer.CELL_PADDING);
                 return this;
             }
         });
@@ -247,9 +216,7 @@ public class stockPanel extends JPanel {
     private void loadStockSummary() {
         model.setRowCount(0);
         try {
-            java.sql.Date startDate = dateRangePanel.getSqlStartDate();
-            java.sql.Date endDate = dateRangePanel.getSqlEndDate();
-            List<StockRecord> summary = stockRepository.getStockSummaryWithDateRange(userId, startDate, endDate);
+            List<StockRecord> summary = stockRepository.getStockSummaryWithDateRange(userId, dateRangePanel.getDateRange());
             
             for (StockRecord record : summary) {
                 int available = record.endingStock();
@@ -297,7 +264,9 @@ public class stockPanel extends JPanel {
             userFrame mockFrame = new userFrame();
             mockFrame.loggedInUserId = 1;
             mockFrame.loggedInUserRole = "Admin";
-            frame.add(new stockPanel(mockFrame));
+            stockPanel panel = new stockPanel(mockFrame);
+            frame.add(panel);
+            panel.loadStockSummary(); // Not shown through a CardLayout here
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
         });
@@ -3,6 +3,8 @@ package com.inventorysystem.gui;
 import com.inventorysystem.data.StoreRepository;
 import com.inventorysystem.data.UserRepository;
 import com.inventorysystem.model.Store;
+import com.inventorysystem.model.User;
+import com.inventorysystem.util.TimingTrace;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -22,6 +24,7 @@ public class userFrame extends JFrame {
     public int loggedInUserId;
     public String loggedInUsername;
     public String loggedInUserRole;
+    private User session; // Logged-in user with the owner ID resolved once at login
 
     private StoreRepository storeRepository;
     private UserRepository userRepository;
@@ -70,18 +73,20 @@ public class userFrame extends JFrame {
     }
 
     // Login method
-    public void handleLoginSuccess(int userId, String username, String role) {
-        this.loggedInUserId = userId;
-        this.loggedInUsername = username;
-        this.loggedInUserRole = role;
+    public void handleLoginSuccess(User user) {
+        this.session = user;
+        this.loggedInUserId = user.userId();
+        this.loggedInUsername = user.username();
+        this.loggedInUserRole = user.role();
+        int userId = user.userId();
 
         try {
             Store storeToUse;
             
-            if (role.equalsIgnoreCase("Employee")) {
+            if (user.isEmployee()) {
                 // Get admin store
-                int adminId = userRepository.getAdminIdForEmployee(userId);
-                if (adminId == -1) {
+                int adminId = user.ownerId();
+                if (adminId <= 0) {
                     JOptionPane.showMessageDialog(this, 
                         "Error: Your account is not linked to an Admin.\nPlease contact system administrator.", 
                         "Account Error", JOptionPane.ERROR_MESSAGE);
@@ -108,6 +113,7 @@ public class userFrame extends JFrame {
                 }
             }
 
+            TimingTrace.mark("login", "store lookup");
             showMainApplication(storeToUse.name(), storeToUse.location(), storeToUse.contact());
 
         } catch (SQLException e) {
@@ -117,6 +123,11 @@ public class userFrame extends JFrame {
         }
     }
 
+    // Whose products/records the panels show: the admin for employees, else the user
+    public int getOwnerId() {
+        return session != null && session.ownerId() > 0 ? session.ownerId() : loggedInUserId;
+    }
+
     // Main method
     public void showMainApplication(String storeName, String storeLocation, String storeContact) {
         MainApplicationPanel mainAppPanel = new MainApplicationPanel(
@@ -124,6 +135,7 @@ public class userFrame extends JFrame {
         );
         mainContainer.add(mainAppPanel, "mainApp");
         cardLayout.show(mainContainer, "mainApp");
+        TimingTrace.mark("login", "main panel");
 
         // Full screen
         setExtendedState(JFrame.MAXIMIZED_BOTH);
@@ -241,6 +253,7 @@ public class userFrame extends JFrame {
         this.loggedInUserId = 0;
         this.loggedInUsername = null;
         this.loggedInUserRole = null;
+        this.session = null;
 
         cardLayout.show(mainContainer, "login");
         setExtendedState(JFrame.MAXIMIZED_BOTH); // Maximized
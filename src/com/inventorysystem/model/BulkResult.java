@@ -0,0 +1,15 @@
+package com.inventorysystem.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Outcome of a bulk operation; failures map product ID to reason, in request order
+public record BulkResult(
+    int successCount,
+    Map<Integer, String> failures
+) {
+    public BulkResult {
+        failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventorysystem.model;
+
+// Cart line; unitPrice is the displayed estimate, checkout re-reads prices under lock
+public record CartItem(
+    int productId,
+    String productName,
+    int quantity,
+    double unitPrice
+) {}
@@ -0,0 +1,20 @@
+package com.inventorysystem.model;
+
+import java.util.List;
+
+// Dashboard snapshot (all KPIs + tables from one load)
+public record DashboardSnapshot(
+    int totalProducts,
+    int totalStock,
+    int outOfStockCount,
+    double inventoryCost,
+    double totalIncome,
+    double totalProfit,
+    List<Object[]> bestSellers,
+    List<Object[]> stockAlerts
+) {
+    public DashboardSnapshot {
+        bestSellers = List.copyOf(bestSellers);
+        stockAlerts = List.copyOf(stockAlerts);
+    }
+}
@@ -0,0 +1,30 @@
+package com.inventorysystem.model;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+// Half-open timestamp range [start, endExclusive) for index-friendly SQL: col >= ? AND col < ?
+public record DateRange(Timestamp start, Timestamp endExclusive) {
+
+    public DateRange {
+        if (start == null || endExclusive == null) {
+            throw new IllegalArgumentException("Date range bounds cannot be null.");
+        }
+        if (endExclusive.before(start)) {
+            throw new IllegalArgumentException("Date range end cannot be before its start.");
+        }
+    }
+
+    // Whole days, firstDay 00:00 up to (not including) the day after lastDay
+    public static DateRange ofDays(LocalDate firstDay, LocalDate lastDay) {
+        Timestamp start = Timestamp.valueOf(firstDay.atStartOfDay());
+        if (lastDay.isBefore(firstDay)) {
+            return new DateRange(start, start); // Empty range
+        }
+        return new DateRange(start, Timestamp.valueOf(lastDay.plusDays(1).atStartOfDay()));
+    }
+
+    public boolean contains(Timestamp time) {
+        return time != null && !time.before(start) && time.before(endExclusive);
+    }
+}
@@ -9,5 +9,8 @@ public record Product(
     double costPrice,
     double retailPrice,
     int stock,
-    double totalCost
+    double totalCost,
+    Double markupPercent,         // Product-specific markup, null = use default
+    double effectiveMarkupPercent, // Product markup or user default
+    double displayRetailPrice      // Stored retail price, or cost + effective markup
 ) {}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.inventorysystem.model;
+
+// Stock-in decoded from a product QR label; productId 0 = match by name + category or allocate a new ID
+public record QRStockIn(
+    int productId,
+    String name,
+    int categoryId,
+    String unit,
+    double costPrice,
+    int quantity
+) {}
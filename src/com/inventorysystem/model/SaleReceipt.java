@@ -0,0 +1,9 @@
+package com.inventorysystem.model;
+
+// Result of a checkout
+public record SaleReceipt(
+    int saleId,
+    int lineCount,
+    int totalQuantity,
+    double totalAmount
+) {}
@@ -0,0 +1,9 @@
+package com.inventorysystem.model;
+
+// One row of a bulk stock change; type is the stock_log type (STOCK-REMOVAL, CUSTOMER-RETURN, REJECT, REFUND)
+public record StockAdjustment(
+    int productId,
+    int quantity,
+    String type,
+    String notes
+) {}
@@ -4,6 +4,7 @@ import java.sql.Timestamp;
 
 // Transaction record
 public record TransactionRecord(
+    long logId,
     Timestamp transactionDate,
     String productName,
     String unit,
@@ -13,4 +14,4 @@ public record TransactionRecord(
     double retailPrice,
     double total,
     String notes
-) {}
\ No newline at end of file
+) {}
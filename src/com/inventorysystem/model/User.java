@@ -1,4 +1,9 @@
 package com.inventorysystem.model;
 
-// User model
-public record User(int userId, String username, String role) {}
\ No newline at end of file
+// User model; ownerId is whose data the session works on (self for admins, linked admin for employees, -1 if unlinked)
+public record User(int userId, String username, String role, int ownerId) {
+
+    public boolean isEmployee() {
+        return "Employee".equalsIgnoreCase(role);
+    }
+}
@@ -7,9 +7,49 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 // CSV exporter
 public class CSVExporter {
+
+    private static final int WRITE_BUFFER_CHARS = 1 << 20; // 1M chars between disk writes
+
+    // Pushes rows into the sink until done or the sink is cancelled
+    @FunctionalInterface
+    public interface RowSource {
+        void streamRows(RowSink sink) throws Exception;
+    }
+
+    // Row writer handed to a RowSource; safe to poll from the EDT
+    public static final class RowSink {
+        private final Writer writer;
+        private final String[] columnNames;
+        private final AtomicLong rowsWritten;
+        private final AtomicBoolean cancelled;
+
+        private RowSink(Writer writer, String[] columnNames, AtomicLong rowsWritten, AtomicBoolean cancelled) {
+            this.writer = writer;
+            this.columnNames = columnNames;
+            this.rowsWritten = rowsWritten;
+            this.cancelled = cancelled;
+        }
+
+        // One value per column, formatted like table exports
+        public void writeRow(Object... values) throws IOException {
+            for (int col = 0; col < columnNames.length; col++) {
+                if (col > 0) writer.write(',');
+                Object value = col < values.length ? values[col] : null;
+                writer.write(escapeCSV(formatCellValue(value, columnNames[col])));
+            }
+            writer.write('\n');
+            rowsWritten.incrementAndGet();
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
     
     // Export to CSV
     public static void exportTableToCSV(JTable table, String defaultFileName, JComponent parent) {
@@ -21,33 +61,10 @@ public class CSVExporter {
             return;
         }
 
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Export to CSV");
-        
-        // Center file chooser
-        fileChooser.setPreferredSize(new java.awt.Dimension(800, 600));
-        
-        // Filename with time
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String fileName = defaultFileName + "_" + timestamp + ".csv";
-        fileChooser.setSelectedFile(new File(fileName));
-        
-        // File filter
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("CSV Files (*.csv)", "csv");
-        fileChooser.setFileFilter(filter);
-        
-        // Get parent window
         java.awt.Window parentWindow = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
-        int userSelection = fileChooser.showSaveDialog(parentWindow);
+        File fileToSave = chooseFile(defaultFileName, parentWindow);
         
-        if (userSelection == JFileChooser.APPROVE_OPTION) {
-            File fileToSave = fileChooser.getSelectedFile();
-            
-            // Add .csv if missing
-            if (!fileToSave.getName().toLowerCase().endsWith(".csv")) {
-                fileToSave = new File(fileToSave.getAbsolutePath() + ".csv");
-            }
-            
+        if (fileToSave != null) {
             try {
                 writeTableToCSV(table, fileToSave, defaultFileName);
                 
@@ -65,24 +82,130 @@ public class CSVExporter {
         }
     }
     
+    // Stream rows from the source to a file on a background thread, with progress and cancel
+    public static void exportStreaming(String[] columnNames, RowSource source, long expectedRows,
+                                       String defaultFileName, JComponent parent) {
+        java.awt.Window parentWindow = parent != null ? SwingUtilities.getWindowAncestor(parent) : null;
+        if (expectedRows <= 0) {
+            JOptionPane.showMessageDialog(parent, 
+                "No data to export!", 
+                "Export Failed", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        File fileToSave = chooseFile(defaultFileName, parentWindow);
+        if (fileToSave == null) return;
+
+        File target = fileToSave;
+        AtomicLong rowsWritten = new AtomicLong();
+
+        ProgressTask.<Long>start(parentWindow, "Exporting CSV", "csv-export", 1000,
+            "Exporting 0 of " + expectedRows + " rows...",
+            view -> {
+                long written = rowsWritten.get();
+                view.update((int) Math.min(1000, written * 1000 / expectedRows),
+                    "Exporting " + written + " of " + expectedRows + " rows...");
+            },
+            cancelled -> {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(target), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS)) {
+                    writeReportHeader(writer, defaultFileName, expectedRows);
+                    writeColumnHeader(writer, columnNames);
+                    source.streamRows(new RowSink(writer, columnNames, rowsWritten, cancelled));
+                    writeReportFooter(writer);
+                } catch (Exception ex) {
+                    target.delete(); // Never leave a partial file behind
+                    throw ex;
+                }
+                if (cancelled.get()) target.delete();
+                return rowsWritten.get();
+            },
+            (rows, error, cancelled) -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(parentWindow,
+                        "Error exporting data: " + error.getMessage(),
+                        "Export Error",
+                        JOptionPane.ERROR_MESSAGE);
+                } else if (cancelled) {
+                    JOptionPane.showMessageDialog(parentWindow,
+                        "Export cancelled.",
+                        "Export Cancelled",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parentWindow,
+                        "Data exported successfully!\n\nFile: " + target.getName() + "\nLocation: " + target.getParent() + "\nRows: " + rows,
+                        "Export Successful",
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
+            });
+    }
+
+    // Save dialog, null if cancelled
+    private static File chooseFile(String defaultFileName, java.awt.Window parentWindow) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export to CSV");
+        
+        // Center file chooser
+        fileChooser.setPreferredSize(new java.awt.Dimension(800, 600));
+        
+        // Filename with time
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String fileName = defaultFileName + "_" + timestamp + ".csv";
+        fileChooser.setSelectedFile(new File(fileName));
+        
+        // File filter
+        FileNameExtensionFilter filter = new FileNameExtensionFilter("CSV Files (*.csv)", "csv");
+        fileChooser.setFileFilter(filter);
+        
+        if (fileChooser.showSaveDialog(parentWindow) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File fileToSave = fileChooser.getSelectedFile();
+        
+        // Add .csv if missing
+        if (!fileToSave.getName().toLowerCase().endsWith(".csv")) {
+            fileToSave = new File(fileToSave.getAbsolutePath() + ".csv");
+        }
+        return fileToSave;
+    }
+
+    private static void writeReportHeader(Writer writer, String reportType, long totalRecords) throws IOException {
+        // Write BOM
+        writer.write('\ufeff');
+        
+        // Write header
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm:ss a"));
+        writer.write("SmartStock Inventory System\n");
+        writer.write("Report Type:," + formatReportName(reportType) + "\n");
+        writer.write("Generated:," + timestamp + "\n");
+        writer.write("Total Records:," + totalRecords + "\n");
+        writer.write("\n"); // Blank line
+    }
+
+    private static void writeColumnHeader(Writer writer, String[] columnNames) throws IOException {
+        for (int col = 0; col < columnNames.length; col++) {
+            if (col > 0) writer.write(",");
+            writer.write(escapeCSV(columnNames[col]));
+        }
+        writer.write("\n");
+    }
+
+    private static void writeReportFooter(Writer writer) throws IOException {
+        writer.write("\n");
+        writer.write("End of Report\n");
+        writer.write("Exported by SmartStock v1.0\n");
+    }
+    
     // Write table to CSV
     private static void writeTableToCSV(JTable table, File file, String reportType) throws IOException {
         TableModel model = table.getModel();
         
-        // Use UTF-8 BOM
-        try (OutputStreamWriter writer = new OutputStreamWriter(
-                new FileOutputStream(file), StandardCharsets.UTF_8)) {
+        // Use UTF-8 BOM, buffered so each cell is not a separate write
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS)) {
             
-            // Write BOM
-            writer.write('\ufeff');
-            
-            // Write header
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm:ss a"));
-            writer.write("SmartStock Inventory System\n");
-            writer.write("Report Type:," + formatReportName(reportType) + "\n");
-            writer.write("Generated:," + timestamp + "\n");
-            writer.write("Total Records:," + model.getRowCount() + "\n");
-            writer.write("\n"); // Blank line
+            writeReportHeader(writer, reportType, model.getRowCount());
             
             // Skip # col
             int skipColumn = -1;
@@ -123,10 +246,7 @@ public class CSVExporter {
                 writer.write("\n");
             }
             
-            // Write footer
-            writer.write("\n");
-            writer.write("End of Report\n");
-            writer.write("Exported by SmartStock v1.0\n");
+            writeReportFooter(writer);
         }
     }
     
@@ -1,66 +1,350 @@
 package com.inventorysystem.util;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
-// Debug logger
+// Debug logger - callers only enqueue, one background thread does all console and file I/O
 public class DebugLogger {
-    
-    private static final boolean ENABLE_LOGGING = true;
+
+    public enum Level { DEBUG, INFO, ERROR }
+
+    // What to do when the queue is full
+    public enum OverflowPolicy {
+        DROP_NEWEST, // Discard the message being logged
+        DROP_OLDEST  // Discard the oldest queued message to make room
+    }
+
     private static final String LOG_FILE = "smartstock_debug.log";
-    
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Tunable with -Dsmartstock.log.* system properties
+    private static final int QUEUE_CAPACITY = intProperty("smartstock.log.queueCapacity", 8192);
+    private static final long MAX_FILE_BYTES = intProperty("smartstock.log.maxFileKb", 5 * 1024) * 1024L;
+    private static final int MAX_BACKUPS = intProperty("smartstock.log.backups", 3);
+    private static final int ERROR_HEADROOM = 256; // Extra slots only ERROR entries may use
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static volatile Level level = enumProperty("smartstock.log.level", Level.DEBUG);
+    private static volatile OverflowPolicy overflowPolicy =
+        enumProperty("smartstock.log.overflow", OverflowPolicy.DROP_OLDEST);
+    private static volatile boolean consoleEcho = Boolean.parseBoolean(
+        System.getProperty("smartstock.log.console", "true"));
+
+    // Lock-free queue, bounded by the size counter
+    private static final ConcurrentLinkedQueue<Entry> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static volatile boolean stopped = false;
+    private static final Thread WRITER = new Thread(DebugLogger::drainLoop, "debug-log-writer");
+
+    static {
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(DebugLogger::shutdown, "debug-log-shutdown"));
+    }
+
     public static void info(String message) {
-        if (ENABLE_LOGGING) {
-            String formatted = formatMessage("INFO", message);
-            System.out.println(formatted);
-            writeToFile(formatted);
-        }
+        log(Level.INFO, message, null);
     }
-    
+
     public static void error(String message) {
-        String formatted = formatMessage("ERROR", message);
-        System.err.println(formatted);
-        writeToFile(formatted);
+        log(Level.ERROR, message, null);
     }
-    
+
     public static void error(String message, Exception e) {
-        String formatted = formatMessage("ERROR", message + " - " + e.getMessage());
-        System.err.println(formatted);
-        writeToFile(formatted);
-        writeToFile(getStackTrace(e));
+        log(Level.ERROR, message + " - " + e.getMessage(), e);
     }
-    
+
     // Log debug
     public static void debug(String message) {
-        if (ENABLE_LOGGING) {
-            String formatted = formatMessage("DEBUG", message);
-            System.out.println(formatted);
-            writeToFile(formatted);
+        log(Level.DEBUG, message, null);
+    }
+
+    public static boolean isDebugEnabled() {
+        return level == Level.DEBUG;
+    }
+
+    // Runtime configuration
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    public static void setConsoleEcho(boolean enabled) {
+        consoleEcho = enabled;
+    }
+
+    // Messages discarded because the queue was full
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    private static void log(Level messageLevel, String message, Throwable error) {
+        if (messageLevel.ordinal() < level.ordinal()) return;
+
+        Entry entry = new Entry(System.currentTimeMillis(), messageLevel, message, error);
+        if (stopped) {
+            // Writer is gone (late shutdown hooks); write inline
+            writeDirect(entry);
+            return;
+        }
+
+        if (!reserveSlot(messageLevel)) {
+            DROPPED.incrementAndGet();
+            return;
+        }
+        QUEUE.offer(entry);
+        if (QUEUED.get() == 1) {
+            LockSupport.unpark(WRITER);
+        }
+    }
+
+    // Claim queue space, applying the overflow policy. Only non-ERROR entries are ever evicted; errors
+    // may also use ERROR_HEADROOM extra slots and are dropped only when that is full of errors too.
+    private static boolean reserveSlot(Level messageLevel) {
+        boolean isError = messageLevel == Level.ERROR;
+        int limit = isError ? QUEUE_CAPACITY + ERROR_HEADROOM : QUEUE_CAPACITY;
+        while (true) {
+            int size = QUEUED.get();
+            if (size < limit) {
+                if (QUEUED.compareAndSet(size, size + 1)) return true;
+                continue;
+            }
+            if (!isError && overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                return false;
+            }
+            // Evict the oldest non-ERROR entry and take its slot
+            if (evictOldestNonError()) {
+                DROPPED.incrementAndGet();
+                return true;
+            }
+            if (QUEUED.get() >= size) return false; // Nothing evictable and no slot freed
+        }
+    }
+
+    // Overflow path only: walks from the head past queued errors
+    private static boolean evictOldestNonError() {
+        for (Entry queued : QUEUE) {
+            if (queued.level != Level.ERROR && QUEUE.remove(queued)) return true;
+        }
+        return false;
+    }
+
+    // --- Writer thread ---
+
+    private static void drainLoop() {
+        LogFile file = new LogFile(Paths.get(LOG_FILE));
+        long reportedDrops = 0;
+        while (!stopped || !QUEUE.isEmpty()) {
+            Entry entry = QUEUE.poll();
+            if (entry == null) {
+                file.flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            QUEUED.decrementAndGet();
+
+            long drops = DROPPED.get();
+            if (drops != reportedDrops) {
+                file.append(format(new Entry(entry.time, Level.ERROR,
+                    (drops - reportedDrops) + " log message(s) dropped, queue full", null)));
+                reportedDrops = drops;
+            }
+
+            String text = format(entry);
+            echo(entry, text);
+            file.append(text);
         }
+        file.flush();
+        file.close();
     }
 
-    private static String formatMessage(String level, String message) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return String.format("[%s] [%s] %s", sdf.format(new Date()), level, message);
+    private static void shutdown() {
+        stopped = true;
+        LockSupport.unpark(WRITER);
+        try {
+            WRITER.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-    
-    private static void writeToFile(String message) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            pw.println(message);
+
+    private static synchronized void writeDirect(Entry entry) {
+        String text = format(entry);
+        echo(entry, text);
+        try {
+            Files.write(Paths.get(LOG_FILE), text.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
         } catch (IOException e) {
             System.err.println("Failed to write to log file: " + e.getMessage());
         }
     }
-    
-    private static String getStackTrace(Exception e) {
-        StringBuilder sb = new StringBuilder();
-        for (StackTraceElement element : e.getStackTrace()) {
-            sb.append("    at ").append(element.toString()).append("\n");
+
+    private static void echo(Entry entry, String text) {
+        if (!consoleEcho) return;
+        PrintStream out = entry.level == Level.ERROR ? System.err : System.out;
+        out.print(text);
+    }
+
+    private static String format(Entry entry) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append('[').append(TIME_FORMAT.format(Instant.ofEpochMilli(entry.time))).append("] [")
+          .append(entry.level).append("] ").append(entry.message).append('\n');
+        if (entry.error != null) {
+            appendStackTrace(sb, entry.error);
         }
         return sb.toString();
     }
+
+    private static void appendStackTrace(StringBuilder sb, Throwable e) {
+        for (StackTraceElement element : e.getStackTrace()) {
+            sb.append("    at ").append(element).append('\n');
+        }
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(System.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static <E extends Enum<E>> E enumProperty(String key, E defaultValue) {
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(),
+                System.getProperty(key, defaultValue.name()).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
+    private record Entry(long time, Level level, String message, Throwable error) {}
+
+    // Append-only log file with a reusable buffer and size-based rotation (writer thread only)
+    private static final class LogFile {
+        private final Path path;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private FileChannel channel;
+        private long size;
+
+        LogFile(Path path) {
+            this.path = path;
+            open();
+        }
+
+        void append(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > buffer.remaining()) {
+                flush();
+            }
+            if (bytes.length > buffer.capacity()) {
+                write(ByteBuffer.wrap(bytes)); // Oversized entry, bypass the buffer
+                return;
+            }
+            buffer.put(bytes);
+        }
+
+        void flush() {
+            if (buffer.position() == 0) return;
+            buffer.flip();
+            write(buffer);
+            buffer.clear();
+        }
+
+        private void write(ByteBuffer data) {
+            if (channel == null) {
+                data.position(data.limit()); // File unavailable, discard
+                return;
+            }
+            int length = data.remaining();
+            if (size > 0 && size + length > MAX_FILE_BYTES) {
+                rotate();
+                if (channel == null) {
+                    data.position(data.limit());
+                    return;
+                }
+            }
+            try {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                size += length;
+            } catch (IOException e) {
+                System.err.println("Failed to write to log file: " + e.getMessage());
+            }
+        }
+
+        // smartstock_debug.log -> .1 -> .2 ... oldest dropped
+        private void rotate() {
+            close();
+            try {
+                if (MAX_BACKUPS > 0) {
+                    Files.deleteIfExists(backup(MAX_BACKUPS));
+                    for (int i = MAX_BACKUPS - 1; i >= 1; i--) {
+                        if (Files.exists(backup(i))) {
+                            Files.move(backup(i), backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    }
+                    Files.move(path, backup(1), StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to rotate log file: " + e.getMessage());
+            }
+            open();
+        }
+
+        private Path backup(int index) {
+            return path.resolveSibling(path.getFileName() + "." + index);
+        }
+
+        private void open() {
+            try {
+                channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                size = channel.size();
+            } catch (IOException e) {
+                channel = null;
+                System.err.println("Failed to open log file: " + e.getMessage());
+            }
+        }
+
+        void close() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close log file: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.inventorysystem.util;
+
+import javax.swing.*;
+import java.awt.BorderLayout;
+import java.awt.Dialog;
+import java.awt.FlowLayout;
+import java.awt.Window;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Long job on a daemon thread behind a modeless progress dialog with Cancel.
+// The dialog polls the job's counters on a timer instead of taking an event per item; the result comes back on the EDT.
+public final class ProgressTask {
+
+    private static final int PROGRESS_INTERVAL_MS = 200;
+
+    // Background part; checks the flag to stop early
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(AtomicBoolean cancelled) throws Exception;
+    }
+
+    // Called on the EDT after the dialog closes; error is null on success
+    @FunctionalInterface
+    public interface Done<T> {
+        void finished(T result, Exception error, boolean cancelled);
+    }
+
+    // Progress widgets, handed to the poll callback on the EDT
+    public static final class View {
+        private final JProgressBar progressBar;
+        private final JLabel statusLabel;
+        private final JButton cancelButton;
+        private final AtomicBoolean cancelled;
+
+        private View(JProgressBar progressBar, JLabel statusLabel, JButton cancelButton, AtomicBoolean cancelled) {
+            this.progressBar = progressBar;
+            this.statusLabel = statusLabel;
+            this.cancelButton = cancelButton;
+            this.cancelled = cancelled;
+        }
+
+        public void update(int value, String status) {
+            progressBar.setValue(value);
+            if (!cancelled.get()) statusLabel.setText(status); // Keep "Cancelling..." once asked
+        }
+
+        public void setMaximum(int maximum) {
+            progressBar.setMaximum(maximum);
+        }
+
+        // For the part of a job that can no longer be stopped
+        public void disableCancel() {
+            cancelButton.setEnabled(false);
+        }
+    }
+
+    private ProgressTask() {}
+
+    // Show the dialog and start the work; returns immediately
+    public static <T> void start(Window parent, String title, String threadName, int maximum, String initialStatus,
+                                 Consumer<View> poll, Work<T> work, Done<T> done) {
+        JProgressBar progressBar = new JProgressBar(0, maximum);
+        progressBar.setStringPainted(true);
+        JLabel statusLabel = new JLabel(initialStatus);
+        JButton cancelButton = new JButton("Cancel");
+        JDialog progressDialog = new JDialog(parent, title, Dialog.ModalityType.MODELESS);
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        content.add(statusLabel, BorderLayout.NORTH);
+        content.add(progressBar, BorderLayout.CENTER);
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttons.add(cancelButton);
+        content.add(buttons, BorderLayout.SOUTH);
+        progressDialog.setContentPane(content);
+        progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        progressDialog.setSize(360, 140);
+        progressDialog.setLocationRelativeTo(parent);
+
+        AtomicBoolean cancelRequested = new AtomicBoolean();
+        View view = new View(progressBar, statusLabel, cancelButton, cancelRequested);
+        Timer progressTimer = new Timer(PROGRESS_INTERVAL_MS, e -> poll.accept(view));
+
+        Thread worker = new Thread(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = work.run(cancelRequested);
+            } catch (Exception ex) {
+                failure = ex;
+                DebugLogger.error(title + " failed", ex);
+            }
+
+            T value = result;
+            Exception error = failure;
+            boolean cancelled = cancelRequested.get();
+            SwingUtilities.invokeLater(() -> {
+                progressTimer.stop();
+                progressDialog.dispose();
+                done.finished(value, error, cancelled);
+            });
+        }, threadName);
+        worker.setDaemon(true);
+
+        cancelButton.addActionListener(e -> {
+            cancelRequested.set(true);
+            cancelButton.setEnabled(false);
+            statusLabel.setText("Cancelling...");
+        });
+
+        progressTimer.start();
+        worker.start();
+        progressDialog.setVisible(true);
+    }
+}
@@ -2,24 +2,145 @@ package com.inventorysystem.util;
 
 import java.io.BufferedInputStream;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
 
-// Sound util
+// Sound util - each sound is decoded once into a few open clips; one daemon thread rewinds and starts them
 public class SoundUtil {
+
+    private static final int CLIPS_PER_SOUND = 3;     // Overlapping beeps when scanning fast
+    private static final int QUEUE_CAPACITY = 16;      // Requests beyond this are dropped, not queued up late
+
+    private static final Map<String, ClipPool> POOLS = new ConcurrentHashMap<>();
+    private static final BlockingQueue<String> REQUESTS = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final Thread PLAYER = new Thread(SoundUtil::playLoop, "sound-player");
+
+    static {
+        PLAYER.setDaemon(true);
+        PLAYER.start();
+    }
+
+    // Queue a sound; returns immediately
     public static void play(String soundFileName) {
-        new Thread(() -> { // Run in thread
+        if (!REQUESTS.offer(soundFileName)) {
+            DebugLogger.debug("Sound queue full, dropped " + soundFileName);
+        }
+    }
+
+    // Decode sounds and open their clips ahead of first use (startup)
+    public static void preload(String... soundFileNames) {
+        for (String name : soundFileNames) {
+            pool(name);
+        }
+    }
+
+    private static void playLoop() {
+        while (true) {
             try {
-                String resourcePath = "/resources/" + soundFileName;
-                InputStream audioSrc = SoundUtil.class.getResourceAsStream(resourcePath);
-                if (audioSrc == null) return;
-                InputStream bufferedIn = new BufferedInputStream(audioSrc);
-                Clip clip = AudioSystem.getClip();
-                clip.open(AudioSystem.getAudioInputStream(bufferedIn));
-                clip.start();
-            } catch (Exception e) {
-                com.inventorysystem.util.DebugLogger.debug("Sound playback error: " + e.getMessage());
+                ClipPool pool = pool(REQUESTS.take());
+                if (pool != null) pool.play();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                DebugLogger.debug("Sound playback error: " + e.getMessage());
+            }
+        }
+    }
+
+    // Loaded once; a sound that fails to load is remembered as unavailable instead of retried per beep
+    private static ClipPool pool(String soundFileName) {
+        ClipPool pool = POOLS.computeIfAbsent(soundFileName, SoundUtil::load);
+        return pool.clips.length > 0 ? pool : null;
+    }
+
+    private static ClipPool load(String soundFileName) {
+        String resourcePath = "/resources/" + soundFileName;
+        try (InputStream audioSrc = SoundUtil.class.getResourceAsStream(resourcePath)) {
+            if (audioSrc == null) {
+                DebugLogger.debug("Sound not found: " + resourcePath);
+                return new ClipPool(new Clip[0]);
+            }
+            AudioFormat format;
+            byte[] data;
+            try (AudioInputStream audio = AudioSystem.getAudioInputStream(new BufferedInputStream(audioSrc))) {
+                format = audio.getFormat();
+                data = audio.readAllBytes();
+            }
+            Clip[] clips = new Clip[CLIPS_PER_SOUND];
+            for (int i = 0; i < clips.length; i++) {
+                clips[i] = AudioSystem.getClip();
+                clips[i].open(format, data, 0, data.length);
+            }
+            return new ClipPool(clips);
+        } catch (Exception e) {
+            DebugLogger.debug("Sound unavailable (" + soundFileName + "): " + e.getMessage());
+            return new ClipPool(new Clip[0]);
+        }
+    }
+
+    // Open clips for one sound, used in turn; a clip still playing is rewound when its turn comes again
+    private static final class ClipPool {
+        private final Clip[] clips;
+        private int next; // Player thread only
+
+        ClipPool(Clip[] clips) {
+            this.clips = clips;
+        }
+
+        void play() {
+            Clip clip = clips[next];
+            next = (next + 1) % clips.length;
+            clip.stop();
+            clip.setFramePosition(0);
+            clip.start();
+        }
+    }
+
+    // Benchmark: 100 beeps at scan speed - old per-call thread + decode vs the preloaded queue
+    public static void main(String[] args) throws Exception {
+        int beeps = 100;
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+
+            long threadsBefore = java.lang.management.ManagementFactory.getThreadMXBean().getTotalStartedThreadCount();
+            long start = System.nanoTime();
+            for (int i = 0; i < beeps; i++) {
+                Thread t = new Thread(() -> {
+                    try (InputStream in = new BufferedInputStream(SoundUtil.class.getResourceAsStream("/resources/beep.wav"));
+                         AudioInputStream audio = AudioSystem.getAudioInputStream(in)) {
+                        audio.readAllBytes(); // Old path decoded here, then allocated a new Clip
+                    } catch (Exception e) {
+                        // Ignored
+                    }
+                });
+                t.start();
+                t.join();
+            }
+            long legacy = System.nanoTime() - start;
+            long legacyThreads = java.lang.management.ManagementFactory.getThreadMXBean().getTotalStartedThreadCount() - threadsBefore;
+
+            preload("beep.wav");
+            threadsBefore = java.lang.management.ManagementFactory.getThreadMXBean().getTotalStartedThreadCount();
+            start = System.nanoTime();
+            for (int i = 0; i < beeps; i++) {
+                play("beep.wav");
+                while (!REQUESTS.isEmpty()) Thread.onSpinWait(); // Wait for the player, as 5 scans a second would
+            }
+            long pooled = System.nanoTime() - start;
+            long pooledThreads = java.lang.management.ManagementFactory.getThreadMXBean().getTotalStartedThreadCount() - threadsBefore;
+
+            if (report) {
+                System.out.printf("%d beeps, thread + decode per beep: %.3f ms each, %d threads started%n",
+                    beeps, legacy / 1e6 / beeps, legacyThreads);
+                System.out.printf("%d beeps, preloaded clip pool:      %.3f ms each, %d threads started (clips available: %s)%n",
+                    beeps, pooled / 1e6 / beeps, pooledThreads, pool("beep.wav") != null);
             }
-        }).start();
+        }
     }
-}
\ No newline at end of file
+}
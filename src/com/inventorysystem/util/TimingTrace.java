@@ -0,0 +1,54 @@
+package com.inventorysystem.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Named timing trace: checkpoints from one start mark, logged as a single line when finished.
+// Looked up by name so the login panel, frame and main panel can each add their step.
+public final class TimingTrace {
+
+    private static final Map<String, TimingTrace> ACTIVE = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    private final StringBuilder steps = new StringBuilder();
+    private long lastNanos = startNanos;
+
+    private TimingTrace(String name) {
+        this.name = name;
+    }
+
+    // Start (or restart) a trace
+    public static void start(String name) {
+        ACTIVE.put(name, new TimingTrace(name));
+    }
+
+    // Record a step; ignored when the trace is not running
+    public static void mark(String name, String step) {
+        TimingTrace trace = ACTIVE.get(name);
+        if (trace != null) trace.add(step);
+    }
+
+    // Record the last step and log the whole trace
+    public static void finish(String name, String step) {
+        TimingTrace trace = ACTIVE.remove(name);
+        if (trace == null) return;
+        trace.add(step);
+        DebugLogger.info(String.format("Timing [%s]: %s (total %.0f ms)",
+            trace.name, trace.steps, (trace.lastNanos - trace.startNanos) / 1e6));
+    }
+
+    // Heap in use after a few GCs, for the benchmark mains
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private synchronized void add(String step) {
+        long now = System.nanoTime();
+        if (steps.length() > 0) steps.append(", ");
+        steps.append(step).append(' ').append(Math.round((now - lastNanos) / 1e6)).append(" ms");
+        lastNanos = now;
+    }
+}